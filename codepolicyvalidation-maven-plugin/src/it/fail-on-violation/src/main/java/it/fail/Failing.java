@@ -0,0 +1,9 @@
+package it.fail;
+
+public class Failing {
+
+	public void fail() {
+		throw new RuntimeException("fail");
+	}
+
+}
@@ -0,0 +1,6 @@
+def report = new File(basedir, 'target/codepolicy-report.txt')
+assert report.isFile()
+assert report.text.contains('FAIL noRuntimeException: ')
+
+def log = new File(basedir, 'build.log').text
+assert log.contains('1 codepolicy test(s) failed in fail-on-violation')
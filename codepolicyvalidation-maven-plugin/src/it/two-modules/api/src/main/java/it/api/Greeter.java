@@ -0,0 +1,7 @@
+package it.api;
+
+public abstract class Greeter {
+
+	public abstract String greet(String name);
+
+}
@@ -0,0 +1,14 @@
+package it.app;
+
+import it.api.Greeter;
+
+public class ConsoleGreeter extends Greeter {
+
+	@Override
+	public String greet(final String name) {
+		final var message = "Hello " + name;
+		System.out.println(message);
+		return message;
+	}
+
+}
@@ -0,0 +1,10 @@
+def apiReport = new File(basedir, 'api/target/codepolicy-report.txt')
+def appReport = new File(basedir, 'app/target/codepolicy-report.txt')
+assert apiReport.isFile()
+assert appReport.isFile()
+
+assert apiReport.text.startsWith('api: ')
+assert apiReport.text.contains('FAIL') == false
+assert appReport.text.startsWith('app: ')
+assert appReport.text.contains('FAIL noSysOutSysErr: Don\'t use sys.out/sys.err in it.app.ConsoleGreeter.greet(java.lang.String)')
+assert appReport.text.count('FAIL ') == 1
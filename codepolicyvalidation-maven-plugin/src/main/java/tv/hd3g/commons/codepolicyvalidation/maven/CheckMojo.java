@@ -0,0 +1,189 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import tv.hd3g.commons.codepolicyvalidation.ModuleReport;
+import tv.hd3g.commons.codepolicyvalidation.Policies;
+import tv.hd3g.commons.codepolicyvalidation.PolicyRunner;
+
+/**
+ * codepolicy:check, run the policy tests on the module sources with a PolicyRunner, and write the module report.
+ * The runners are shared by all the modules of the build, but not the models: each module is parsed alone, and the
+ * types of the other reactor modules are read from their compiled classes. The Policies state is global to the JVM, so
+ * the checks are serialized by the PolicyRunner lock, even with a parallel build (-T).
+ * The annotations and super types declared in the module dependencies are resolved from its test classpath, which is
+ * given to Spoon (for the model shards and the incremental model), and is a part of the PolicyCache key.
+ */
+@Mojo(name = "check",
+	  defaultPhase = LifecyclePhase.VERIFY,
+	  requiresDependencyResolution = ResolutionScope.TEST,
+	  threadSafe = true)
+public class CheckMojo extends AbstractMojo {
+
+	/**
+	 * By policy class, for the policy classes loaded by the plugin (not the module test classes).
+	 */
+	private static final Map<Class<? extends Policies>, PolicyRunner> sharedRunners = new ConcurrentHashMap<>();
+
+	@Parameter(defaultValue = "${project}", readonly = true, required = true)
+	private MavenProject project;
+
+	/**
+	 * CheckPolicy or a subclass, from the plugin dependencies or the module test classes.
+	 */
+	@Parameter(property = "codepolicy.policyClass",
+			   defaultValue = "tv.hd3g.commons.codepolicyvalidation.CheckPolicy")
+	private String policyClass;
+
+	@Parameter(property = "codepolicy.reportFile",
+			   defaultValue = "${project.build.directory}/codepolicy-report.txt")
+	private File reportFile;
+
+	/**
+	 * Check the test sources too.
+	 */
+	@Parameter(property = "codepolicy.includeTests", defaultValue = "true")
+	private boolean includeTests;
+
+	/**
+	 * Fail the build if some policy tests fail, else only log the failures.
+	 */
+	@Parameter(property = "codepolicy.failOnViolation", defaultValue = "true")
+	private boolean failOnViolation;
+
+	@Parameter(property = "codepolicy.skip", defaultValue = "false")
+	private boolean skip;
+
+	@Override
+	public void execute() throws MojoExecutionException, MojoFailureException {
+		if (skip) {
+			getLog().info("Skip codepolicy check");
+			return;
+		} else if ("pom".equals(project.getPackaging())) {
+			getLog().debug("Skip codepolicy check for a pom module");
+			return;
+		}
+
+		final var sourceRoots = getSourceRoots();
+		if (sourceRoots.isEmpty()) {
+			getLog().info("No sources to check in " + project.getArtifactId());
+			return;
+		}
+
+		final var classpath = getTestClasspath();
+		final ModuleReport report;
+		final var currentThread = Thread.currentThread();
+		final var previousClassLoader = currentThread.getContextClassLoader();
+		try (var moduleClassLoader = new URLClassLoader(toURLs(classpath), getClass().getClassLoader())) {
+			currentThread.setContextClassLoader(moduleClassLoader);
+			report = getRunner(moduleClassLoader).check(project.getArtifactId(), sourceRoots, classpath);
+		} catch (final IOException e) {
+			throw new MojoExecutionException("Can't load the classpath of " + project.getArtifactId(), e);
+		} finally {
+			currentThread.setContextClassLoader(previousClassLoader);
+		}
+
+		try {
+			report.write(reportFile.toPath());
+		} catch (final UncheckedIOException e) {
+			throw new MojoExecutionException("Can't write the codepolicy report", e);
+		}
+
+		if (report.isSuccess()) {
+			getLog().info(report.toText().strip());
+			return;
+		}
+		report.toText().lines().forEach(getLog()::warn);
+		getLog().warn("See " + reportFile);
+		if (failOnViolation) {
+			throw new MojoFailureException(report.failuresByTest().size() + " codepolicy test(s) failed in "
+										   + project.getArtifactId() + ", see " + reportFile);
+		}
+	}
+
+	private List<String> getSourceRoots() {
+		final var roots = new ArrayList<>(project.getCompileSourceRoots());
+		if (includeTests) {
+			roots.addAll(project.getTestCompileSourceRoots());
+		}
+		return roots.stream()
+				.filter(root -> new File(root).isDirectory())
+				.distinct()
+				.toList();
+	}
+
+	/**
+	 * @return the compiled classes and the dependencies of the module, for Spoon and the PolicyCache key
+	 */
+	private List<String> getTestClasspath() throws MojoExecutionException {
+		try {
+			return List.copyOf(project.getTestClasspathElements());
+		} catch (final DependencyResolutionRequiredException e) {
+			throw new MojoExecutionException("Can't resolve the test classpath of " + project.getArtifactId(), e);
+		}
+	}
+
+	/**
+	 * For the LibraryTypes, found with the thread context class loader
+	 */
+	private URL[] toURLs(final List<String> classpath) throws MojoExecutionException {
+		try {
+			final var urls = new ArrayList<URL>();
+			for (final var element : classpath) {
+				urls.add(new File(element).toURI().toURL());
+			}
+			return urls.toArray(URL[]::new);
+		} catch (final MalformedURLException e) {
+			throw new MojoExecutionException("Invalid classpath for " + project.getArtifactId(), e);
+		}
+	}
+
+	private PolicyRunner getRunner(final ClassLoader moduleClassLoader) throws MojoExecutionException {
+		final Class<? extends Policies> policy;
+		try {
+			policy = Class.forName(policyClass, true, moduleClassLoader).asSubclass(Policies.class);
+		} catch (final ClassNotFoundException | ClassCastException e) {
+			throw new MojoExecutionException("Invalid policy class: " + policyClass, e);
+		}
+		if (policy.getClassLoader() == moduleClassLoader) {
+			return PolicyRunner.of(policy);
+		}
+		return sharedRunners.computeIfAbsent(policy, PolicyRunner::of);
+	}
+
+}
@@ -0,0 +1,40 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run all the benchmarks with the GC profiler (allocation by operation).
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * @param args an optional benchmark name regexp
+	 */
+	public static void main(final String[] args) throws RunnerException {
+		final var options = new OptionsBuilder()
+				.include(args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*Benchmark")
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+
+}
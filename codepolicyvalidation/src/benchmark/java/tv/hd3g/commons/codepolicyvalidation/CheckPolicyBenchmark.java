@@ -0,0 +1,121 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Each CheckPolicy test, on the test fixtures.
+ * The ElementRule tests are measured as a fresh model walk for this rule only (else the results are memoized by
+ * Policies), the other tests are called as is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckPolicyBenchmark {
+
+	@Param({
+			"noIllegalArgumentExceptionWOConstructor",
+			"noSysOutSysErr",
+			"noSimplePrintStackTrace",
+			"noOptionalOf",
+			"xToOneMustToSetOptional",
+			"xToManyMustNotUseEAGER",
+			"noSuppressWarnings",
+			"noRuntimeException",
+			"noNullPointerException",
+			"notOldJunitAssert",
+			"notOldJunitRunner",
+			"notOldJunit",
+			"notJunitFramework",
+			"notSQLDate",
+			"notCommonsLang2Use3",
+			"notCommonsCollection3Use4",
+			"notLog4j",
+			"notFlatJavaMailSenderOutsideTests",
+			"notFlatJobKitEngineOutsideTests",
+			"springBootControllersInControllerPackage",
+			"springBootEntitiesInEntityPackage",
+			"springBootRepositoriesInRepositoryPackage",
+			"springBootComponentInComponentPackage",
+			"springBootServicesInServicePackage",
+			"springBootNotControllerInControllerPackage",
+			"springBootNotComponentInComponentPackage",
+			"springBootNotEntityInEntityPackage",
+			"springBootNotRepositoryInRepositoryPackage",
+			"springBootNotServiceInServicePackage",
+			"springBootNotClassInControllerPackage",
+			"springBootNotClassInEntityPackage",
+			"springBootNotInterfaceInRepositoryPackage",
+			"springBootNotClassOrInterfaceInServicePackage",
+			"springBootServiceBadName",
+			"springBootServiceDontImplInterface",
+			"springBootServiceInterfaceNames",
+			"classExtendsCheckPolicyNamesMustEndsByTest",
+			"springBootRESTControllerMethodsMustReturnResponseEntity"
+	})
+	public String test;
+
+	private CheckPolicy checkPolicy;
+	private ElementRule<?> elementRule;
+	private ModelSnapshot snapshot;
+	private Method testMethod;
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		Policies.globalInit(PoliciesBenchmark.FIXTURES);
+		checkPolicy = new CheckPolicy();
+		elementRule = checkPolicy.getElementRules().stream()
+				.filter(rule -> rule.getName().equals(test))
+				.findFirst()
+				.orElse(null);
+		snapshot = new ModelSnapshot(List.of(Policies.getLauncher().getFactory().Package().getRootPackage()));
+		testMethod = CheckPolicy.class.getMethod(test);
+	}
+
+	@Benchmark
+	public Object run() throws IllegalAccessException {
+		if (elementRule != null) {
+			return new RuleEngine(snapshot, 1, new PolicyMetrics()).getMatches(elementRule, List.of());
+		}
+		try {
+			testMethod.invoke(checkPolicy);
+			return null;
+		} catch (final InvocationTargetException e) {
+			return e.getCause();
+		}
+	}
+
+}
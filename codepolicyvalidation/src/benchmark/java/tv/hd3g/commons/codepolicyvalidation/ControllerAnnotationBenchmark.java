@@ -0,0 +1,95 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spoon.reflect.declaration.CtMethod;
+
+/**
+ * Search the RestController methods without a request mapping annotation, on a generated Spring Boot corpus (see
+ * SpringBootCorpus, one RestController by 6 classes): by pretty print of each annotation (as before), or by the
+ * precomputed annotations names of the AnnotationIndex (hasNotAnnotationMethod).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerAnnotationBenchmark {
+
+	private static final Set<String> REQUEST_MAPPINGS = Set.of(
+			"org.springframework.web.bind.annotation.RequestMapping",
+			"org.springframework.web.bind.annotation.PostMapping",
+			"org.springframework.web.bind.annotation.PutMapping",
+			"org.springframework.web.bind.annotation.DeleteMapping",
+			"org.springframework.web.bind.annotation.GetMapping",
+			"org.springframework.web.bind.annotation.PatchMapping");
+
+	@Param({ "600", "6000" })
+	public int classes;
+
+	private Policies policies;
+	private List<CtMethod<?>> methods;
+
+	@Setup
+	public void setup() throws IOException {
+		final var sourceDir = Files.createTempDirectory("codepolicy-controllers");
+		new SpringBootCorpus(sourceDir, "benchmark.controllers", Map.of(), 0).generate(classes);
+		Policies.globalInit(sourceDir.toString());
+		policies = new Policies();
+		methods = policies.searchByAnnotationInClass("org.springframework.web.bind.annotation.RestController")
+				.stream()
+				.<CtMethod<?>> flatMap(c -> c.getMethods().stream())
+				.filter(CtMethod::isPublic)
+				.toList();
+		policies.getAnnotationIndex();
+	}
+
+	@Benchmark
+	public long byPrettyPrint() {
+		final var prefixedNames = REQUEST_MAPPINGS.stream().map(n -> "@" + n).toList();
+		return methods.stream()
+				.filter(m -> m.getAnnotations().stream()
+						.noneMatch(d -> prefixedNames.stream().anyMatch(aN -> d.toString().contains(aN))))
+				.count();
+	}
+
+	@Benchmark
+	public long byAnnotationIndex() {
+		return policies.hasNotAnnotationMethod(methods, REQUEST_MAPPINGS).count();
+	}
+
+}
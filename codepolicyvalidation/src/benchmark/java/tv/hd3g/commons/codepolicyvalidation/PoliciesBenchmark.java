@@ -0,0 +1,118 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spoon.reflect.code.CtThrow;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+/**
+ * The Policies query primitives, on the test fixtures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PoliciesBenchmark {
+
+	static final String FIXTURES = "src/test/java/tv/hd3g/commons/codepolicyvalidation";
+	static final String SPRINGBOOT_FIXTURES = FIXTURES + "/springboot";
+
+	private Policies policies;
+	private List<CtPackage> servicePackages;
+	private CtThrow throwElement;
+
+	@Setup
+	public void setup() {
+		Policies.globalInit(FIXTURES);
+		policies = new Policies();
+		servicePackages = policies.searchPackagesByPackageName("service");
+		throwElement = Policies.getLauncher().getFactory().Package().getRootPackage()
+				.getElements(new TypeFilter<>(CtThrow.class)).get(0);
+	}
+
+	/**
+	 * One globalInit by op. The other benchmarks are not affected: setup is called again before each of them.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object globalInit() {
+		Policies.globalInit(FIXTURES);
+		return Policies.referenceIndex;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object globalInitSpringBoot() {
+		Policies.globalInit(SPRINGBOOT_FIXTURES);
+		return Policies.referenceIndex;
+	}
+
+	@Benchmark
+	public Object searchByAnnotationInClass() {
+		return policies.searchByAnnotationInClass("org.springframework.stereotype.Service");
+	}
+
+	@Benchmark
+	public Object searchPackagesByPackageName() {
+		return policies.searchPackagesByPackageName("service");
+	}
+
+	@Benchmark
+	public Object searchClassesByPackages() {
+		return policies.searchClassesByPackages(servicePackages, t -> true);
+	}
+
+	@Benchmark
+	public Object checkClassNotPresent() {
+		try {
+			policies.checkClassNotPresent("org.junit.Assert", "Don't use old Junit Assert");
+			return null;
+		} catch (final BadImportClass e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object bannedImportMatcherGetHits() {
+		return CheckPolicy.bannedImportMatcher.getHits(policies.getReferenceIndex());
+	}
+
+	@Benchmark
+	public Object mapPathElementToString() {
+		return policies.mapPathElementToString(throwElement);
+	}
+
+}
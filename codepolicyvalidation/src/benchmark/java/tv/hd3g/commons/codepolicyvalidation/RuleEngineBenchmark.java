@@ -0,0 +1,69 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spoon.reflect.declaration.CtElement;
+
+/**
+ * A RuleEngine walk of all the CheckPolicy ElementRules on this project sources, by parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleEngineBenchmark {
+
+	@Param({ "1", "2", "4", "8" })
+	private int parallelism;
+
+	private ModelSnapshot snapshot;
+	private List<ElementRule<?>> rules;
+
+	@Setup
+	public void setup() {
+		Policies.globalInit("src/main/java", "src/test/java");
+		snapshot = new ModelSnapshot(List.of(Policies.getLauncher().getFactory().Package().getRootPackage()));
+		rules = List.copyOf(new CheckPolicy().getElementRules());
+	}
+
+	@Benchmark
+	public Object walk() {
+		final var engine = new RuleEngine(snapshot, parallelism, new PolicyMetrics());
+		final var results = new ArrayList<List<? extends CtElement>>(rules.size());
+		rules.forEach(rule -> results.add(engine.getMatches(rule, rules)));
+		return results;
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static tv.hd3g.commons.codepolicyvalidation.CtTypeCat.INTERFACE;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spoon.reflect.declaration.CtType;
+
+/**
+ * The repository super interfaces and the annotations availability, resolved by loading the classes (as before), or
+ * from the model and the class files (getAllInterfaceNames, TypeHierarchy and isKnownType), on the Spring Boot test
+ * fixtures.
+ * The classes are loaded only on the first call: the loadedClasses benchmarks only measure the next ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeHierarchyBenchmark {
+
+	private static final Set<String> REPOSITORIES = Set.of(
+			"org.springframework.data.jpa.repository.JpaRepository",
+			"org.springframework.data.repository.CrudRepository");
+	private static final List<String> ANNOTATIONS = List.of(
+			"org.springframework.web.bind.annotation.RestController",
+			"org.springframework.stereotype.Component",
+			"jakarta.persistence.MappedSuperclass",
+			"org.springframework.stereotype.Repository",
+			"this.is.not.Found");
+
+	private Policies policies;
+	private List<CtType<?>> repositories;
+
+	@Setup
+	public void setup() {
+		Policies.globalInit(PoliciesBenchmark.SPRINGBOOT_FIXTURES + "/ok");
+		policies = new Policies();
+		repositories = policies.searchClassesByPackages(policies.searchPackagesByPackageName("repository"),
+				INTERFACE.filter);
+	}
+
+	@Benchmark
+	public long repositoriesByLoadedClasses() throws ClassNotFoundException {
+		var count = 0L;
+		for (final var repository : repositories) {
+			final var fullClass = Class.forName(repository.getQualifiedName());
+			if (Stream.of(fullClass.getInterfaces()).map(Class::getName).anyMatch(REPOSITORIES::contains)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long repositoriesByModel() {
+		return repositories.stream()
+				.filter(r -> policies.getAllInterfaceNames(r.getReference()).stream().anyMatch(REPOSITORIES::contains))
+				.count();
+	}
+
+	@Benchmark
+	public long repositoriesByTypeHierarchy() {
+		final var typeHierarchy = policies.getTypeHierarchy();
+		return repositories.stream()
+				.filter(r -> REPOSITORIES.stream().anyMatch(s -> typeHierarchy.isSubtypeOf(r.getQualifiedName(), s)))
+				.count();
+	}
+
+	@Benchmark
+	public long annotationsByLoadedClasses() {
+		var count = 0L;
+		for (final var annotation : ANNOTATIONS) {
+			try {
+				Class.forName(annotation);
+				count++;
+			} catch (final ClassNotFoundException e) {// NOSONAR S108
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long annotationsByModel() {
+		return ANNOTATIONS.stream().filter(policies::isKnownType).count();
+	}
+
+}
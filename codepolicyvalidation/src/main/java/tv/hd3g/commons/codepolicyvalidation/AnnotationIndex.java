@@ -0,0 +1,207 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import spoon.reflect.declaration.CtAnnotation;
+import spoon.reflect.declaration.CtAnnotationType;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.CtScanner;
+
+/**
+ * Annotation qualified name -&gt; the annotated types, methods and fields of a model, in model order.
+ * And annotated type, method or field -&gt; its annotations names, with their meta-annotations.
+ * The annotations are only known by name: their classes are not needed on the classpath, and never loaded (the
+ * meta-annotations out of the model are read from the class files, see LibraryTypes).
+ */
+public class AnnotationIndex {
+
+	private final Map<String, List<CtType<?>>> typesByAnnotation;
+	private final Map<String, List<CtMethod<?>>> methodsByAnnotation;
+	private final Map<String, List<CtField<?>>> fieldsByAnnotation;
+	private final Map<String, List<String>> modelMetaAnnotationsByName;
+	private final Map<String, Set<String>> annotationNamesByName;
+	private final Map<CtElement, Set<String>> annotationNamesByElement;
+
+	private AnnotationIndex(final Map<String, List<CtType<?>>> typesByAnnotation,
+							final Map<String, List<CtMethod<?>>> methodsByAnnotation,
+							final Map<String, List<CtField<?>>> fieldsByAnnotation,
+							final Map<String, List<String>> modelMetaAnnotationsByName) {
+		this.typesByAnnotation = typesByAnnotation;
+		this.methodsByAnnotation = methodsByAnnotation;
+		this.fieldsByAnnotation = fieldsByAnnotation;
+		this.modelMetaAnnotationsByName = modelMetaAnnotationsByName;
+		annotationNamesByName = new ConcurrentHashMap<>();
+		annotationNamesByElement = new IdentityHashMap<>();
+	}
+
+	/**
+	 * Walk all the annotations of the model, one time.
+	 */
+	static AnnotationIndex build(final List<CtPackage> rootPackages) {
+		final var typesByAnnotation = new HashMap<String, List<CtType<?>>>();
+		final var methodsByAnnotation = new HashMap<String, List<CtMethod<?>>>();
+		final var fieldsByAnnotation = new HashMap<String, List<CtField<?>>>();
+		final var modelMetaAnnotationsByName = new HashMap<String, List<String>>();
+		final var annotatedElements = Collections.newSetFromMap(new IdentityHashMap<CtElement, Boolean>());
+
+		final var scanner = new CtScanner() {
+			@Override
+			public <A extends Annotation> void visitCtAnnotation(final CtAnnotation<A> annotation) {
+				final var name = annotation.getAnnotationType().getQualifiedName();
+				final var annotated = annotation.getAnnotatedElement();
+				if (annotated instanceof final CtType<?> type) {
+					add(typesByAnnotation, name, type);
+					annotatedElements.add(type);
+					if (type instanceof CtAnnotationType<?>) {
+						modelMetaAnnotationsByName.computeIfAbsent(type.getQualifiedName(), k -> new ArrayList<>())
+								.add(name);
+					}
+				} else if (annotated instanceof final CtMethod<?> method) {
+					add(methodsByAnnotation, name, method);
+					annotatedElements.add(method);
+				} else if (annotated instanceof final CtField<?> field) {
+					add(fieldsByAnnotation, name, field);
+					annotatedElements.add(field);
+				}
+				super.visitCtAnnotation(annotation);
+			}
+		};
+		rootPackages.forEach(scanner::scan);
+
+		final var annotationIndex = new AnnotationIndex(
+				freeze(typesByAnnotation),
+				freeze(methodsByAnnotation),
+				freeze(fieldsByAnnotation),
+				freeze(modelMetaAnnotationsByName));
+		annotatedElements.forEach(element -> annotationIndex.annotationNamesByElement.put(element,
+				annotationIndex.resolveAnnotationNames(element)));
+		return annotationIndex;
+	}
+
+	/**
+	 * A repeated annotation is added only one time.
+	 */
+	private static <T extends CtElement> void add(final Map<String, List<T>> elementsByAnnotation,
+												  final String annotationName,
+												  final T element) {
+		final var elements = elementsByAnnotation.computeIfAbsent(annotationName, k -> new ArrayList<>());
+		if (elements.isEmpty() || elements.get(elements.size() - 1) != element) {
+			elements.add(element);
+		}
+	}
+
+	private static <T> Map<String, List<T>> freeze(final Map<String, List<T>> elementsByAnnotation) {
+		final var frozen = new HashMap<String, List<T>>(elementsByAnnotation.size());
+		elementsByAnnotation.forEach((name, elements) -> frozen.put(name, Collections.unmodifiableList(elements)));
+		return Collections.unmodifiableMap(frozen);
+	}
+
+	/**
+	 * @param annotationName the annotation qualified name
+	 * @return empty if nothing is annotated by it
+	 */
+	public List<CtType<?>> getAnnotatedTypes(final String annotationName) {// NOSONAR S1452
+		return typesByAnnotation.getOrDefault(annotationName, List.of());
+	}
+
+	/**
+	 * @param annotationName the annotation qualified name
+	 * @return empty if nothing is annotated by it
+	 */
+	public List<CtMethod<?>> getAnnotatedMethods(final String annotationName) {// NOSONAR S1452
+		return methodsByAnnotation.getOrDefault(annotationName, List.of());
+	}
+
+	/**
+	 * @param annotationName the annotation qualified name
+	 * @return empty if nothing is annotated by it
+	 */
+	public List<CtField<?>> getAnnotatedFields(final String annotationName) {// NOSONAR S1452
+		return fieldsByAnnotation.getOrDefault(annotationName, List.of());
+	}
+
+	/**
+	 * @return the qualified names of the element annotations, and of all their meta-annotations (directly or not). It's
+	 *         precomputed for the annotated types, methods and fields of the model.
+	 */
+	public Set<String> getAnnotationNames(final CtElement element) {
+		final var annotationNames = annotationNamesByElement.get(element);
+		if (annotationNames != null) {
+			return annotationNames;
+		}
+		return resolveAnnotationNames(element);
+	}
+
+	private Set<String> resolveAnnotationNames(final CtElement element) {
+		final var annotations = element.getAnnotations();
+		if (annotations.isEmpty()) {
+			return Set.of();
+		} else if (annotations.size() == 1) {
+			return getAnnotationNames(annotations.get(0).getAnnotationType().getQualifiedName());
+		}
+		final var annotationNames = new HashSet<String>();
+		annotations.forEach(a -> annotationNames.addAll(getAnnotationNames(a.getAnnotationType().getQualifiedName())));
+		return Collections.unmodifiableSet(annotationNames);
+	}
+
+	/**
+	 * @return annotationName, and the names of all its meta-annotations, from the model, else from the classpath.
+	 */
+	Set<String> getAnnotationNames(final String annotationName) {
+		final var known = annotationNamesByName.get(annotationName);
+		if (known != null) {
+			return known;
+		}
+		final var annotationNames = new HashSet<String>();
+		final var pending = new ArrayDeque<String>();
+		pending.add(annotationName);
+		while (pending.isEmpty() == false) {
+			final var name = pending.poll();
+			if (annotationNames.add(name)) {
+				pending.addAll(modelMetaAnnotationsByName.containsKey(name) ? modelMetaAnnotationsByName.get(name)
+																			 : LibraryTypes.getAnnotationNames(name));
+			}
+		}
+		final var frozen = Set.copyOf(annotationNames);
+		annotationNamesByName.putIfAbsent(annotationName, frozen);
+		return frozen;
+	}
+
+	/**
+	 * @return the qualified names of all the annotations used on types
+	 */
+	public Set<String> getTypeAnnotationNames() {
+		return typesByAnnotation.keySet();
+	}
+
+}
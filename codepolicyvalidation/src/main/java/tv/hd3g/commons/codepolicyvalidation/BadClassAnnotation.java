@@ -22,8 +22,19 @@ import java.util.stream.Collectors;
 public class BadClassAnnotation extends AssertionError {
 
 	public BadClassAnnotation(final String className, final String currentPackage, final String expectedAnnotation) {
-		super("Class \"" + className + "\" located on package \"" + currentPackage + "\" should have \"@"
-		      + expectedAnnotation + "\"");
+		super(toMessage(className, currentPackage, expectedAnnotation));
+	}
+
+	/**
+	 * Render the collected violations of ruleId.
+	 */
+	public BadClassAnnotation(final ViolationCollector collector, final String ruleId) {
+		super(collector.toText(ruleId, ". ") + ".");
+	}
+
+	static String toMessage(final String className, final String currentPackage, final String expectedAnnotation) {
+		return "Class \"" + className + "\" located on package \"" + currentPackage + "\" should have \"@"
+		       + expectedAnnotation + "\"";
 	}
 
 	public BadClassAnnotation(final Collection<BadClassAnnotation> bclList) {
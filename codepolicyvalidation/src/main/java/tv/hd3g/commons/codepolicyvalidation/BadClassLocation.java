@@ -22,8 +22,19 @@ import java.util.stream.Collectors;
 public class BadClassLocation extends AssertionError {
 
 	public BadClassLocation(final String className, final String currentPackage, final String expectedPackage) {
-		super("Class \"" + className + "\" located on package \"" + currentPackage + "\" should be on a \"*."
-		      + expectedPackage + "\" package");
+		super(toMessage(className, currentPackage, expectedPackage));
+	}
+
+	/**
+	 * Render the collected violations of ruleId.
+	 */
+	public BadClassLocation(final ViolationCollector collector, final String ruleId) {
+		super(collector.toText(ruleId, ". ") + ".");
+	}
+
+	static String toMessage(final String className, final String currentPackage, final String expectedPackage) {
+		return "Class \"" + className + "\" located on package \"" + currentPackage + "\" should be on a \"*."
+		       + expectedPackage + "\" package";
 	}
 
 	public BadClassLocation(final Collection<BadClassLocation> bclList) {
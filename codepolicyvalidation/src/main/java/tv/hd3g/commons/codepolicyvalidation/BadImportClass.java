@@ -16,10 +16,27 @@
  */
 package tv.hd3g.commons.codepolicyvalidation;
 
+import java.util.Collection;
+import java.util.stream.Collectors;
+
 public class BadImportClass extends AssertionError {
 
 	public BadImportClass(final String name, final String reason, final String badClasses) {
 		super(name + ". You should use " + reason + ". " + badClasses);
 	}
 
+	/**
+	 * Render the collected violations of the bannedImport (by its class base name).
+	 */
+	public BadImportClass(final BannedImport bannedImport, final ViolationCollector collector) {
+		this(bannedImport.classBaseName(), bannedImport.reason(),
+				collector.toText(bannedImport.classBaseName(), ", "));
+	}
+
+	public BadImportClass(final Collection<BadImportClass> bicList) {
+		super(bicList.stream()
+				.map(Throwable::getMessage)
+				.collect(Collectors.joining(System.lineSeparator())));
+	}
+
 }
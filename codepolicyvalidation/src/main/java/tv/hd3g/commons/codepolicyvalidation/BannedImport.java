@@ -0,0 +1,64 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.io.File;
+import java.util.Objects;
+
+import tv.hd3g.commons.codepolicyvalidation.ReferenceIndex.Referrer;
+
+/**
+ * A forbidden referenced type, by qualified name prefix.
+ * @param classBaseName the qualified name prefix, like "org.junit.Assert" or "org.apache.commons.lang."
+ * @param reason displayed on a BadImportClass
+ * @param allowSourceDir the source directory (relative to the current directory) where it stay allowed, or null
+ */
+public record BannedImport(String classBaseName, String reason, String allowSourceDir) {
+
+	public BannedImport {
+		Objects.requireNonNull(classBaseName, "\"classBaseName\" can't to be null");
+		Objects.requireNonNull(reason, "\"reason\" can't to be null");
+	}
+
+	public BannedImport(final String classBaseName, final String reason) {
+		this(classBaseName, reason, null);
+	}
+
+	boolean isForbiddenReferrer(final Referrer referrer) {
+		if (allowSourceDir == null) {
+			return true;
+		}
+		if (referrer.sourceFile() == null) {
+			return true;
+		}
+		final var appRootDirSize = new File("").getAbsolutePath().length() + 1;
+		final var basePath = referrer.sourceFile()
+				.getAbsolutePath()
+				.substring(appRootDirSize)
+				.replace("\\", "/");
+		return basePath.startsWith(allowSourceDir) == false;
+	}
+
+	static String toHitMessage(final Referrer referrer, final String referencedName) {
+		return toHitMessage(referrer.qualifiedName(), referencedName);
+	}
+
+	static String toHitMessage(final String referrerName, final String referencedName) {
+		return referrerName + " class must not import " + referencedName + " class";
+	}
+
+}
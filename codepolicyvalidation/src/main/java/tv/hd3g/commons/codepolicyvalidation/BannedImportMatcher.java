@@ -0,0 +1,126 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Match many BannedImports in one pass over the referenced types, with a prefix tree of their classBaseNames:
+ * each referenced type name is read only one time, whatever the BannedImports count.
+ */
+public class BannedImportMatcher {
+
+	private final List<BannedImport> bannedImports;
+	private final Node root;
+
+	private static class Node {
+		private final Map<Character, Node> children = new HashMap<>();
+		private final List<BannedImport> ending = new ArrayList<>();
+	}
+
+	public BannedImportMatcher(final Collection<BannedImport> bannedImports) {
+		this.bannedImports = List.copyOf(bannedImports);
+		root = new Node();
+		this.bannedImports.forEach(bannedImport -> {
+			var node = root;
+			final var prefix = bannedImport.classBaseName();
+			for (var pos = 0; pos < prefix.length(); pos++) {
+				node = node.children.computeIfAbsent(prefix.charAt(pos), c -> new Node());
+			}
+			node.ending.add(bannedImport);
+		});
+	}
+
+	/**
+	 * @param propertiesFile a properties file: classBaseName=reason by line
+	 * @return sorted by classBaseName
+	 */
+	public static List<BannedImport> readBannedImports(final Path propertiesFile) {
+		final var properties = new Properties();
+		try (var reader = Files.newBufferedReader(propertiesFile)) {
+			properties.load(reader);
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Can't read " + propertiesFile, e);
+		}
+		return properties.stringPropertyNames().stream()
+				.sorted()
+				.map(name -> new BannedImport(name, properties.getProperty(name)))
+				.toList();
+	}
+
+	public List<BannedImport> getBannedImports() {
+		return bannedImports;
+	}
+
+	/**
+	 * @return the BannedImports with a classBaseName prefix of referencedName, shortest prefixes first
+	 */
+	List<BannedImport> match(final String referencedName) {
+		final var result = new ArrayList<BannedImport>(root.ending);
+		var node = root;
+		for (var pos = 0; pos < referencedName.length(); pos++) {
+			node = node.children.get(referencedName.charAt(pos));
+			if (node == null) {
+				break;
+			}
+			result.addAll(node.ending);
+		}
+		return result;
+	}
+
+	/**
+	 * @return BannedImport -&gt; its sorted hit messages, only for the BannedImports with hits, in getBannedImports
+	 *         order.
+	 */
+	public Map<BannedImport, SortedSet<String>> getHits(final ReferenceIndex referenceIndex) {
+		final var hitsByBannedImport = new HashMap<BannedImport, SortedSet<String>>();
+		referenceIndex.getReferencedNames().forEach(referencedName -> {
+			final var matches = match(referencedName);
+			if (matches.isEmpty()) {
+				return;
+			}
+			final var referrers = referenceIndex.getReferrers(referencedName);
+			matches.forEach(bannedImport -> referrers.stream()
+					.filter(bannedImport::isForbiddenReferrer)
+					.map(referrer -> BannedImport.toHitMessage(referrer, referencedName))
+					.forEach(message -> hitsByBannedImport
+							.computeIfAbsent(bannedImport, k -> new TreeSet<>())
+							.add(message)));
+		});
+
+		final var result = new LinkedHashMap<BannedImport, SortedSet<String>>();
+		bannedImports.stream()
+				.filter(hitsByBannedImport::containsKey)
+				.forEach(bannedImport -> result.put(bannedImport,
+						Collections.unmodifiableSortedSet(hitsByBannedImport.get(bannedImport))));
+		return Collections.unmodifiableMap(result);
+	}
+
+}
@@ -0,0 +1,228 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.CtTypeMember;
+
+/**
+ * The accepted Violations of a code base, by fingerprint: with BASELINE_PROPERTY, a ViolationCollector ignores them,
+ * so only the new violations fail.
+ * A fingerprint is stable when the lines move or are reformatted: it's the rule id, and a hash of the type, the member
+ * signature and the source snippet (without whitespaces) of the violation.
+ * The baseline file is a text file, with one fingerprint by line (and the "#" comments), read and written as a stream.
+ */
+public class Baseline {
+
+	/**
+	 * The baseline file to use by default
+	 */
+	public static final String BASELINE_PROPERTY = "codepolicy.baseline";
+
+	private static final Baseline EMPTY = new Baseline(Set.of());
+	private static Path defaultPath;
+	private static long defaultLastModified;
+	private static Baseline defaultBaseline = EMPTY;
+	private static Recorder recorder;
+
+	private final Set<String> fingerprints;
+
+	private Baseline(final Set<String> fingerprints) {
+		this.fingerprints = fingerprints;
+	}
+
+	/**
+	 * @return empty if the file don't exists
+	 */
+	public static Baseline read(final Path file) {
+		if (Files.exists(file) == false) {
+			return EMPTY;
+		}
+		final var fingerprints = new HashSet<String>();
+		try (var lines = Files.lines(file, UTF_8)) {
+			lines.map(String::strip)
+					.filter(line -> line.isEmpty() == false && line.startsWith("#") == false)
+					.forEach(fingerprints::add);
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Can't read baseline " + file, e);
+		}
+		return new Baseline(fingerprints);
+	}
+
+	/**
+	 * @return the BASELINE_PROPERTY file, read again only if it was changed, or empty if not set
+	 */
+	public static synchronized Baseline getDefault() {
+		final var property = System.getProperty(BASELINE_PROPERTY);
+		if (property == null || property.isBlank()) {
+			return EMPTY;
+		}
+		final var file = Path.of(property).toAbsolutePath().normalize();
+		final var lastModified = file.toFile().lastModified();
+		if (file.equals(defaultPath) == false || lastModified != defaultLastModified) {
+			defaultBaseline = read(file);
+			defaultPath = file;
+			defaultLastModified = lastModified;
+		}
+		return defaultBaseline;
+	}
+
+	public static Baseline empty() {
+		return EMPTY;
+	}
+
+	public boolean contains(final String fingerprint) {
+		return fingerprints.contains(fingerprint);
+	}
+
+	public boolean isEmpty() {
+		return fingerprints.isEmpty();
+	}
+
+	public int size() {
+		return fingerprints.size();
+	}
+
+	static synchronized boolean isRecording() {
+		return recorder != null;
+	}
+
+	/**
+	 * @return true if the Violations must be collected one by one: with a default baseline, or during a recording.
+	 */
+	static synchronized boolean isActive() {
+		return recorder != null || getDefault().isEmpty() == false;
+	}
+
+	/**
+	 * @return ruleId:hash, with the hash of the element type, member signature, and source code (or qualified name
+	 *         for a type)
+	 */
+	public static String fingerprint(final String ruleId, final CtElement element) {
+		final var type = element instanceof final CtType<?> ctType ? ctType : element.getParent(CtType.class);
+		final var member = element instanceof CtTypeMember ? element : element.getParent(CtTypeMember.class);
+		final String signature;
+		if (member == null || member instanceof CtType<?>) {
+			signature = "";
+		} else if (member instanceof final CtExecutable<?> executable) {
+			signature = executable.getSignature();
+		} else {
+			signature = ((CtTypeMember) member).getSimpleName();
+		}
+		final var snippet = element instanceof final CtType<?> ctType ? ctType.getQualifiedName()
+																	  : getSnippet(element);
+		return fingerprint(ruleId,
+				type == null ? "" : type.getQualifiedName(),
+				signature,
+				snippet.replaceAll("\\s+", ""));
+	}
+
+	static String fingerprint(final String ruleId, final String... parts) {
+		return ruleId + ":" + PolicyCache.sha256(String.join("\0", parts)).substring(0, 32);
+	}
+
+	private static String getSnippet(final CtElement element) {
+		final var position = element.getPosition();
+		if (position != null
+			&& position.isValidPosition()
+			&& position.getCompilationUnit() != null
+			&& position.getCompilationUnit().getOriginalSourceCode() != null) {
+			final var source = position.getCompilationUnit().getOriginalSourceCode();
+			if (position.getSourceEnd() < source.length()) {
+				return source.substring(position.getSourceStart(), position.getSourceEnd() + 1);
+			}
+		}
+		return element.toString();
+	}
+
+	/**
+	 * Until close, record all the Violations added to all the ViolationCollectors in a new baseline file, without
+	 * ignore the current default baseline.
+	 */
+	public static synchronized Recorder record(final Path file) throws IOException {
+		if (recorder != null) {
+			throw new IllegalStateException("A baseline is already recording");
+		}
+		recorder = new Recorder(Files.newBufferedWriter(file, UTF_8));
+		return recorder;
+	}
+
+	/**
+	 * @return true if recorded: the violation must be ignored
+	 */
+	static synchronized boolean onViolation(final Violation violation) {
+		if (recorder != null) {
+			recorder.write(violation);
+			return true;
+		}
+		return false;
+	}
+
+	public static class Recorder implements Closeable {
+		private final BufferedWriter writer;
+		private long count;
+
+		private Recorder(final BufferedWriter writer) throws IOException {
+			this.writer = writer;
+			writer.write("# codepolicyvalidation baseline");
+			writer.newLine();
+		}
+
+		private void write(final Violation violation) {
+			try {
+				writer.write(violation.getFingerprint());
+				writer.newLine();
+				count++;
+			} catch (final IOException e) {
+				throw new UncheckedIOException("Can't write baseline", e);
+			}
+		}
+
+		/**
+		 * @return the recorded violations, with the duplicates
+		 */
+		public long getCount() {
+			synchronized (Baseline.class) {
+				return count;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			synchronized (Baseline.class) {
+				if (recorder == this) {
+					recorder = null;
+				}
+				writer.close();
+			}
+		}
+	}
+
+}
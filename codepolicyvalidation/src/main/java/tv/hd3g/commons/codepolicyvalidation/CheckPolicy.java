@@ -0,0 +1,600 @@
+/*
+ * This file is part of Commons.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2019
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static org.junit.jupiter.api.Assertions.fail;
+import static tv.hd3g.commons.codepolicyvalidation.CtTypeCat.CLASS;
+import static tv.hd3g.commons.codepolicyvalidation.CtTypeCat.INTERFACE;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import spoon.reflect.code.CtConstructorCall;
+import spoon.reflect.code.CtFieldRead;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.code.CtThrow;
+import spoon.reflect.declaration.CtAnnotation;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtModifiable;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtTypeInformation;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtTypeReference;
+import tv.hd3g.commons.codepolicyvalidation.MemberTable.Member;
+import tv.hd3g.commons.codepolicyvalidation.ReferenceIndex.Referrer;
+
+@Disabled
+@ExtendWith({ PolicyMetricsExtension.class, PolicyCacheExtension.class })
+public class CheckPolicy extends Policies {
+
+	private static final String SRC_TEST_JAVA = "src/test/java";
+	private static final String COMPONENT_ANNOTATION_NAME = "org.springframework.stereotype.Component";
+	private static final String CONTROLLER_ANNOTATION_NAME = "org.springframework.stereotype.Controller";
+	private static final String REST_CONTROLLER_ANNOTATION_NAME = "org.springframework.web.bind.annotation.RestController";
+	private static final String ENTITY_ANNOTATION_NAME = "jakarta.persistence.Entity";
+	private static final String MAPPED_SUPERCLASS_ANNOTATION_NAME = "jakarta.persistence.MappedSuperclass";
+	private static final String REPOSITORY_ANNOTATION_NAME = "org.springframework.stereotype.Repository";
+	private static final String SERVICE_ANNOTATION_NAME = "org.springframework.stereotype.Service";
+	private static final String RESPONSE_ENTITY_CLASS_NAME = "org.springframework.http.ResponseEntity";
+
+	private static final String COMPONENT_BASE_PKG = "component";
+	private static final String CONTROLLER_BASE_PKG = "controller";
+	private static final String ENTITY_BASE_PKG = "entity";
+	private static final String REPOSITORY_BASE_PKG = "repository";
+	private static final String SERVICE_BASE_PKG = "service";
+
+	private static final Set<String> annotationsControllerRequestNames = Set.of(
+			"org.springframework.web.bind.annotation.RequestMapping",
+			"org.springframework.web.bind.annotation.PostMapping",
+			"org.springframework.web.bind.annotation.PutMapping",
+			"org.springframework.web.bind.annotation.DeleteMapping",
+			"org.springframework.web.bind.annotation.GetMapping",
+			"org.springframework.web.bind.annotation.PatchMapping");
+
+	private static final Set<String> validRepositoriesClassesNames = Set.of(
+			"org.springframework.data.jpa.repository.JpaRepository",
+			"org.springframework.data.repository.PagingAndSortingRepository",
+			"org.springframework.data.repository.CrudRepository",
+			"org.springframework.data.repository.Repository");
+
+	private static final String MANY_TO_ONE_ANNOTATION_NAME = "jakarta.persistence.ManyToOne";
+	private static final String ONE_TO_ONE_ANNOTATION_NAME = "jakarta.persistence.OneToOne";
+	private static final String ONE_TO_MANY_ANNOTATION_NAME = "jakarta.persistence.OneToMany";
+	private static final String MANY_TO_MANY_ANNOTATION_NAME = "jakarta.persistence.ManyToMany";
+
+	private static final CtTypeReference<?> typeThrowable = typeFactory.get(Throwable.class).getReference();
+	private static final CtTypeReference<?> typeOptional = typeFactory.get(Optional.class).getReference();
+	private static final CtTypeReference<?> typeSuppressWarnings = typeFactory.get(SuppressWarnings.class)
+			.getReference();
+	private static final CtTypeReference<?> typeRuntimeException = typeFactory.get(RuntimeException.class)
+			.getReference();
+	private static final CtTypeReference<?> typeNullPointerException = typeFactory.get(NullPointerException.class)
+			.getReference();
+
+	static final ElementRule<CtConstructorCall<?>> ruleIllegalArgumentExceptionWOConstructor = new ElementRule<>(
+			"noIllegalArgumentExceptionWOConstructor", CtConstructorCall.class, CtConstructorCall.class::cast,
+			element -> element.getType().getQualifiedName().equals(IllegalArgumentException.class.getName())
+					   && element.getArguments().isEmpty(),
+			l -> "Don't use " + l.getType().getQualifiedName() + " without message in " + pathElementToString(l));
+
+	static final ElementRule<CtInvocation<?>> ruleSysOutSysErr = new ElementRule<>(
+			"noSysOutSysErr", CtInvocation.class, CtInvocation.class::cast,
+			element -> {
+				final var target = element.getTarget();
+				if (target instanceof CtFieldRead == false) {
+					return false;
+				}
+				final var prettyprint = target.prettyprint();
+				return prettyprint.startsWith("System.out") || prettyprint.startsWith("System.err");
+			},
+			l -> "Don't use sys.out/sys.err in " + pathElementToString(l));
+
+	static final ElementRule<CtExecutableReference<?>> ruleSimplePrintStackTrace = new ElementRule<>(
+			"noSimplePrintStackTrace", CtExecutableReference.class, CtExecutableReference.class::cast,
+			element -> {
+				if (element.getSimpleName().equals("printStackTrace") == false
+					|| element.getReferencedTypes().contains(typeThrowable) == false) {
+					return false;
+				}
+				/**
+				 * @return false (good) for printStackTrace(printstream) or printStackTrace(printwriter)
+				 *         else true (bad)
+				 */
+				final var param = element.getParameters();
+				if (param == null || param.isEmpty()) {
+					return true;
+				}
+				final var paramSimpleName = param.get(0).getSimpleName();
+				return "printstream".equalsIgnoreCase(paramSimpleName) == false
+					   && "printwriter".equalsIgnoreCase(paramSimpleName) == false;
+			},
+			l -> "Don't use printStackTrace in " + pathElementToString(l.getParent()));
+
+	static final ElementRule<CtExecutableReference<?>> ruleOptionalOf = new ElementRule<>(
+			"noOptionalOf", CtExecutableReference.class, CtExecutableReference.class::cast,
+			element -> element.getSimpleName().equals("of")
+					   && element.getReferencedTypes().contains(typeOptional),
+			l -> "Don't use Optional.of in " + pathElementToString(l.getParent()));
+
+	static final ElementRule<CtTypeReference<?>> ruleXToOneMustToSetOptional = new ElementRule<CtTypeReference<?>>(
+			"xToOneMustToSetOptional", CtTypeReference.class, CtTypeReference.class::cast,
+			element -> {
+				if (element.getParent() instanceof final CtAnnotation<?> annotation
+					&& isTopLevelTypeNamed(element, MANY_TO_ONE_ANNOTATION_NAME, ONE_TO_ONE_ANNOTATION_NAME)) {
+					return annotation.getValues().containsKey("optional") == false;
+				}
+				return false;
+			},
+			l -> "You must set ToOne with optional in " + pathElementToString(l.getParent())).withDistinctMessages();
+
+	static final ElementRule<CtTypeReference<?>> ruleXToManyMustNotUseEAGER = new ElementRule<CtTypeReference<?>>(
+			"xToManyMustNotUseEAGER", CtTypeReference.class, CtTypeReference.class::cast,
+			element -> {
+				if (element.getParent() instanceof final CtAnnotation<?> annotation
+					&& isTopLevelTypeNamed(element, ONE_TO_MANY_ANNOTATION_NAME, MANY_TO_MANY_ANNOTATION_NAME)) {
+					final var values = annotation.getValues();
+					if (values.containsKey("fetch") == false) {
+						return false;
+					}
+					return values.get("fetch").toString().endsWith("EAGER");
+				}
+				return false;
+			},
+			l -> "You must set ToMany with not EAGER in " + pathElementToString(l.getParent())).withDistinctMessages();
+
+	static final ElementRule<CtTypeReference<?>> ruleSuppressWarnings = new ElementRule<CtTypeReference<?>>(
+			"noSuppressWarnings", CtTypeReference.class, CtTypeReference.class::cast,
+			element -> element.getParent() instanceof CtAnnotation<?>
+					   && typeSuppressWarnings.equals(element.getTopLevelType()),
+			l -> "Never use @SuppressWarnings in " + pathElementToString(l.getParent())).withDistinctMessages();
+
+	static final ElementRule<CtThrow> ruleRuntimeException = new ElementRule<>(
+			"noRuntimeException", CtThrow.class,
+			element -> element.getReferencedTypes().contains(typeRuntimeException),
+			l -> "Never use RuntimeException (use InternalErrorException instead) in "
+				 + pathElementToString(l.getParent()));
+
+	static final ElementRule<CtThrow> ruleNullPointerException = new ElementRule<>(
+			"noNullPointerException", CtThrow.class,
+			element -> element.getReferencedTypes().contains(typeNullPointerException),
+			l -> "Never use NullPointerException (use InternalErrorException instead) in "
+				 + pathElementToString(l.getParent()));
+
+	private static final List<ElementRule<?>> elementRules = List.of(
+			ruleIllegalArgumentExceptionWOConstructor,
+			ruleSysOutSysErr,
+			ruleSimplePrintStackTrace,
+			ruleOptionalOf,
+			ruleXToOneMustToSetOptional,
+			ruleXToManyMustNotUseEAGER,
+			ruleSuppressWarnings,
+			ruleRuntimeException,
+			ruleNullPointerException);
+
+	static final BannedImport bannedOldJunitAssert = new BannedImport("org.junit.Assert",
+			"Don't use old Junit Assert");
+	static final BannedImport bannedOldJunitRunner = new BannedImport("org.junit.runner",
+			"Don't use old Junit Runner");
+	static final BannedImport bannedOldJunit = new BannedImport("org.junit.Test", "Don't use old Junit Test");
+	static final BannedImport bannedJunitFramework = new BannedImport("junit.framework",
+			"Don't use Junit internal classes");
+	static final BannedImport bannedSQLDate = new BannedImport("java.sql.Date", "Don't use SQL date");
+	static final BannedImport bannedCommonsLang2 = new BannedImport("org.apache.commons.lang.", "Use commons lang 3");
+	static final BannedImport bannedCommonsCollection3 = new BannedImport("org.apache.commons.collections.",
+			"Use commons collection 4");
+	static final BannedImport bannedLog4j = new BannedImport("org.apache.logging.log4j.", "Don't use directly log4j");
+
+	/**
+	 * All the BannedImports checked by the "not*" tests, matched together in one pass.
+	 */
+	static final BannedImportMatcher bannedImportMatcher = new BannedImportMatcher(List.of(
+			bannedOldJunitAssert,
+			bannedOldJunitRunner,
+			bannedOldJunit,
+			bannedJunitFramework,
+			bannedSQLDate,
+			bannedCommonsLang2,
+			bannedCommonsCollection3,
+			bannedLog4j));
+
+	/**
+	 * For a lean model (see LeanModelBuilder): a method body can only match a CheckPolicy test in a source file with
+	 * one of these tokens.
+	 */
+	static final Set<String> bodyTokens = Stream.concat(
+			Stream.of("IllegalArgumentException", "System.out", "System.err", "printStackTrace", "Optional",
+					"SuppressWarnings", "throw", "CheckPolicy", "FlatJavaMailSender", "FlatJobKitEngine"),
+			bannedImportMatcher.getBannedImports().stream().map(BannedImport::classBaseName))
+			.collect(toUnmodifiableSet());
+
+	private static boolean isTopLevelTypeNamed(final CtTypeReference<?> element, final String... names) {
+		final var topLevelTypeName = element.getTopLevelType().getQualifiedName();
+		for (var pos = 0; pos < names.length; pos++) {
+			if (names[pos].equals(topLevelTypeName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Scan in "this" src/main/java and src/test/java
+	 */
+	@BeforeAll
+	public static void globalInit() {
+		globalInit(bodyTokens, "src/main/java", SRC_TEST_JAVA);
+	}
+
+	@Override
+	protected Collection<ElementRule<?>> getElementRules() {
+		return elementRules;
+	}
+
+	@Override
+	protected Collection<String> getBodyTokens() {
+		return bodyTokens;
+	}
+
+	@Test
+	public void noIllegalArgumentExceptionWOConstructor() {
+		failOnMatches(ruleIllegalArgumentExceptionWOConstructor);
+	}
+
+	@Test
+	public void noSysOutSysErr() {
+		failOnMatches(ruleSysOutSysErr);
+	}
+
+	@Test
+	public void noSimplePrintStackTrace() {
+		failOnMatches(ruleSimplePrintStackTrace);
+	}
+
+	@Test
+	public void noOptionalOf() {
+		failOnMatches(ruleOptionalOf);
+	}
+
+	@Test
+	public void xToOneMustToSetOptional() {
+		failOnMatches(ruleXToOneMustToSetOptional);
+	}
+
+	@Test
+	public void xToManyMustNotUseEAGER() {
+		failOnMatches(ruleXToManyMustNotUseEAGER);
+	}
+
+	@Test
+	public void noSuppressWarnings() {
+		failOnMatches(ruleSuppressWarnings);
+	}
+
+	@Test
+	public void noRuntimeException() {
+		failOnMatches(ruleRuntimeException);
+	}
+
+	@Test
+	public void noNullPointerException() {
+		failOnMatches(ruleNullPointerException);
+	}
+
+	/**
+	 * With a Baseline or a GitDiff scope, the violations are collected from the model, not from the cached messages.
+	 */
+	private void failOnMatches(final ElementRule<?> rule) {
+		if (ViolationCollector.isRequired()) {
+			final var collector = new ViolationCollector();
+			collectViolations(rule, collector);
+			if (collector.isEmpty() == false) {
+				fail(collector.toText(rule.getName(), System.lineSeparator()));
+			}
+			return;
+		}
+		final var messages = getMatchMessages(rule);
+		if (messages.isEmpty() == false) {
+			final var kept = messages.subList(0, Math.min(messages.size(), ViolationCollector.getDefaultMaxByRule()));
+			fail(ViolationCollector.join(kept, messages.size(), System.lineSeparator()));
+		}
+	}
+
+	@Test
+	public void notOldJunitAssert() {
+		checkClassNotPresent(bannedImportMatcher, bannedOldJunitAssert);
+	}
+
+	@Test
+	public void notOldJunitRunner() {
+		checkClassNotPresent(bannedImportMatcher, bannedOldJunitRunner);
+	}
+
+	@Test
+	public void notOldJunit() {
+		checkClassNotPresent(bannedImportMatcher, bannedOldJunit);
+	}
+
+	@Test
+	public void notJunitFramework() {
+		checkClassNotPresent(bannedImportMatcher, bannedJunitFramework);
+	}
+
+	@Test
+	public void notSQLDate() {
+		checkClassNotPresent(bannedImportMatcher, bannedSQLDate);
+	}
+
+	@Test
+	public void notCommonsLang2Use3() {
+		checkClassNotPresent(bannedImportMatcher, bannedCommonsLang2);
+	}
+
+	@Test
+	public void notCommonsCollection3Use4() {
+		checkClassNotPresent(bannedImportMatcher, bannedCommonsCollection3);
+	}
+
+	@Test
+	public void notLog4j() {
+		checkClassNotPresent(bannedImportMatcher, bannedLog4j);
+	}
+
+	public void notFlatJavaMailSenderOutsideTests(final String allowSourceDir) {
+		checkClassNotPresent("tv.hd3g.mailkit.utility.FlatJavaMailSender", allowSourceDir,
+				"Never use it outside " + allowSourceDir);
+	}
+
+	@Test
+	public void notFlatJavaMailSenderOutsideTests() {
+		notFlatJavaMailSenderOutsideTests(SRC_TEST_JAVA);
+	}
+
+	public void notFlatJobKitEngineOutsideTests(final String allowSourceDir) {
+		checkClassNotPresent("tv.hd3g.jobkit.engine.FlatJobKitEngine", allowSourceDir,
+				"Never use it outside " + allowSourceDir);
+	}
+
+	@Test
+	public void notFlatJobKitEngineOutsideTests() {
+		notFlatJobKitEngineOutsideTests(SRC_TEST_JAVA);
+	}
+
+	@Test
+	public void springBootControllersInControllerPackage() {
+		assertSpringBootStereotypeInItsPackage(CONTROLLER_ANNOTATION_NAME, CONTROLLER_BASE_PKG);
+	}
+
+	@Test
+	public void springBootEntitiesInEntityPackage() {
+		assertSpringBootStereotypeInItsPackage(ENTITY_ANNOTATION_NAME, ENTITY_BASE_PKG);
+	}
+
+	@Test
+	public void springBootRepositoriesInRepositoryPackage() {
+		assertSpringBootStereotypeInItsPackage(REPOSITORY_ANNOTATION_NAME, REPOSITORY_BASE_PKG);
+	}
+
+	@Test
+	public void springBootComponentInComponentPackage() {
+		assertSpringBootStereotypeInItsPackage(COMPONENT_ANNOTATION_NAME, COMPONENT_BASE_PKG);
+	}
+
+	@Test
+	public void springBootServicesInServicePackage() {
+		assertSpringBootStereotypeInItsPackage(SERVICE_ANNOTATION_NAME, SERVICE_BASE_PKG);
+	}
+
+	@Test
+	public void springBootNotControllerInControllerPackage() {
+		if (isKnownType(REST_CONTROLLER_ANNOTATION_NAME) == false) {
+			return;
+		}
+
+		assertClassesByPackageIsAnnotated(CONTROLLER_BASE_PKG, CONTROLLER_ANNOTATION_NAME, CLASS,
+				getIsAnnotatedClass(REST_CONTROLLER_ANNOTATION_NAME));
+	}
+
+	@Test
+	public void springBootNotComponentInComponentPackage() {
+		if (isKnownType(COMPONENT_ANNOTATION_NAME) == false) {
+			return;
+		}
+
+		assertClassesByPackageIsAnnotated(COMPONENT_BASE_PKG, COMPONENT_ANNOTATION_NAME, CLASS,
+				getIsAnnotatedClass(COMPONENT_ANNOTATION_NAME));
+	}
+
+	@Test
+	public void springBootNotEntityInEntityPackage() {
+		if (isKnownType(MAPPED_SUPERCLASS_ANNOTATION_NAME)) {
+			assertClassesByPackageIsAnnotated(ENTITY_BASE_PKG, ENTITY_ANNOTATION_NAME, CLASS,
+					getIsAnnotatedClass(MAPPED_SUPERCLASS_ANNOTATION_NAME));
+		}
+	}
+
+	@Test
+	public void springBootNotRepositoryInRepositoryPackage() {
+		assertClassesByPackageIsAnnotated(REPOSITORY_BASE_PKG, REPOSITORY_ANNOTATION_NAME, INTERFACE,
+				t -> {
+					final var name = t.getQualifiedName();
+					if (name.toLowerCase().endsWith("dao")) {
+						return true;
+					}
+					final var typeHierarchy = getTypeHierarchy();
+					return validRepositoriesClassesNames.stream()
+							.anyMatch(r -> typeHierarchy.isSubtypeOf(name, r));
+				});
+	}
+
+	@Test
+	public void springBootNotServiceInServicePackage() {
+		assertClassesByPackageIsAnnotated(SERVICE_BASE_PKG, SERVICE_ANNOTATION_NAME, CLASS);
+	}
+
+	@Test
+	public void springBootNotClassInControllerPackage() {
+		assertClassesByPackageIsRightType(CONTROLLER_BASE_PKG, List.of(CLASS));
+	}
+
+	@Test
+	public void springBootNotClassInEntityPackage() {
+		assertClassesByPackageIsRightType(ENTITY_BASE_PKG, List.of(CLASS), CtModifiable::isAbstract);
+	}
+
+	@Test
+	public void springBootNotInterfaceInRepositoryPackage() {
+		if (isKnownType(REPOSITORY_ANNOTATION_NAME) == false) {
+			return;
+		}
+		final var filter = getIsAnnotatedClass(REPOSITORY_ANNOTATION_NAME)
+				.and(t -> t.getQualifiedName().toLowerCase().endsWith("daoimpl"));
+		assertClassesByPackageIsRightType(REPOSITORY_BASE_PKG, List.of(INTERFACE), filter);
+	}
+
+	@Test
+	public void springBootNotClassOrInterfaceInServicePackage() {
+		assertClassesByPackageIsRightType(SERVICE_BASE_PKG, List.of(INTERFACE, CLASS,
+				CtTypeCat.ABSTRACT));
+	}
+
+	/**
+	 * Check services class name "nServiceImpl"
+	 */
+	@Test
+	public void springBootServiceBadName() {
+		final var serviceImplList = searchByAnnotationInClass(SERVICE_ANNOTATION_NAME);
+		final var badNames = serviceImplList.stream()
+				.map(CtTypeInformation::getQualifiedName)
+				.filter(s -> s.endsWith("ServiceImpl") == false)
+				.collect(toUnmodifiableList());
+		if (badNames.isEmpty() == false) {
+			fail("Service classes with invalid suffix name (not ends with \"ServiceImpl\"): " + badNames);
+		}
+	}
+
+	/**
+	 * Check services class name implements Interface
+	 */
+	@Test
+	public void springBootServiceDontImplInterface() {
+		final var serviceImplList = searchByAnnotationInClass(SERVICE_ANNOTATION_NAME);
+		final var noInterfaces = serviceImplList.stream()
+				.filter(s -> getTypeHierarchy().hasSuperInterfaces(s.getQualifiedName()) == false)
+				.map(CtTypeInformation::getQualifiedName)
+				.collect(toUnmodifiableList());
+		if (noInterfaces.isEmpty() == false) {
+			fail("Service classes that do not implement an interface or extends classes do not implement an interface: "
+				 + noInterfaces);
+		}
+	}
+
+	/**
+	 * Check services class name if implemented Interface is same Pkg, check I name "nService"
+	 */
+	@Test
+	public void springBootServiceInterfaceNames() {
+		final var serviceImplList = searchByAnnotationInClass(SERVICE_ANNOTATION_NAME);
+		final var localPackages = serviceImplList.stream()
+				.filter(s -> s.getSuperInterfaces().isEmpty() == false)
+				.map(CtElement::getParent)
+				.filter(Objects::nonNull)
+				.filter(CtPackage.class::isInstance)
+				.map(CtPackage.class::cast)
+				.map(CtPackage::getReference)
+				.distinct()
+				.collect(toUnmodifiableSet());
+
+		final var badNamedServiceInterfaces = serviceImplList.stream()
+				.flatMap(s -> s.getSuperInterfaces().stream())
+				.distinct()
+				.filter(i -> i.getPackage() != null)
+				.filter(i -> localPackages.contains(i.getPackage()))
+				.map(CtTypeInformation::getQualifiedName)
+				.filter(i -> i.endsWith("Service") == false)
+				.collect(toUnmodifiableList());
+
+		if (badNamedServiceInterfaces.isEmpty() == false) {
+			fail("Missnamed Service interfaces: " + badNamedServiceInterfaces);
+		}
+	}
+
+	/**
+	 * Good: MyCheckPolicyTest extends CheckPolicy
+	 * Bad: MyCheckPolicy extends CheckPolicy
+	 */
+	@Test
+	public void classExtendsCheckPolicyNamesMustEndsByTest() {
+		final var checkPolicyName = CheckPolicy.class.getName();
+		final var classesWithBadNames = getReferenceIndex().getReferrers(checkPolicyName).stream()
+				.map(Referrer::qualifiedName)
+				.filter(name -> name.equals(checkPolicyName) == false)
+				.filter(name -> name.endsWith("Test") == false)
+				.collect(Collectors.toUnmodifiableSet());
+
+		if (classesWithBadNames.isEmpty() == false) {
+			throw new MissingTestInClassName(classesWithBadNames.stream().collect(Collectors.joining(", ")));
+		}
+	}
+
+	@Test
+	public void springBootRESTControllerMethodsMustReturnResponseEntity() {
+		final var memberTable = getMemberTable();
+		final var allObjectMethodNames = memberTable.getObjectMethodNames();
+
+		final var bclList = searchByAnnotationInClass(REST_CONTROLLER_ANNOTATION_NAME).stream()
+				.flatMap(cl -> {
+					final var members = memberTable.getMembers(cl).stream()
+							.filter(Member::isPublic)
+							.filter(Predicate.not(Member::isStatic))
+							.filter(m -> allObjectMethodNames.contains(m.getSimpleName()) == false)
+							.toList();
+					final var methods = members.stream()
+							.<CtMethod<?>> map(Member::method)
+							.toList();
+
+					return Stream.of(hasNotAnnotationMethod(methods, annotationsControllerRequestNames)
+							.map(m -> cl.getSimpleName() + ":" + m.getSimpleName())
+							.map(ref -> "public method in RestController \"" + ref + "\" is not a @RequestMapping"),
+							members.stream()
+									.filter(m -> memberTable.returns(m, RESPONSE_ENTITY_CLASS_NAME) == false)
+									.map(m -> cl.getSimpleName() + ":" + m.getSimpleName())
+									.map(ref -> "public method in RestController \"" + ref
+												+ "\" don't return a ResponseEntity"))
+							.flatMap(t -> t);
+				})
+				.collect(toUnmodifiableList());
+
+		if (bclList.isEmpty() == false) {
+			throw new AssertionError(String.join("; ", bclList));
+		}
+	}
+
+}
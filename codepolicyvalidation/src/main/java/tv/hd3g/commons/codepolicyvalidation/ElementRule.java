@@ -0,0 +1,119 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import spoon.reflect.declaration.CtElement;
+
+/**
+ * A rule evaluated on each model node of a given Spoon type, during the single model walk done by RuleEngine.
+ * Rules are compared by identity: declare them as constants.
+ * With a RuleEngine parallelism, filter is called by many threads: it must only read the model and constants.
+ */
+public class ElementRule<T extends CtElement> {
+
+	private final String name;
+	private final Class<? super T> elementType;
+	private final Function<CtElement, T> narrowing;
+	private final Predicate<T> filter;
+	private final Function<T, String> renderer;
+	private final boolean distinctMessages;
+
+	/**
+	 * @param elementType the Spoon type (like CtThrow.class) of the nodes to send to filter
+	 * @param renderer the violation message for a matched node. It must only depends on the node source file.
+	 */
+	public ElementRule(final String name,
+					   final Class<T> elementType,
+					   final Predicate<T> filter,
+					   final Function<T, String> renderer) {
+		this(name, elementType, elementType::cast, filter, renderer);
+	}
+
+	/**
+	 * For a generic Spoon type (like CtInvocation&lt;?&gt;), that don't have a Class&lt;T&gt;.
+	 * @param elementType the Spoon type (like CtInvocation.class) of the nodes to send to filter
+	 * @param narrowing the checked cast of a node to T, like CtInvocation.class::cast
+	 * @param renderer the violation message for a matched node. It must only depends on the node source file.
+	 */
+	public ElementRule(final String name,
+					   final Class<? super T> elementType,
+					   final Function<CtElement, T> narrowing,
+					   final Predicate<T> filter,
+					   final Function<T, String> renderer) {
+		this.name = Objects.requireNonNull(name, "\"name\" can't to be null");
+		this.elementType = Objects.requireNonNull(elementType, "\"elementType\" can't to be null");
+		this.narrowing = Objects.requireNonNull(narrowing, "\"narrowing\" can't to be null");
+		this.filter = Objects.requireNonNull(filter, "\"filter\" can't to be null");
+		this.renderer = Objects.requireNonNull(renderer, "\"renderer\" can't to be null");
+		distinctMessages = false;
+	}
+
+	private ElementRule(final ElementRule<T> rule, final boolean distinctMessages) {
+		name = rule.name;
+		elementType = rule.elementType;
+		narrowing = rule.narrowing;
+		filter = rule.filter;
+		renderer = rule.renderer;
+		this.distinctMessages = distinctMessages;
+	}
+
+	/**
+	 * @return a copy of this rule, which reports only one time the matches with the same message (like many
+	 *         annotation values in the same member).
+	 */
+	public ElementRule<T> withDistinctMessages() {
+		return new ElementRule<>(this, true);
+	}
+
+	public boolean isDistinctMessages() {
+		return distinctMessages;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Class<? super T> getElementType() {
+		return elementType;
+	}
+
+	boolean accept(final Class<?> elementClass) {
+		return elementType.isAssignableFrom(elementClass);
+	}
+
+	T cast(final CtElement element) {
+		return narrowing.apply(element);
+	}
+
+	boolean test(final CtElement element) {
+		return filter.test(cast(element));
+	}
+
+	String render(final CtElement element) {
+		return renderer.apply(cast(element));
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+}
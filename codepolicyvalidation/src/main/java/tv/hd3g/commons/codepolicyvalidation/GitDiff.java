@@ -0,0 +1,221 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The added, modified or untracked java files of a git working tree since a base revision, with their added or
+ * modified lines.
+ * The removed files and lines are ignored: only what a change adds can add violations.
+ * In a scope, the ViolationCollectors only keep the Violations located on a changed line.
+ */
+public class GitDiff {
+
+	private static final Pattern FILE_HEADER = Pattern.compile("^\\+\\+\\+ b/(.+)$");
+	private static final Pattern HUNK_HEADER = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@.*$");
+	private static final LineRange WHOLE_FILE = new LineRange(1, Integer.MAX_VALUE);
+	private static GitDiff scoped;
+
+	/**
+	 * @param first first changed line, 1 based
+	 * @param last last changed line, included
+	 */
+	record LineRange(int first, int last) {
+
+		boolean contains(final int line) {
+			return line >= first && line <= last;
+		}
+	}
+
+	private final Map<Path, List<LineRange>> rangesByFile;
+
+	GitDiff(final Map<Path, List<LineRange>> rangesByFile) {
+		this.rangesByFile = rangesByFile;
+	}
+
+	/**
+	 * Run "git diff" on the working tree (committed or not changes), and "git ls-files" for the untracked (and not
+	 * ignored) files, in the git root of the current directory.
+	 * @param baseRevision like "origin/main", or a commit hash
+	 */
+	public static GitDiff read(final String baseRevision) {
+		Objects.requireNonNull(baseRevision, "\"baseRevision\" can't to be null");
+		final var root = Path.of(git("rev-parse", "--show-toplevel").strip());
+		return parse(root,
+				git("diff", "--unified=0", "--no-color", "--no-ext-diff", "--diff-filter=AMR",
+						baseRevision, "--", "*.java"),
+				git("ls-files", "--others", "--exclude-standard", "--full-name", "--", "*.java"));
+	}
+	private static String git(final String... args) {
+		final var command = new ArrayList<String>();
+		command.add("git");
+		command.addAll(List.of(args));
+		try {
+			final var process = new ProcessBuilder(command)
+					.redirectError(ProcessBuilder.Redirect.DISCARD)
+					.start();
+			final var output = new String(process.getInputStream().readAllBytes(), UTF_8);
+			if (process.waitFor() != 0) {
+				throw new IllegalStateException("Can't run " + String.join(" ", command));
+			}
+			return output;
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Can't run " + String.join(" ", command), e);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted during " + String.join(" ", command), e);
+		}
+	}
+
+	/**
+	 * @param diff a "git diff --unified=0" output, with paths relative to root
+	 */
+	static GitDiff parse(final Path root, final String diff) {
+		return parse(root, diff, "");
+	}
+
+	/**
+	 * @param diff a "git diff --unified=0" output, with paths relative to root
+	 * @param untracked a "git ls-files --others --full-name" output, all the lines of these files are changed
+	 */
+	static GitDiff parse(final Path root, final String diff, final String untracked) {
+		final var rangesByFile = new LinkedHashMap<Path, List<LineRange>>();
+		List<LineRange> ranges = null;
+		for (final String line : diff.lines().toList()) {
+			final var fileHeader = FILE_HEADER.matcher(line);
+			if (fileHeader.matches()) {
+				ranges = new ArrayList<>();
+				rangesByFile.put(root.resolve(fileHeader.group(1)).toAbsolutePath().normalize(), ranges);
+				continue;
+			}
+			final var hunkHeader = HUNK_HEADER.matcher(line);
+			if (ranges != null && hunkHeader.matches()) {
+				final var first = Integer.parseInt(hunkHeader.group(1));
+				final var count = hunkHeader.group(2) == null ? 1 : Integer.parseInt(hunkHeader.group(2));
+				if (count > 0) {
+					ranges.add(new LineRange(first, first + count - 1));
+				}
+			}
+		}
+		untracked.lines()
+				.filter(line -> line.isBlank() == false)
+				.forEach(line -> rangesByFile.put(root.resolve(line.strip()).toAbsolutePath().normalize(),
+						List.of(WHOLE_FILE)));
+		rangesByFile.replaceAll((file, fileRanges) -> List.copyOf(fileRanges));
+		return new GitDiff(rangesByFile);
+	}
+
+	/**
+	 * @return absolute and normalized paths
+	 */
+	public Set<Path> getChangedFiles() {
+		return rangesByFile.keySet();
+	}
+
+	/**
+	 * @param inputResources source directories or files
+	 * @return the changed files in inputResources, as strings
+	 */
+	public List<String> getChangedFiles(final Collection<String> inputResources) {
+		final var roots = inputResources.stream()
+				.map(Path::of)
+				.map(Path::toAbsolutePath)
+				.map(Path::normalize)
+				.toList();
+		return rangesByFile.keySet().stream()
+				.filter(file -> roots.stream().anyMatch(file::startsWith))
+				.map(Path::toString)
+				.sorted()
+				.toList();
+	}
+
+	/**
+	 * @param file an absolute source file path
+	 * @param line 1 based, -1 if unknown: true for any changed file
+	 * @return true if line is added or modified in file
+	 */
+	boolean isChanged(final String file, final int line) {
+		final var ranges = rangesByFile.get(Path.of(file).toAbsolutePath().normalize());
+		if (ranges == null) {
+			return false;
+		}
+		return line < 1 || ranges.stream().anyMatch(range -> range.contains(line));
+	}
+
+	/**
+	 * @return true if the violation is located on a changed line, or not located (without file)
+	 */
+	public boolean isChanged(final Violation violation) {
+		return violation.file().isEmpty() || isChanged(violation.file(), violation.line());
+	}
+
+	/**
+	 * Until close, all the ViolationCollectors ignore the Violations out of this diff (see isChanged), and the
+	 * PolicyCache outcomes are not used.
+	 */
+	public Scope scope() {
+		synchronized (GitDiff.class) {
+			if (scoped != null) {
+				throw new IllegalStateException("A diff is already scoped");
+			}
+			scoped = this;
+		}
+		return new Scope(this);
+	}
+
+	static synchronized boolean isScoped() {
+		return scoped != null;
+	}
+
+	/**
+	 * @return true if a diff is scoped, and the violation is out of it: the violation must be ignored
+	 */
+	static synchronized boolean isOutOfScope(final Violation violation) {
+		return scoped != null && scoped.isChanged(violation) == false;
+	}
+
+	public static class Scope implements AutoCloseable {
+		private final GitDiff diff;
+
+		private Scope(final GitDiff diff) {
+			this.diff = diff;
+		}
+
+		@Override
+		public void close() {
+			synchronized (GitDiff.class) {
+				if (scoped == diff) {
+					scoped = null;
+				}
+			}
+		}
+	}
+
+}
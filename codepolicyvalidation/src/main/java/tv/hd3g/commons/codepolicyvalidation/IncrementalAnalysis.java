@@ -0,0 +1,159 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.util.stream.Collectors.toUnmodifiableSet;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import tv.hd3g.commons.codepolicyvalidation.ReferenceIndex.Referrer;
+
+/**
+ * Compare the SourceFileStates of a previous run with the current source files hashes, for only re-parse:
+ * - the changed or added files,
+ * - the files which reference a type declared in a changed or removed file (import, hierarchy, usage...),
+ * - and, transitively, the files which reference a sub type (direct or not) of these types: an inherited member can
+ *   change without change the sub type file.
+ */
+class IncrementalAnalysis {
+
+	private final Map<String, SourceFileState> previousStates;
+	private final Map<String, String> currentHashes;
+	private final Set<String> removedFiles;
+	private final SortedSet<String> filesToParse;
+
+	/**
+	 * @param previousStates source file path -&gt; its state
+	 * @param currentHashes source file path -&gt; its content hash
+	 * @param inputResources used to guess the type names declared in new files
+	 */
+	IncrementalAnalysis(final Map<String, SourceFileState> previousStates,
+						final Map<String, String> currentHashes,
+						final String... inputResources) {
+		this.previousStates = previousStates;
+		this.currentHashes = currentHashes;
+
+		final var changedFiles = currentHashes.entrySet().stream()
+				.filter(entry -> previousStates.containsKey(entry.getKey()) == false
+								 || previousStates.get(entry.getKey()).hash().equals(entry.getValue()) == false)
+				.map(Map.Entry::getKey)
+				.collect(toUnmodifiableSet());
+		removedFiles = previousStates.keySet().stream()
+				.filter(path -> currentHashes.containsKey(path) == false)
+				.collect(toUnmodifiableSet());
+
+		final var changedTypeNames = Stream.concat(changedFiles.stream(), removedFiles.stream())
+				.flatMap(path -> Stream.concat(
+						Stream.ofNullable(previousStates.get(path))
+								.flatMap(state -> state.referencedNamesByType().keySet().stream()),
+						Stream.ofNullable(guessTypeName(path, inputResources))))
+				.distinct()
+				.toList();
+
+		final var previousIndex = ReferenceIndex.build(previousStates);
+		final var toParse = new TreeSet<String>(changedFiles);
+		final var pendingTypeNames = new ArrayDeque<String>(changedTypeNames);
+		final var seenTypeNames = new HashSet<String>(changedTypeNames);
+		while (pendingTypeNames.isEmpty() == false) {
+			final var typeName = pendingTypeNames.poll();
+			previousIndex.getReferrers(typeName).stream()
+					.map(Referrer::sourceFile)
+					.filter(Objects::nonNull)
+					.map(File::getPath)
+					.filter(currentHashes::containsKey)
+					.forEach(dependentFile -> {
+						toParse.add(dependentFile);
+						getSubTypeNames(previousStates.get(dependentFile), typeName)
+								.filter(seenTypeNames::add)
+								.forEach(pendingTypeNames::add);
+					});
+		}
+		filesToParse = Collections.unmodifiableSortedSet(toParse);
+	}
+
+	/**
+	 * @return the types declared in state which directly extend or implement typeName
+	 */
+	private static Stream<String> getSubTypeNames(final SourceFileState state, final String typeName) {
+		if (state == null) {
+			return Stream.empty();
+		}
+		return state.superTypesByType().entrySet().stream()
+				.filter(entry -> entry.getValue().contains(typeName))
+				.map(Map.Entry::getKey);
+	}
+
+	/**
+	 * @return the qualified type name from the path of a java source file relative to its source root,
+	 *         or null if it can't be guessed.
+	 */
+	static String guessTypeName(final String path, final String... inputResources) {
+		if (path.endsWith(".java") == false) {
+			return null;
+		}
+		final var sourceFile = Path.of(path);
+		for (var pos = 0; pos < inputResources.length; pos++) {
+			final var sourceRoot = Path.of(inputResources[pos]).toAbsolutePath().normalize();
+			if (sourceFile.startsWith(sourceRoot) && sourceFile.equals(sourceRoot) == false) {
+				final var relative = sourceRoot.relativize(sourceFile).toString();
+				return relative.substring(0, relative.length() - ".java".length())
+						.replace(File.separatorChar, '.');
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return sorted paths
+	 */
+	SortedSet<String> getFilesToParse() {
+		return filesToParse;
+	}
+
+	Set<String> getRemovedFiles() {
+		return removedFiles;
+	}
+
+	/**
+	 * @param parsedStates the new states of the getFilesToParse() files; missing files here will be set without types.
+	 * @return all current source states, with the previous states of the unchanged files.
+	 */
+	Map<String, SourceFileState> patch(final Map<String, SourceFileState> parsedStates) {
+		final var states = new TreeMap<>(previousStates);
+		removedFiles.forEach(states::remove);
+		filesToParse.forEach(path -> {
+			final var parsedState = parsedStates.get(path);
+			states.put(path, new SourceFileState(currentHashes.get(path),
+					parsedState == null ? Map.of() : parsedState.referencedNamesByType(),
+					Map.of(),
+					parsedState == null ? Map.of() : parsedState.superTypesByType()));
+		});
+		return states;
+	}
+
+}
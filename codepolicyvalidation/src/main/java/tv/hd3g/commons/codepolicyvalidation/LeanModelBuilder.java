@@ -0,0 +1,117 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.ast.ASTNode;
+import org.eclipse.jdt.internal.compiler.ast.AbstractMethodDeclaration;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.ast.TypeDeclaration;
+
+import spoon.reflect.factory.Factory;
+import spoon.support.compiler.jdt.JDTBasedSpoonCompiler;
+
+/**
+ * With LEAN_PROPERTY, build a model without comments, and without the method and constructor bodies of the source
+ * files with none of the bodyTokens (in the source, or by a wildcard import of its package): in these files, only the
+ * declarations (types, fields, signatures, annotations and imports) are in the model.
+ * The JDT compilation is unchanged (the bodies are still parsed and resolved), only the Spoon model is smaller.
+ */
+class LeanModelBuilder extends JDTBasedSpoonCompiler {
+
+	static final String LEAN_PROPERTY = "codepolicy.lean";
+
+	private final Collection<String> bodyTokens;
+	private final Set<String> leanFiles;
+
+	/**
+	 * @param bodyTokens a source file with one of them is builded with its bodies
+	 */
+	LeanModelBuilder(final Factory factory, final Collection<String> bodyTokens) {
+		super(factory);
+		this.bodyTokens = List.copyOf(bodyTokens);
+		leanFiles = new HashSet<>();
+		factory.getEnvironment().setCommentEnabled(false);
+	}
+
+	static boolean isEnabled() {
+		return Boolean.getBoolean(LEAN_PROPERTY);
+	}
+
+	/**
+	 * @return the absolute and normalized paths of the builded files without bodies
+	 */
+	Set<String> getLeanFiles() {
+		return leanFiles;
+	}
+
+	@Override
+	protected void buildModel(final CompilationUnitDeclaration[] units, final Factory factory) {
+		for (final CompilationUnitDeclaration unit : units) {
+			if (unit.types == null || needsBodies(unit)) {
+				continue;
+			}
+			for (final TypeDeclaration type : unit.types) {
+				removeBodies(type);
+			}
+			leanFiles.add(Path.of(new String(unit.getFileName())).toAbsolutePath().normalize().toString());
+		}
+		super.buildModel(units, factory);
+	}
+
+	/**
+	 * A wildcard import of a package with a body token (like "import org.junit.*;" for "org.junit.Assert") needs the
+	 * bodies too: the token is not in the source, only its simple name.
+	 */
+	private boolean needsBodies(final CompilationUnitDeclaration unit) {
+		final var source = new String(unit.compilationResult.compilationUnit.getContents());
+		if (bodyTokens.stream().anyMatch(source::contains)) {
+			return true;
+		}
+		if (unit.imports == null) {
+			return false;
+		}
+		return Stream.of(unit.imports)
+				.filter(importReference -> (importReference.bits & ASTNode.OnDemand) != 0)
+				.map(importReference -> CharOperation.toString(importReference.getImportName()) + ".")
+				.anyMatch(importedPackage -> bodyTokens.stream().anyMatch(t -> t.startsWith(importedPackage)));
+	}
+
+	/**
+	 * The explicit constructor calls (super/this) are kept.
+	 */
+	private static void removeBodies(final TypeDeclaration type) {
+		if (type.methods != null) {
+			for (final AbstractMethodDeclaration method : type.methods) {
+				method.statements = null;
+			}
+		}
+		if (type.memberTypes != null) {
+			for (final TypeDeclaration memberType : type.memberTypes) {
+				removeBodies(memberType);
+			}
+		}
+	}
+
+}
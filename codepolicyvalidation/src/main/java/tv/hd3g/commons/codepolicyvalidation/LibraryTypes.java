@@ -0,0 +1,119 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+import org.eclipse.jdt.internal.compiler.env.IBinaryAnnotation;
+
+import tv.hd3g.commons.codepolicyvalidation.TypeUniverse.TypeSummary;
+
+/**
+ * The super types and the annotations of the classpath (libraries and JDK) types, read from their class files with the
+ * JDT class file reader: no class is loaded or initialized. The types are found with the thread context class loader
+ * (like a build tool plugin with one class loader by module), and each type is read only one time by class loader.
+ */
+class LibraryTypes {
+
+	/**
+	 * @param annotationNames the qualified names of the type annotations, only with a CLASS or RUNTIME retention
+	 */
+	private record LibraryType(TypeSummary summary, List<String> annotationNames) {
+	}
+
+	private static final LibraryType NOT_FOUND = new LibraryType(null, List.of());
+	/**
+	 * Class loader -&gt; qualified name -&gt; its type. The LibraryTypes don't keep a reference to their class loader.
+	 */
+	private static final Map<ClassLoader, Map<String, LibraryType>> libraryTypesByClassLoader = Collections
+			.synchronizedMap(new WeakHashMap<>());
+
+	private LibraryTypes() {
+	}
+
+	/**
+	 * @param qualifiedName like "java.util.Map$Entry" for a nested type
+	 * @return null if not found in the classpath. The module is empty.
+	 */
+	static TypeSummary getSummary(final String qualifiedName) {
+		return get(qualifiedName).summary();
+	}
+
+	static boolean exists(final String qualifiedName) {
+		return getSummary(qualifiedName) != null;
+	}
+
+	/**
+	 * @return the qualified names of the annotations on this type (like the meta-annotations of an annotation), empty
+	 *         if not found in the classpath.
+	 */
+	static List<String> getAnnotationNames(final String qualifiedName) {
+		return get(qualifiedName).annotationNames();
+	}
+
+	private static LibraryType get(final String qualifiedName) {
+		final var contextClassLoader = Thread.currentThread().getContextClassLoader();
+		final var classLoader = contextClassLoader == null ? LibraryTypes.class.getClassLoader() : contextClassLoader;
+		return libraryTypesByClassLoader.computeIfAbsent(classLoader, c -> new ConcurrentHashMap<>())
+				.computeIfAbsent(qualifiedName, name -> read(name, classLoader));
+	}
+
+	private static LibraryType read(final String qualifiedName, final ClassLoader classLoader) {
+		final var resourceName = qualifiedName.replace('.', '/') + ".class";
+		try (var classFile = classLoader.getResourceAsStream(resourceName)) {
+			if (classFile == null) {
+				return NOT_FOUND;
+			}
+			final var reader = ClassFileReader.read(classFile, resourceName);
+			final var superclass = reader.getSuperclassName() == null ? null : toName(reader.getSuperclassName());
+			final var interfaces = reader.getInterfaceNames() == null ? List.<String> of()
+																	  : Stream.of(reader.getInterfaceNames())
+																			  .map(LibraryTypes::toName)
+																			  .sorted()
+																			  .toList();
+			final var annotations = reader.getAnnotations() == null ? List.<String> of()
+																	: Stream.of(reader.getAnnotations())
+																			.map(IBinaryAnnotation::getTypeName)
+																			.map(LibraryTypes::toAnnotationName)
+																			.toList();
+			return new LibraryType(new TypeSummary("",
+					Object.class.getName().equals(superclass) ? null : superclass, interfaces), annotations);
+		} catch (final IOException | ClassFormatException e) {
+			return NOT_FOUND;
+		}
+	}
+
+	private static String toName(final char[] binaryName) {
+		return new String(binaryName).replace('/', '.');
+	}
+
+	/**
+	 * @param descriptor like "Ljava/lang/Deprecated;"
+	 */
+	private static String toAnnotationName(final char[] descriptor) {
+		return new String(descriptor, 1, descriptor.length - 2).replace('/', '.');
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.ModifierKind;
+import spoon.reflect.reference.CtTypeParameterReference;
+import spoon.reflect.reference.CtTypeReference;
+
+/**
+ * All the methods of a type, declared or inherited (like CtType.getAllMethods), with their return type id in the
+ * TypeHierarchy and their modifiers. Each type table is builded on the first call, from its super types tables, and
+ * shared by all the tests until the next globalInit.
+ * The super types out of the model are read by Spoon (from the classpath), only one time.
+ */
+public class MemberTable {
+
+	/**
+	 * @param returnTypeId the TypeHierarchy id of the return type, -1 for void, a primitive or a type parameter
+	 */
+	public record Member(CtMethod<?> method, String signature, int returnTypeId, Set<ModifierKind> modifiers) {
+
+		public String getSimpleName() {
+			return method.getSimpleName();
+		}
+
+		public boolean isPublic() {
+			return modifiers.contains(ModifierKind.PUBLIC);
+		}
+
+		public boolean isStatic() {
+			return modifiers.contains(ModifierKind.STATIC);
+		}
+
+	}
+
+	private final TypeHierarchy typeHierarchy;
+	private final Map<String, List<Member>> membersByType;
+	private final Set<String> pendingTypes;
+	private Set<String> objectMethodNames;
+
+	MemberTable(final TypeHierarchy typeHierarchy) {
+		this.typeHierarchy = typeHierarchy;
+		membersByType = new HashMap<>();
+		pendingTypes = new HashSet<>();
+	}
+
+	/**
+	 * @return the declared methods first, then the inherited and not overridden ones, by super type order.
+	 */
+	public synchronized List<Member> getMembers(final CtType<?> type) {
+		final var name = type.getQualifiedName();
+		final var known = membersByType.get(name);
+		if (known != null) {
+			return known;
+		}
+		final var members = new ArrayList<Member>();
+		final var signatures = new HashSet<String>();
+		type.getMethods().forEach(method -> {
+			final var member = toMember(method);
+			if (signatures.add(member.signature())) {
+				members.add(member);
+			}
+		});
+
+		/**
+		 * A super types cycle (only in an invalid code) is stopped here.
+		 */
+		if (pendingTypes.add(name)) {
+			final var superTypes = new ArrayList<CtTypeReference<?>>();
+			if (type.getSuperclass() != null) {
+				superTypes.add(type.getSuperclass());
+			} else if (type.isClass() && name.equals(Object.class.getName()) == false) {
+				superTypes.add(Policies.typeFactory.objectType());
+			}
+			superTypes.addAll(type.getSuperInterfaces());
+			superTypes.stream()
+					.map(CtTypeReference::getTypeDeclaration)
+					.filter(superType -> superType != null && superType != type)
+					.flatMap(superType -> getMembers(superType).stream())
+					.filter(member -> signatures.add(member.signature()))
+					.forEach(members::add);
+			pendingTypes.remove(name);
+		}
+
+		final var result = List.copyOf(members);
+		membersByType.put(name, result);
+		return result;
+	}
+
+	/**
+	 * @return the names of all the java.lang.Object methods
+	 */
+	public synchronized Set<String> getObjectMethodNames() {
+		if (objectMethodNames == null) {
+			final var names = new HashSet<String>();
+			getMembers(Policies.typeFactory.get(Object.class)).forEach(m -> names.add(m.getSimpleName()));
+			objectMethodNames = Set.copyOf(names);
+		}
+		return objectMethodNames;
+	}
+
+	/**
+	 * @return true if the member return type is superTypeName, or one of its sub types
+	 */
+	public boolean returns(final Member member, final String superTypeName) {
+		return member.returnTypeId() > -1
+			   && typeHierarchy.isSameOrSubtypeOf(member.returnTypeId(), typeHierarchy.getId(superTypeName));
+	}
+
+	private Member toMember(final CtMethod<?> method) {
+		final var returnType = method.getType();
+		final int returnTypeId;
+		if (returnType == null || returnType.isPrimitive() || returnType instanceof CtTypeParameterReference) {
+			returnTypeId = -1;
+		} else {
+			returnTypeId = typeHierarchy.getId(returnType.getQualifiedName());
+		}
+		return new Member(method, method.getSignature(), returnTypeId, Set.copyOf(method.getModifiers()));
+	}
+
+}
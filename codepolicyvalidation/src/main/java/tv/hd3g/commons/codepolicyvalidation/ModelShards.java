@@ -0,0 +1,125 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import spoon.Launcher;
+
+/**
+ * Split the source files by package directory in some shards, and build a Spoon model for each shard, in parallel.
+ * The types declared in the other shards are resolved from the compiled classes (the test classpath).
+ */
+class ModelShards {
+	private static final Logger log = LoggerFactory.getLogger(ModelShards.class);
+
+	static final String SHARDS_PROPERTY = "codepolicy.shards";
+
+	private ModelShards() {
+	}
+
+	/**
+	 * @return the SHARDS_PROPERTY value, 1 (no sharding) if not set or invalid
+	 */
+	static int getShardCount() {
+		return Math.max(1, Integer.getInteger(SHARDS_PROPERTY, 1));
+	}
+
+	/**
+	 * Keep a package directory in the same shard, and balance the shards by file count, biggest packages first.
+	 * @return non-empty shards, each with sorted paths
+	 */
+	static List<List<String>> partition(final Collection<String> sourceFiles, final int shardCount) {
+		final var filesByDirectory = sourceFiles.stream()
+				.filter(path -> path.endsWith(".java"))
+				.sorted()
+				.collect(groupingBy(path -> String.valueOf(Path.of(path).getParent()), TreeMap::new, toList()));
+
+		final var shards = new ArrayList<List<String>>();
+		for (var pos = 0; pos < Math.min(shardCount, filesByDirectory.size()); pos++) {
+			shards.add(new ArrayList<>());
+		}
+		filesByDirectory.values().stream()
+				.sorted(Comparator.comparingInt(List<String>::size).reversed())
+				.forEach(files -> shards.stream()
+						.min(Comparator.comparingInt(List::size))
+						.ifPresent(shard -> shard.addAll(files)));
+		return shards.stream()
+				.map(shard -> shard.stream().sorted().toList())
+				.toList();
+	}
+
+	/**
+	 * @param launcherBuilder will be called in parallel, one time by shard
+	 * @return the builded launchers, in the partition order
+	 */
+	static List<Launcher> build(final Collection<String> sourceFiles,
+								final int shardCount,
+								final Function<String[], Launcher> launcherBuilder) {
+		final var shards = partition(sourceFiles, shardCount);
+		if (shards.size() < 2) {
+			return shards.stream()
+					.map(shard -> launcherBuilder.apply(shard.toArray(String[]::new)))
+					.toList();
+		}
+
+		final var startTime = System.currentTimeMillis();
+		final var threads = Math.min(shards.size(), Runtime.getRuntime().availableProcessors());
+		final var executor = Executors.newFixedThreadPool(threads);
+		try {
+			final var futures = shards.stream()
+					.map(shard -> executor.submit(() -> launcherBuilder.apply(shard.toArray(String[]::new))))
+					.toList();
+			final var launchers = new ArrayList<Launcher>(futures.size());
+			for (final Future<Launcher> future : futures) {
+				launchers.add(getShard(future));
+			}
+			log.info("Build {} model shards with {} threads in {} ms",
+					shards.size(), threads, System.currentTimeMillis() - startTime);
+			return List.copyOf(launchers);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Launcher getShard(final Future<Launcher> future) {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted during model shard build", e);
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException("Can't build model shard", e.getCause());
+		}
+	}
+
+}
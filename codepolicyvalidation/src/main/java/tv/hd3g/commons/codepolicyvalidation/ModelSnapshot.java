@@ -0,0 +1,68 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.List;
+
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+
+/**
+ * The roots and the top level types of a builded model (one or more shards), or only some of its top level types,
+ * listed at creation. It's not a copy: the Spoon model itself is not frozen, and stay mutable.
+ * The top level types are the independent units of work, they can be walked by many threads at the same time only
+ * if nobody change the model during the walk: Policies.globalInit and Policies.update are called by PolicyRunner with
+ * the same lock as the tests, and by the JUnit policy classes under the Policies.STATE_LOCK resource lock.
+ */
+final class ModelSnapshot {
+
+	private final List<CtElement> roots;
+	private final List<CtType<?>> topLevelTypes;
+
+	ModelSnapshot(final List<CtPackage> rootPackages) {
+		roots = List.copyOf(rootPackages);
+		topLevelTypes = rootPackages.stream()
+				.flatMap(rootPackage -> rootPackage.getFactory().getModel().getAllTypes().stream())
+				.<CtType<?>> map(type -> type)
+				.toList();
+	}
+
+	private ModelSnapshot(final List<CtElement> roots, final List<CtType<?>> topLevelTypes) {
+		this.roots = roots;
+		this.topLevelTypes = topLevelTypes;
+	}
+
+	/**
+	 * @param topLevelTypes the only types to walk, like the parsed types after a Policies.update
+	 */
+	static ModelSnapshot ofTypes(final List<CtType<?>> topLevelTypes) {
+		return new ModelSnapshot(List.copyOf(topLevelTypes), List.copyOf(topLevelTypes));
+	}
+
+	/**
+	 * @return the root packages, or the top level types
+	 */
+	List<CtElement> getRoots() {
+		return roots;
+	}
+
+	List<CtType<?>> getTopLevelTypes() {// NOSONAR S1452
+		return topLevelTypes;
+	}
+
+}
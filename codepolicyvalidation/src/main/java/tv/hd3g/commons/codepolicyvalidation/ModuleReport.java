@@ -0,0 +1,89 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The results of the CheckPolicy tests for one module.
+ * @param module the module name, like a Maven artifactId
+ * @param passedTests in run order
+ * @param failuresByTest failed test name -&gt; its failure message, in run order
+ */
+public record ModuleReport(String module,
+						   List<String> passedTests,
+						   Map<String, String> failuresByTest,
+						   long durationMillis) {
+
+	public ModuleReport {
+		Objects.requireNonNull(module, "\"module\" can't to be null");
+		passedTests = List.copyOf(passedTests);
+		failuresByTest = Collections.unmodifiableMap(new LinkedHashMap<>(failuresByTest));
+	}
+
+	public boolean isSuccess() {
+		return failuresByTest.isEmpty();
+	}
+
+	/**
+	 * @return a summary line, and one line by failed test
+	 */
+	public String toText() {
+		final var text = new StringBuilder();
+		text.append(module)
+				.append(": ")
+				.append(passedTests.size() + failuresByTest.size())
+				.append(" tests, ")
+				.append(failuresByTest.size())
+				.append(" failed, in ")
+				.append(durationMillis)
+				.append(" ms")
+				.append(System.lineSeparator());
+		failuresByTest.forEach((test, message) -> text.append("FAIL ")
+				.append(test)
+				.append(": ")
+				.append(message)
+				.append(System.lineSeparator()));
+		return text.toString();
+	}
+
+	/**
+	 * Replace file with toText()
+	 */
+	public void write(final Path file) {
+		try {
+			final var parent = file.toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+			Files.writeString(file, toText(), UTF_8);
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Can't write report to " + file, e);
+		}
+	}
+
+}
@@ -0,0 +1,1090 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2023
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.Kind.PHASE;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import spoon.Launcher;
+import spoon.SpoonModelBuilder;
+import spoon.reflect.declaration.CtCompilationUnit;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtImport;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.factory.TypeFactory;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtFieldReference;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.Filter;
+import spoon.reflect.visitor.filter.AbstractFilter;
+import spoon.support.reflect.declaration.CtPackageImpl;
+import tv.hd3g.commons.codepolicyvalidation.PolicyCache.CachedSources;
+import tv.hd3g.commons.codepolicyvalidation.Violation.Severity;
+
+/**
+ * The model and the indexes are static, global to the JVM, and replaced by each globalInit: with the JUnit parallel
+ * execution, the Policies test classes (like the CheckPolicy subclasses) hold the STATE_LOCK resource lock, so they run
+ * one after the other, and the other tests in parallel with them.
+ */
+@ResourceLock(Policies.STATE_LOCK)
+public class Policies {
+	private static final Logger log = LoggerFactory.getLogger(Policies.class);
+
+	/**
+	 * The JUnit ResourceLock of the static state. Add it on a test class which calls globalInit without extends
+	 * Policies.
+	 */
+	public static final String STATE_LOCK = "tv.hd3g.commons.codepolicyvalidation.Policies";
+
+	public static final TypeFactory typeFactory = new TypeFactory();
+	private static String[] inputResources;
+	/**
+	 * With LeanModelBuilder.LEAN_PROPERTY, the source files to build with their bodies; null for all
+	 */
+	private static Set<String> bodyTokens;
+	/**
+	 * The builded source files without their bodies (see LeanModelBuilder)
+	 */
+	private static Set<String> leanFiles = ConcurrentHashMap.newKeySet();
+	private static Launcher launcher;
+	/**
+	 * The full model, as one or more shards (see ModelShards)
+	 */
+	private static List<Launcher> modelShards;
+	/**
+	 * The model of the freshFiles only, during an incremental analysis
+	 */
+	private static List<Launcher> partialShards;
+	private static RuleEngine ruleEngine;
+	private static AnnotationIndex annotationIndex;
+	private static TypeHierarchy typeHierarchy;
+	private static MemberTable memberTable;
+	private static Map<BannedImportMatcher, Map<BannedImport, SortedSet<String>>> bannedImportHitsByMatcher;
+	/**
+	 * Source file path -&gt; its state
+	 */
+	private static Map<String, SourceFileState> sourceStates;
+	/**
+	 * The source files to get from the RuleEngine model for the ElementRules results; null for all
+	 */
+	private static Set<String> freshFiles;
+	/**
+	 * The top level types of the freshFiles, after an update of the full model
+	 */
+	private static List<CtType<?>> freshTypes;
+	private static Set<String> renderedRuleNames;
+	private static Map<String, List<String>> unlocatedMessagesByRule;
+	static ReferenceIndex referenceIndex;
+	static PolicyCache policyCache;
+	static PolicyMetrics metrics = new PolicyMetrics();
+	/**
+	 * The types of the other modules, during an aggregate analysis (see PolicyRunner.checkAll)
+	 */
+	static TypeUniverse typeUniverse = new TypeUniverse();
+	/**
+	 * The classpath of the checked module (like from a build tool plugin, see PolicyRunner.check), for resolve the
+	 * types declared in the non-parsed files. Null for the test classpath of the current JVM.
+	 */
+	private static List<String> sourceClasspath;
+
+	/**
+	 * If the PolicyCache is enabled and the sources are unchanged since the last run, the model will be only built on
+	 * demand (if a non-cached query needs it).
+	 * If the PolicyCache is incremental, only the changed sources and its dependents are parsed for the ReferenceIndex
+	 * and the ElementRules.
+	 */
+	public static synchronized void globalInit(final String... inputResources) {
+		globalInit(null, inputResources);
+	}
+
+	/**
+	 * @param bodyTokens with LeanModelBuilder.LEAN_PROPERTY, only the source files with one of them are builded with
+	 *        their method bodies: the rules and the checkClassNotPresent references on method bodies must need one of
+	 *        them. Null for always build the bodies.
+	 */
+	public static synchronized void globalInit(final Collection<String> bodyTokens, final String... inputResources) {
+		globalInitModule(null, bodyTokens, inputResources);
+	}
+
+	/**
+	 * @param classpath the module classpath (see sourceClasspath), null for the test classpath of the current JVM
+	 */
+	static synchronized void globalInitModule(final Collection<String> classpath,
+											  final Collection<String> bodyTokens,
+											  final String... inputResources) {
+		sourceClasspath = classpath == null ? null : List.copyOf(classpath);
+		Policies.inputResources = inputResources.clone();
+		Policies.bodyTokens = bodyTokens == null ? null : Set.copyOf(bodyTokens);
+		leanFiles = ConcurrentHashMap.newKeySet();
+		launcher = null;
+		modelShards = null;
+		annotationIndex = null;
+		typeHierarchy = null;
+		memberTable = null;
+		bannedImportHitsByMatcher = new HashMap<>();
+		partialShards = null;
+		freshTypes = null;
+		ruleEngine = null;
+		renderedRuleNames = new HashSet<>();
+		unlocatedMessagesByRule = new HashMap<>();
+		metrics = new PolicyMetrics();
+		final var globalInitStopwatch = metrics.start();
+		policyCache = PolicyCache.create(inputResources);
+
+		final var cachedSources = metrics.measure(PHASE, "loadCache", policyCache::loadSourceStates,
+				c -> c.map(CachedSources::states).map(Map::size).orElse(0));
+		if (cachedSources.isPresent() && policyCache.isUpToDate(cachedSources.get())) {
+			sourceStates = cachedSources.get().states();
+			freshFiles = Set.of();
+		} else if (cachedSources.isPresent() && policyCache.isPatchable(cachedSources.get())) {
+			final var previousStates = cachedSources.get().states();
+			final var analysis = metrics.measure(PHASE, "incrementalAnalysis",
+					() -> new IncrementalAnalysis(previousStates, policyCache.getFileHashes(), inputResources),
+					a -> a.getFilesToParse().size());
+			freshFiles = analysis.getFilesToParse();
+			log.info("Incremental analysis: parse {} changed or dependent files, {} removed files",
+					freshFiles.size(), analysis.getRemovedFiles().size());
+			if (freshFiles.isEmpty()) {
+				sourceStates = analysis.patch(Map.of());
+			} else {
+				partialShards = buildShards(freshFiles);
+				sourceStates = analysis.patch(getSourceStates(partialShards, Set.of()));
+			}
+		} else {
+			sourceStates = getSourceStates(getModelShards(), policyCache.getFileHashes().keySet());
+			freshFiles = null;
+		}
+		referenceIndex = metrics.measure(PHASE, "referenceIndex", () -> ReferenceIndex.build(sourceStates),
+				ReferenceIndex::getReferenceCount);
+		metrics.measure(PHASE, "saveCache", () -> {
+			policyCache.saveSourceStates(sourceStates);
+			return sourceStates;
+		}, Map::size);
+
+		final var measure = globalInitStopwatch.stop(PHASE, "globalInit", sourceStates.size());
+		log.info("Build reference index in {} ms for {} files: {} referenced types, {} references, {} allocated bytes",
+				measure.wallNanos() / 1_000_000,
+				sourceStates.size(),
+				referenceIndex.getReferencedNames().size(),
+				referenceIndex.getReferenceCount(),
+				measure.allocatedBytes());
+	}
+
+	/**
+	 * Patch the model of the current globalInit with the changed source files, without a new globalInit (like for a
+	 * PolicyWatcher). The changed and removed files, and their dependents (see IncrementalAnalysis), are removed from
+	 * the model, and parsed again in it. If the full model was never builded, only the parsed files are builded, in a
+	 * partial model.
+	 * The next ElementRules walks are only done on the parsed files (the messages of the other files are kept), the
+	 * ReferenceIndex is builded again from the SourceFileStates, and the other indexes are builded again on demand,
+	 * from the patched model.
+	 * @param changedFiles the added, modified or removed source files. Only used if the PolicyCache is disabled: else,
+	 *        all the source files hashes are compared.
+	 * @return the parsed files
+	 */
+	static synchronized Set<String> update(final Collection<String> changedFiles) {
+		if (sourceStates == null) {
+			throw new IllegalStateException("No globalInit before update");
+		}
+		metrics = new PolicyMetrics();
+		final var updateStopwatch = metrics.start();
+		policyCache = PolicyCache.create(inputResources);
+		final var currentHashes = policyCache.isEnabled() ? policyCache.getFileHashes()
+														  : getCurrentHashes(changedFiles);
+		final var analysis = metrics.measure(PHASE, "incrementalAnalysis",
+				() -> new IncrementalAnalysis(sourceStates, currentHashes, inputResources),
+				a -> a.getFilesToParse().size());
+		final var filesToParse = analysis.getFilesToParse();
+
+		final Map<String, SourceFileState> parsedStates;
+		if (modelShards == null) {
+			freshTypes = null;
+			partialShards = filesToParse.isEmpty() ? null : buildShards(filesToParse);
+			parsedStates = partialShards == null ? Map.of() : getSourceStates(partialShards, Set.of());
+		} else {
+			final var outdatedFiles = new HashSet<String>(filesToParse);
+			outdatedFiles.addAll(analysis.getRemovedFiles());
+			leanFiles.removeAll(outdatedFiles);
+			freshTypes = patchModel(outdatedFiles, filesToParse);
+			partialShards = null;
+			parsedStates = getSourceStates(freshTypes, Set.of());
+		}
+		sourceStates = analysis.patch(parsedStates);
+		freshFiles = filesToParse;
+		ruleEngine = null;
+		renderedRuleNames.clear();
+		unlocatedMessagesByRule.clear();
+		annotationIndex = null;
+		typeHierarchy = null;
+		memberTable = null;
+		bannedImportHitsByMatcher = new HashMap<>();
+		referenceIndex = metrics.measure(PHASE, "referenceIndex", () -> ReferenceIndex.build(sourceStates),
+				ReferenceIndex::getReferenceCount);
+		policyCache.saveSourceStates(sourceStates);
+
+		updateStopwatch.stop(PHASE, "update", filesToParse.size());
+		log.info("Update model: parse {} changed or dependent files, {} removed files",
+				filesToParse.size(), analysis.getRemovedFiles().size());
+		return filesToParse;
+	}
+
+	/**
+	 * Without PolicyCache, the unchanged files keep their previous hash.
+	 * @return source file path -&gt; its content hash
+	 */
+	private static Map<String, String> getCurrentHashes(final Collection<String> changedFiles) {
+		final var hashes = new TreeMap<String, String>();
+		sourceStates.forEach((path, state) -> hashes.put(path, state.hash()));
+		changedFiles.stream()
+				.map(Path::of)
+				.map(Path::toAbsolutePath)
+				.map(Path::normalize)
+				.forEach(file -> {
+					if (Files.isRegularFile(file)) {
+						hashes.put(file.toString(), PolicyCache.sha256(file));
+					} else {
+						hashes.remove(file.toString());
+					}
+				});
+		return hashes;
+	}
+
+	/**
+	 * Remove the outdatedFiles compilation units from the model shards, and parse again the filesToParse in their
+	 * previous shard (the new files in the first one).
+	 * @return the top level types of the parsed files
+	 */
+	private static List<CtType<?>> patchModel(final Set<String> outdatedFiles, final Set<String> filesToParse) {
+		final var filesByShard = new LinkedHashMap<Launcher, List<String>>();
+		final var pendingFiles = new TreeSet<>(filesToParse);
+		for (final Launcher shard : modelShards) {
+			final var compilationUnits = shard.getFactory().CompilationUnit();
+			for (final String key : List.copyOf(compilationUnits.getMap().keySet())) {
+				final CtCompilationUnit compilationUnit = compilationUnits.getMap().get(key);
+				final var path = getFilePath(compilationUnit);
+				if (outdatedFiles.contains(path) == false) {
+					continue;
+				}
+				compilationUnits.removeFromCache(key);
+				compilationUnit.getDeclaredTypes().forEach(CtType::delete);
+				if (pendingFiles.remove(path)) {
+					filesByShard.computeIfAbsent(shard, k -> new ArrayList<>()).add(path);
+				}
+			}
+		}
+		if (pendingFiles.isEmpty() == false) {
+			filesByShard.computeIfAbsent(modelShards.get(0), k -> new ArrayList<>()).addAll(pendingFiles);
+		}
+
+		final var parsedTypes = new ArrayList<CtType<?>>();
+		filesByShard.forEach((shard, files) -> {
+			final var factory = shard.getFactory();
+			factory.getModel().setBuildModelIsFinished(false);
+			buildLauncher(factory, files.toArray(String[]::new), true);
+			final var compilationUnits = factory.CompilationUnit();
+			for (final String key : List.copyOf(compilationUnits.getMap().keySet())) {
+				final CtCompilationUnit compilationUnit = compilationUnits.getMap().get(key);
+				if (files.contains(getFilePath(compilationUnit))) {
+					parsedTypes.addAll(compilationUnit.getDeclaredTypes());
+				}
+			}
+		});
+		return parsedTypes;
+	}
+
+	/**
+	 * @return the absolute and normalized path of the compilation unit file, or empty if it can't be found.
+	 */
+	private static String getFilePath(final CtCompilationUnit compilationUnit) {
+		final var file = compilationUnit.getFile();
+		return file == null ? "" : file.toPath().toAbsolutePath().normalize().toString();
+	}
+
+	private static Launcher buildLauncher(final String[] inputResources, final boolean withTestClasspath) {
+		return buildLauncher(null, inputResources, withTestClasspath);
+	}
+
+	/**
+	 * @param modelFactory the factory of the model to add the inputResources, or null for a new model
+	 */
+	private static Launcher buildLauncher(final Factory modelFactory,
+										  final String[] inputResources,
+										  final boolean withTestClasspath) {
+		final var lean = LeanModelBuilder.isEnabled();
+		final var tokens = bodyTokens;
+		final Launcher newLauncher;
+		if (lean == false || tokens == null) {
+			newLauncher = modelFactory == null ? new Launcher() : new Launcher(modelFactory);
+		} else if (modelFactory == null) {
+			newLauncher = new Launcher() {
+				@Override
+				protected SpoonModelBuilder getCompilerInstance(final Factory factory) {
+					return new LeanModelBuilder(factory, tokens);
+				}
+			};
+		} else {
+			newLauncher = new Launcher(modelFactory) {
+				@Override
+				protected SpoonModelBuilder getCompilerInstance(final Factory factory) {
+					return new LeanModelBuilder(factory, tokens);
+				}
+			};
+		}
+		newLauncher.getEnvironment().setCommentEnabled(lean == false);
+		for (var i = 0; i < inputResources.length; i++) {
+			newLauncher.addInputResource(inputResources[i]);
+		}
+		if (withTestClasspath) {
+			/**
+			 * For resolve the types declared in the non-parsed files, from the compiled classes.
+			 */
+			newLauncher.getEnvironment().setSourceClasspath(getSourceClasspath().stream()
+					.filter(entry -> new File(entry).exists())
+					.toArray(String[]::new));
+		}
+		final var stopwatch = metrics.start();
+		newLauncher.buildModel();
+		stopwatch.stop(PHASE, "parse", inputResources.length);
+		if (newLauncher.getModelBuilder() instanceof final LeanModelBuilder leanModelBuilder) {
+			leanFiles.addAll(leanModelBuilder.getLeanFiles());
+			log.debug("Lean model: {} files builded without method bodies", leanModelBuilder.getLeanFiles().size());
+		}
+		return newLauncher;
+	}
+
+	/**
+	 * @return the sourceClasspath if set, else the test classpath of the current JVM
+	 */
+	static List<String> getSourceClasspath() {
+		if (sourceClasspath != null) {
+			return sourceClasspath;
+		}
+		final var classpath = System.getProperty("surefire.test.class.path",
+				System.getProperty("java.class.path", ""));
+		return Stream.of(classpath.split(File.pathSeparator))
+				.filter(entry -> entry.isEmpty() == false)
+				.toList();
+	}
+
+	/**
+	 * Always with the test classpath, for resolve the types declared in the other shards.
+	 * @return one shard if ModelShards.SHARDS_PROPERTY is not set
+	 */
+	private static List<Launcher> buildShards(final Collection<String> sourceFiles) {
+		return ModelShards.build(sourceFiles, ModelShards.getShardCount(), files -> buildLauncher(files, true));
+	}
+
+	/**
+	 * @param expectedFiles source files paths to always return, even without declared types
+	 * @return source file path -&gt; its state, for all model top level types
+	 */
+	private static Map<String, SourceFileState> getSourceStates(final List<Launcher> launchers,
+																final Set<String> expectedFiles) {
+		return getSourceStates(launchers.stream()
+				.flatMap(l -> l.getModel().getAllTypes().stream())
+				.<CtType<?>> map(type -> type)
+				.toList(), expectedFiles);
+	}
+
+	/**
+	 * @param types top level types
+	 */
+	private static Map<String, SourceFileState> getSourceStates(final Collection<CtType<?>> types,
+																final Set<String> expectedFiles) {
+		final var stopwatch = metrics.start();
+		final var fileHashes = policyCache.getFileHashes();
+		final var referencedNamesByTypeByFile = new TreeMap<String, Map<String, Set<String>>>();
+		final var typesByFile = new HashMap<String, List<CtType<?>>>();
+		expectedFiles.forEach(path -> referencedNamesByTypeByFile.put(path, new HashMap<>()));
+		types.forEach(type -> {
+			final var sourcePath = getSourcePath(type);
+			final var referencedNames = Stream.concat(
+					getUsedTypes(type).stream().map(CtTypeReference::getQualifiedName),
+					leanFiles.contains(sourcePath) ? getImportedTypeNames(type) : Stream.empty())
+					.collect(toUnmodifiableSet());
+			referencedNamesByTypeByFile
+					.computeIfAbsent(sourcePath, k -> new HashMap<>())
+					.put(type.getQualifiedName(), referencedNames);
+			typesByFile.computeIfAbsent(sourcePath, k -> new ArrayList<>()).add(type);
+		});
+
+		final var states = new TreeMap<String, SourceFileState>();
+		referencedNamesByTypeByFile.forEach((path, referencedNamesByType) -> states.put(path,
+				new SourceFileState(fileHashes.getOrDefault(path, ""),
+						Map.copyOf(referencedNamesByType),
+						Map.of(),
+						Map.copyOf(TypeUniverse.getSuperTypesByType(typesByFile.getOrDefault(path, List.of()))))));
+		stopwatch.stop(PHASE, "usedTypes", states.values().stream()
+				.map(SourceFileState::referencedNamesByType)
+				.mapToInt(Map::size)
+				.sum());
+		return states;
+	}
+
+	/**
+	 * For the types without method bodies: the types only used in the bodies are mostly imported.
+	 * @return the types imported by the type compilation unit, and the declaring types of the static imports
+	 */
+	private static Stream<String> getImportedTypeNames(final CtType<?> type) {
+		final var position = type.getPosition();
+		if (position == null || position.isValidPosition() == false || position.getCompilationUnit() == null) {
+			return Stream.empty();
+		}
+		return position.getCompilationUnit().getImports().stream()
+				.map(CtImport::getReference)
+				.map(reference -> {
+					if (reference instanceof final CtTypeReference<?> typeReference) {
+						return typeReference;
+					} else if (reference instanceof final CtExecutableReference<?> executableReference) {
+						return executableReference.getDeclaringType();
+					} else if (reference instanceof final CtFieldReference<?> fieldReference) {
+						return fieldReference.getDeclaringType();
+					}
+					return null;
+				})
+				.filter(Objects::nonNull)
+				.map(CtTypeReference::getQualifiedName);
+	}
+
+	/**
+	 * @return the absolute and normalized path of the source file of this element (or of its nearest parent with a
+	 *         position), or empty if it can't be found.
+	 */
+	static String getSourcePath(final CtElement element) {
+		var current = element;
+		while (current != null) {
+			final var position = current.getPosition();
+			if (position != null && position.isValidPosition() && position.getFile() != null) {
+				return position.getFile().toPath().toAbsolutePath().normalize().toString();
+			}
+			current = current.isParentInitialized() ? current.getParent() : null;
+		}
+		return "";
+	}
+
+	/**
+	 * From the SourceFileStates: the model is not builded for this, if the PolicyCache is up to date.
+	 * @return the types declared in the current globalInit inputResources -&gt; their super types names (see
+	 *         TypeUniverse.getSuperTypesByType)
+	 */
+	static synchronized Map<String, List<String>> getSuperTypesByType() {
+		final var superTypesByType = new HashMap<String, List<String>>();
+		sourceStates.values().forEach(state -> superTypesByType.putAll(state.superTypesByType()));
+		return superTypesByType;
+	}
+
+	/**
+	 * @return the Spoon launcher with a builded model of the current globalInit inputResources
+	 */
+	static synchronized Launcher getLauncher() {
+		if (launcher == null) {
+			launcher = buildLauncher(inputResources, false);
+		}
+		return launcher;
+	}
+
+	/**
+	 * @return the full model, builded in parallel shards if ModelShards.SHARDS_PROPERTY is set, else getLauncher()
+	 */
+	static synchronized List<Launcher> getModelShards() {
+		if (modelShards == null) {
+			if (ModelShards.getShardCount() > 1) {
+				modelShards = buildShards(PolicyCache.getInputFiles(inputResources).stream()
+						.map(Path::toString)
+						.toList());
+			} else {
+				modelShards = List.of(getLauncher());
+			}
+		}
+		return modelShards;
+	}
+
+	private static List<CtPackage> getRootPackages(final List<Launcher> launchers) {
+		return launchers.stream()
+				.map(l -> l.getFactory().Package().getRootPackage())
+				.toList();
+	}
+
+	/**
+	 * @return the elements of all the model shards, in shard order
+	 */
+	private static <T extends CtElement> List<T> getModelElements(final Filter<T> filter) {
+		return getRootPackages(getModelShards()).stream()
+				.flatMap(rootPackage -> rootPackage.getElements(filter).stream())
+				.toList();
+	}
+
+	/**
+	 * @return a RuleEngine on the partial model (or on the fresh types), if the current analysis is incremental.
+	 *         Its parallelism is set by RuleEngine.PARALLELISM_PROPERTY.
+	 */
+	static synchronized RuleEngine getRuleEngine() {
+		if (ruleEngine == null) {
+			final ModelSnapshot snapshot;
+			if (freshFiles != null && freshTypes != null) {
+				snapshot = ModelSnapshot.ofTypes(freshTypes);
+			} else {
+				snapshot = new ModelSnapshot(getRootPackages(freshFiles == null ? getModelShards() : partialShards));
+			}
+			ruleEngine = new RuleEngine(snapshot, RuleEngine.getParallelism(), metrics);
+		}
+		return ruleEngine;
+	}
+
+	private static Set<CtTypeReference<?>> getUsedTypes(final CtType<?> type) {
+		/**
+		 * Safe Set transformation.
+		 * Sometime, hasNext() here thrown a "Comparison method violates its general contract"
+		 */
+		final var source = type.getUsedTypes(true);
+		final var itr = source.iterator();
+		final var intermediate = new HashSet<CtTypeReference<?>>();
+		while (true) {// NOSONAR S135
+			try {
+				if (itr.hasNext() == false) {
+					break;
+				}
+				intermediate.add(itr.next());
+			} catch (final IllegalArgumentException e) {
+				if (itr.hasNext() == false) {
+					break;
+				}
+			}
+		}
+		if (intermediate.size() != source.size()) {
+			throw new IllegalArgumentException(
+					"Invalid Spoon behavior during import collection for "
+											   + type.getQualifiedName()
+											   + " intermediate Set size "
+											   + intermediate.size()
+											   + " != source size " + source.size());
+		}
+		return intermediate;
+	}
+
+	/**
+	 * @return the "who references X" index of the current model
+	 */
+	public ReferenceIndex getReferenceIndex() {
+		return referenceIndex;
+	}
+
+	/**
+	 * @return the measures of the current globalInit and of its queries
+	 */
+	public PolicyMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return the annotated types, methods and fields of the current model, builded on the first call.
+	 */
+	public AnnotationIndex getAnnotationIndex() {
+		return loadAnnotationIndex();
+	}
+
+	private static synchronized AnnotationIndex loadAnnotationIndex() {
+		if (annotationIndex == null) {
+			final var rootPackages = getRootPackages(getModelShards());
+			annotationIndex = metrics.measure(PHASE, "annotationIndex", () -> AnnotationIndex.build(rootPackages),
+					a -> a.getTypeAnnotationNames().size());
+		}
+		return annotationIndex;
+	}
+
+	/**
+	 * @return the qualified names of all the interfaces implemented by type, directly or by its super types. The super
+	 *         types are found in the model, else in the TypeUniverse for the types of the other modules, else in the
+	 *         classpath class files (see LibraryTypes). No class is loaded.
+	 */
+	public Set<String> getAllInterfaceNames(final CtTypeReference<?> type) {
+		return getTypeHierarchy().getAllInterfaceNames(type.getQualifiedName());
+	}
+
+	/**
+	 * @return the super types of all the types of the current model, builded on the first call.
+	 */
+	public TypeHierarchy getTypeHierarchy() {
+		return loadTypeHierarchy();
+	}
+
+	private static synchronized TypeHierarchy loadTypeHierarchy() {
+		if (typeHierarchy == null) {
+			final var rootPackages = getRootPackages(getModelShards());
+			typeHierarchy = metrics.measure(PHASE, "typeHierarchy", () -> TypeHierarchy.build(rootPackages,
+					typeUniverse), TypeHierarchy::size);
+		}
+		return typeHierarchy;
+	}
+
+	/**
+	 * @return the methods of the types of the current model, each type builded on its first call.
+	 */
+	public MemberTable getMemberTable() {
+		return loadMemberTable();
+	}
+
+	private static synchronized MemberTable loadMemberTable() {
+		if (memberTable == null) {
+			memberTable = new MemberTable(loadTypeHierarchy());
+		}
+		return memberTable;
+	}
+
+	/**
+	 * @param qualifiedName like an annotation name
+	 * @return true if this type is declared in the model, in the TypeUniverse, or in the classpath. No class is loaded.
+	 */
+	public boolean isKnownType(final String qualifiedName) {
+		return getModelShards().stream().anyMatch(l -> l.getFactory().Type().get(qualifiedName) != null)
+			   || typeUniverse.getSummary(qualifiedName) != null
+			   || LibraryTypes.exists(qualifiedName);
+	}
+
+	/**
+	 * @return all the ElementRules to evaluate in the same model walk, on the first getMatches call.
+	 */
+	protected Collection<ElementRule<?>> getElementRules() {// NOSONAR S1452
+		return List.of();
+	}
+
+	/**
+	 * @return the bodyTokens to use with globalInit, for a lean model (see LeanModelBuilder). Null for always build the
+	 *         method bodies.
+	 */
+	protected Collection<String> getBodyTokens() {
+		return null;// NOSONAR S1168
+	}
+
+	/**
+	 * The model is walked only once for all getElementRules() (and rule), next calls only read the results.
+	 */
+	public <T extends CtElement> List<T> getMatches(final ElementRule<T> rule) {
+		if (freshFiles != null) {
+			useFullModelForRules();
+		}
+		return getRuleEngine().getMatches(rule, getElementRules());
+	}
+
+	private static synchronized void useFullModelForRules() {
+		freshFiles = null;
+		freshTypes = null;
+		partialShards = null;
+		ruleEngine = null;
+		renderedRuleNames.clear();
+		unlocatedMessagesByRule.clear();
+	}
+
+	/**
+	 * Like getMatches, but with the rendered matches, sorted by source file.
+	 * With the PolicyCache, the messages for the unchanged source files are get from the cache.
+	 * @return distinct messages only if the rule isDistinctMessages
+	 */
+	public List<String> getMatchMessages(final ElementRule<?> rule) {
+		synchronized (Policies.class) {
+			if (renderedRuleNames.contains(rule.getName()) == false) {
+				renderMatches(rule);
+			}
+			final var messages = Stream.concat(
+					sourceStates.values().stream()
+							.map(SourceFileState::messagesByRule)
+							.map(m -> m.getOrDefault(rule.getName(), List.of()))
+							.flatMap(List::stream),
+					unlocatedMessagesByRule.getOrDefault(rule.getName(), List.of()).stream());
+			if (rule.isDistinctMessages()) {
+				return messages.distinct().toList();
+			}
+			return messages.toList();
+		}
+	}
+
+	private void renderMatches(final ElementRule<?> rule) {
+		final var rules = new LinkedHashSet<ElementRule<?>>(getElementRules());
+		rules.add(rule);
+		rules.removeIf(r -> renderedRuleNames.contains(r.getName()));
+
+		if (freshFiles != null) {
+			final var cannotUseCache = sourceStates.entrySet().stream()
+					.filter(entry -> freshFiles.contains(entry.getKey()) == false)
+					.map(entry -> entry.getValue().messagesByRule())
+					.anyMatch(messagesByRule -> rules.stream()
+							.map(ElementRule::getName)
+							.anyMatch(name -> messagesByRule.containsKey(name) == false));
+			if (cannotUseCache) {
+				useFullModelForRules();
+			}
+		}
+
+		final var engine = freshFiles == null || freshFiles.isEmpty() == false ? getRuleEngine() : null;
+		RuntimeException ruleFailure = null;
+		for (final var r : rules) {
+			final Map<String, List<String>> messagesByFile;
+			try {
+				messagesByFile = engine == null ? Map.of() : renderMatchesByFile(r, engine.getMatches(r, rules));
+			} catch (final RuntimeException e) {
+				if (r == rule) {
+					ruleFailure = e;
+				}
+				continue;
+			}
+			sourceStates.replaceAll((path, state) -> {
+				if (freshFiles != null && freshFiles.contains(path) == false) {
+					return state;
+				}
+				return state.withMessages(r.getName(), messagesByFile.getOrDefault(path, List.of()));
+			});
+			unlocatedMessagesByRule.put(r.getName(), messagesByFile.getOrDefault("", List.of()));
+			renderedRuleNames.add(r.getName());
+		}
+		policyCache.saveSourceStates(sourceStates);
+		if (ruleFailure != null) {
+			throw ruleFailure;
+		}
+	}
+
+	private static Map<String, List<String>> renderMatchesByFile(final ElementRule<?> rule,
+																 final List<? extends CtElement> matches) {
+		final var messagesByFile = new HashMap<String, List<String>>();
+		matches.forEach(element -> messagesByFile
+				.computeIfAbsent(getSourcePath(element), k -> new ArrayList<>())
+				.add(rule.render(element)));
+		return messagesByFile;
+	}
+
+	public String mapPathElementToString(final CtElement element) {
+		return pathElementToString(element);
+	}
+
+	/**
+	 * @return like "tv.hd3g.Foo.bar(int) Foo.java:12", see SourceLocation
+	 */
+	static String pathElementToString(final CtElement element) {
+		return SourceLocation.of(element).toString();
+	}
+
+	public void checkClassNotPresent(final String classBaseName, final String reason) {
+		checkClassNotPresent(new BannedImport(classBaseName, reason));
+	}
+
+	public void checkClassNotPresent(final String classBaseName,
+									 final String allowSourceDir,
+									 final String reason) {
+		checkClassNotPresent(new BannedImport(classBaseName, reason, allowSourceDir));
+	}
+
+	/**
+	 * Check only one BannedImport, with a ReferenceIndex prefix range.
+	 * The hits are capped by ViolationCollector.MAX_BY_RULE_PROPERTY.
+	 */
+	public void checkClassNotPresent(final BannedImport bannedImport) {
+		final var collector = new ViolationCollector();
+		collectViolations(bannedImport, collector);
+		if (collector.isEmpty() == false) {
+			throw new BadImportClass(bannedImport, collector);
+		}
+	}
+
+	/**
+	 * Add a Violation (with the BannedImport class base name as rule id) by forbidden referrer and referenced type,
+	 * sorted by referrer name, then by referenced name. Located on the referrer source file only.
+	 */
+	public void collectViolations(final BannedImport bannedImport, final ViolationCollector collector) {
+		final var referencedNamesByReferrer = new TreeMap<String, SortedSet<String>>();
+		final var fileByReferrer = new HashMap<String, String>();
+		referenceIndex.getReferrersByPrefix(bannedImport.classBaseName())
+				.forEach((referencedName, referrers) -> referrers.stream()
+						.filter(bannedImport::isForbiddenReferrer)
+						.forEach(referrer -> {
+							referencedNamesByReferrer.computeIfAbsent(referrer.qualifiedName(), r -> new TreeSet<>())
+									.add(referencedName);
+							if (referrer.sourceFile() != null) {
+								fileByReferrer.putIfAbsent(referrer.qualifiedName(),
+										referrer.sourceFile().getAbsolutePath());
+							}
+						}));
+		referencedNamesByReferrer.forEach((referrerName, referencedNames) -> referencedNames.forEach(
+				referencedName -> collector.add(new Violation(bannedImport.classBaseName(), Severity.ERROR,
+						fileByReferrer.getOrDefault(referrerName, ""), -1, -1, "CtType",
+						() -> Baseline.fingerprint(bannedImport.classBaseName(), referrerName, referencedName),
+						() -> BannedImport.toHitMessage(referrerName, referencedName)))));
+	}
+
+	/**
+	 * Add a Violation (with the rule name as rule id) by rule match, in model order, rendered by the rule on demand.
+	 * If the rule isDistinctMessages, the messages are rendered here, and only the first match by message is added.
+	 */
+	public void collectViolations(final ElementRule<?> rule, final ViolationCollector collector) {
+		final var matches = getMatches(rule).stream();
+		final var renderedMatches = new HashSet<String>();
+		(rule.isDistinctMessages() ? matches.filter(element -> renderedMatches.add(rule.render(element))) : matches)
+				.forEach(element -> collector.add(
+						Violation.of(rule.getName(), Severity.ERROR, element, () -> rule.render(element))));
+	}
+
+	/**
+	 * Check only bannedImport, with the hits of all the matcher BannedImports, computed one time after globalInit.
+	 */
+	public void checkClassNotPresent(final BannedImportMatcher matcher, final BannedImport bannedImport) {
+		if (ViolationCollector.isRequired()) {
+			checkClassNotPresent(bannedImport);
+			return;
+		}
+		final var hits = getBannedImportHits(matcher).get(bannedImport);
+		if (hits != null) {
+			throw toBadImportClass(bannedImport, hits);
+		}
+	}
+
+	/**
+	 * Check all the matcher BannedImports, in one pass.
+	 */
+	public void checkClassesNotPresent(final BannedImportMatcher matcher) {
+		if (ViolationCollector.isRequired()) {
+			final var bicList = matcher.getBannedImports().stream()
+					.map(bannedImport -> {
+						final var collector = new ViolationCollector();
+						collectViolations(bannedImport, collector);
+						return collector.isEmpty() ? null : new BadImportClass(bannedImport, collector);
+					})
+					.filter(Objects::nonNull)
+					.toList();
+			if (bicList.isEmpty() == false) {
+				throw new BadImportClass(bicList);
+			}
+			return;
+		}
+		final var bicList = getBannedImportHits(matcher).entrySet().stream()
+				.map(entry -> toBadImportClass(entry.getKey(), entry.getValue()))
+				.toList();
+		if (bicList.isEmpty() == false) {
+			throw new BadImportClass(bicList);
+		}
+	}
+
+	/**
+	 * @return see BannedImportMatcher.getHits, computed one time after globalInit
+	 */
+	public Map<BannedImport, SortedSet<String>> getBannedImportHits(final BannedImportMatcher matcher) {
+		return loadBannedImportHits(matcher);
+	}
+
+	private static synchronized Map<BannedImport, SortedSet<String>> loadBannedImportHits(
+			final BannedImportMatcher matcher) {
+		return bannedImportHitsByMatcher.computeIfAbsent(matcher, m -> m.getHits(referenceIndex));
+	}
+
+	private static BadImportClass toBadImportClass(final BannedImport bannedImport, final Set<String> hits) {
+		return new BadImportClass(bannedImport.classBaseName(),
+				bannedImport.reason(),
+				String.join(", ", hits));
+	}
+
+	public List<CtType<?>> searchByAnnotationInClass(final Class<?> annotation) {// NOSONAR S1452
+		return searchByAnnotationInClass(annotation.getName());
+	}
+
+	/**
+	 * @param annotationName the annotation qualified name, it don't needs to be on the classpath.
+	 */
+	public List<CtType<?>> searchByAnnotationInClass(final String annotationName) {// NOSONAR S1452
+		return getAnnotationIndex().getAnnotatedTypes(annotationName);
+	}
+
+	boolean ensureContainInPackageName(final String packageName, final String searched) {
+		final var dot = packageName.lastIndexOf('.');
+		if (dot == -1) {
+			return packageName.startsWith(searched) || packageName.endsWith(searched);
+		} else {
+			final var subpackageName = packageName.substring(dot + 1);
+			return subpackageName.startsWith(searched) || subpackageName.endsWith(searched);
+		}
+	}
+
+	public void assertInPackageName(final CtType<?> item, final String packageNameContain) {
+		final var ctPackage = (CtPackageImpl) item.getParent();
+		final var packageName = ctPackage.getQualifiedName();
+		if (ensureContainInPackageName(packageName, packageNameContain) == false) {
+			throw new BadClassLocation(item.getQualifiedName(), packageName, packageNameContain);
+		}
+	}
+
+	/**
+	 * The bad located classes are capped by ViolationCollector.MAX_BY_RULE_PROPERTY.
+	 */
+	public void assertSpringBootStereotypeInItsPackage(final String annotationName,
+													   final String packageNameContain) {
+		final var ruleId = "stereotypeInPackage:" + annotationName;
+		final var collector = new ViolationCollector();
+		searchByAnnotationInClass(annotationName).forEach(item -> {
+			final var packageName = item.getPackage().getQualifiedName();
+			if (ensureContainInPackageName(packageName, packageNameContain) == false) {
+				collector.add(Violation.of(ruleId, Severity.ERROR, item, () -> BadClassLocation.toMessage(
+						item.getQualifiedName(), packageName, packageNameContain)));
+			}
+		});
+		if (collector.isEmpty() == false) {
+			throw new BadClassLocation(collector, ruleId);
+		}
+	}
+
+	/**
+	 * With a sharded model, a package can be returned one time by shard.
+	 */
+	public List<CtPackage> searchPackagesByPackageName(final String packageNameContain) {
+		return getModelElements(
+				new AbstractFilter<CtPackage>() {
+					@Override
+					public boolean matches(final CtPackage element) {
+						return ensureContainInPackageName(element.getQualifiedName(), packageNameContain);
+					}
+				});
+	}
+
+	public List<CtType<?>> searchClassesByPackages(final List<CtPackage> packages, // NOSONAR S1452
+												   final Predicate<CtType<?>> inPackageFilter) {
+		final var packagesSet = packages.stream().distinct().collect(toUnmodifiableSet());
+		return getModelElements(
+				new AbstractFilter<CtType<?>>() {
+					@Override
+					public boolean matches(final CtType<?> element) {
+						return packagesSet.contains(element.getParent())
+							   && inPackageFilter.test(element);
+					}
+				});
+	}
+
+	public Predicate<CtType<?>> getIsAnnotatedClass(final Class<?> annotation) { // NOSONAR S1452
+		return getIsAnnotatedClass(annotation.getName());
+	}
+
+	/**
+	 * @param annotationName the annotation qualified name, it don't needs to be on the classpath.
+	 */
+	public Predicate<CtType<?>> getIsAnnotatedClass(final String annotationName) { // NOSONAR S1452
+		return element -> element.getAnnotations()
+				.stream()
+				.anyMatch(a -> annotationName.equals(a.getAnnotationType().getQualifiedName()));
+	}
+
+	/**
+	 * @param annotationNames the annotations qualified names, also searched in the meta-annotations (see
+	 *        AnnotationIndex.getAnnotationNames)
+	 */
+	Stream<CtMethod<?>> hasNotAnnotationMethod(final List<CtMethod<?>> methods, // NOSONAR S1452
+											   final Set<String> annotationNames) {
+		final var index = getAnnotationIndex();
+		return methods.stream()
+				.filter(m -> index.getAnnotationNames(m).stream().noneMatch(annotationNames::contains));
+	}
+
+	public boolean assertClassesByPackageIsAnnotated(final String packageNameContain,
+													 final String annotationName,
+													 final CtTypeCat typeCat) {
+		return assertClassesByPackageIsAnnotated(packageNameContain, annotationName, typeCat, t -> false);
+	}
+
+	static final Predicate<CtType<?>> filterTestAllowed = t -> {
+		final var name = t.getQualifiedName();
+		return name.toLowerCase().endsWith("test")
+			   || name.endsWith("IT")
+			   || name.endsWith("UT")
+			   || name.endsWith("TT");
+	};
+
+	public boolean assertClassesByPackageIsAnnotated(final String packageNameContain,
+													 final String annotationName,
+													 final CtTypeCat typeCat,
+													 final Predicate<CtType<?>> filterOutAllowed) {
+		if (isKnownType(annotationName) == false) {
+			return true;
+		}
+		final var packages = searchPackagesByPackageName(packageNameContain);
+		final var predicateIsAnnotated = getIsAnnotatedClass(annotationName);
+
+		final var noAnnotatedList = searchClassesByPackages(packages,
+				predicateIsAnnotated.negate().and(typeCat.filter))
+						.stream()
+						.filter(filterOutAllowed.negate())
+						.filter(filterTestAllowed.negate())
+						.collect(toUnmodifiableList());
+
+		final var ruleId = "annotatedInPackage:" + packageNameContain;
+		final var collector = new ViolationCollector();
+		noAnnotatedList.forEach(item -> collector.add(Violation.of(ruleId, Severity.ERROR, item,
+				() -> BadClassAnnotation.toMessage(item.getQualifiedName(),
+						((CtPackageImpl) item.getParent()).getQualifiedName(),
+						packageNameContain))));
+		if (collector.isEmpty()) {
+			return true;
+		}
+		throw new BadClassAnnotation(collector, ruleId);
+	}
+
+	public boolean assertClassesByPackageIsRightType(final String packageNameContain,
+													 final Collection<CtTypeCat> typeCatAllowed) {
+		return assertClassesByPackageIsRightType(packageNameContain, typeCatAllowed, t -> false);
+	}
+
+	public boolean assertClassesByPackageIsRightType(final String packageNameContain,
+													 final Collection<CtTypeCat> typeCatAllowed,
+													 final Predicate<CtType<?>> filterOutAllowed) {
+		final var packages = searchPackagesByPackageName(packageNameContain);
+		final Predicate<CtType<?>> inPackageFilter = t -> typeCatAllowed.stream()
+				.anyMatch(tC -> tC.filter.test(t));
+		final var badTypeList = searchClassesByPackages(packages,
+				inPackageFilter.negate().and(filterTestAllowed.negate()).and(filterOutAllowed.negate()));
+
+		final var ruleId = "typeInPackage:" + packageNameContain;
+		final var collector = new ViolationCollector();
+		badTypeList.forEach(item -> collector.add(Violation.of(ruleId, Severity.ERROR, item,
+				item::getQualifiedName)));
+		if (collector.isEmpty()) {
+			return true;
+		}
+		throw new AssertionError("Invalid type in package " + packageNameContain
+								 + ":[" + collector.toText(ruleId, ", ") + "]");
+	}
+
+}
@@ -0,0 +1,456 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache, enabled by the "codepolicy.cache.dir" system property (like target/codepolicy-cache).
+ * All cached data is keyed by a fingerprint of the content of each input file, the classpath and the library version
+ * (the hash of its jar, or of all its class files).
+ * It keeps each SourceFileState and each CheckPolicy test outcome, so an unchanged run don't needs to build the model.
+ * With "codepolicy.incremental" set to true, the SourceFileStates of a previous run can be patched (see
+ * IncrementalAnalysis).
+ */
+class PolicyCache {
+	private static final Logger log = LoggerFactory.getLogger(PolicyCache.class);
+
+	static final String CACHE_DIR_PROPERTY = "codepolicy.cache.dir";
+	static final String INCREMENTAL_PROPERTY = "codepolicy.incremental";
+	private static final int SOURCES_MAGIC = 0xC0DE1DC7;
+
+	private final File sourcesFile;
+	private final File outcomesFile;
+	private final Map<String, String> fileHashes;
+	private final String environment;
+	private final String fingerprint;
+	private final boolean incremental;
+	private final Map<String, RuleOutcome> outcomes;
+
+	/**
+	 * @param environment the library version and classpath used for this cached states
+	 * @param states source file path -&gt; its state
+	 */
+	record CachedSources(String fingerprint, String environment, Map<String, SourceFileState> states) {
+	}
+
+	/**
+	 * @param errorClassName null if the test has passed
+	 */
+	record RuleOutcome(String errorClassName, String message) {
+
+		boolean passed() {
+			return errorClassName == null;
+		}
+
+		AssertionError toError() {
+			return new AssertionError("(cached result, " + errorClassName + ") " + message);
+		}
+	}
+
+	private PolicyCache(final File sourcesFile,
+						final File outcomesFile,
+						final Map<String, String> fileHashes,
+						final boolean incremental) {
+		this.sourcesFile = sourcesFile;
+		this.outcomesFile = outcomesFile;
+		this.fileHashes = fileHashes;
+		this.incremental = incremental;
+		if (fileHashes != null) {
+			environment = computeEnvironment();
+			fingerprint = computeFingerprint(environment, fileHashes);
+		} else {
+			environment = null;
+			fingerprint = null;
+		}
+		outcomes = new HashMap<>();
+	}
+
+	/**
+	 * @return a disabled cache if CACHE_DIR_PROPERTY is not set
+	 */
+	static PolicyCache create(final String... inputResources) {
+		final var cacheDir = System.getProperty(CACHE_DIR_PROPERTY);
+		if (cacheDir == null || cacheDir.isBlank()) {
+			return new PolicyCache(null, null, null, false);
+		}
+		final var cacheName = sha256(String.join(File.pathSeparator, inputResources)
+									 + File.pathSeparator
+									 + new File("").getAbsolutePath()).substring(0, 16);
+		final var cache = new PolicyCache(
+				new File(cacheDir, cacheName + ".sources"),
+				new File(cacheDir, cacheName + ".outcomes"),
+				computeFileHashes(inputResources),
+				Boolean.getBoolean(INCREMENTAL_PROPERTY));
+		cache.loadOutcomes();
+		return cache;
+	}
+
+	boolean isEnabled() {
+		return fingerprint != null;
+	}
+
+	boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * @return source file path -&gt; its content hash, sorted. Empty if disabled
+	 */
+	Map<String, String> getFileHashes() {
+		return Optional.ofNullable(fileHashes).orElse(Map.of());
+	}
+
+	boolean isUpToDate(final CachedSources cachedSources) {
+		return isEnabled() && fingerprint.equals(cachedSources.fingerprint());
+	}
+
+	/**
+	 * @return true if cachedSources can be patched by an IncrementalAnalysis
+	 */
+	boolean isPatchable(final CachedSources cachedSources) {
+		return isEnabled() && incremental && environment.equals(cachedSources.environment());
+	}
+
+	static Map<String, String> computeFileHashes(final String... inputResources) {
+		final var fileHashes = new TreeMap<String, String>();
+		getInputFiles(inputResources).forEach(file -> fileHashes.put(file.toString(), sha256(file)));
+		return Collections.unmodifiableSortedMap(fileHashes);
+	}
+
+	private static String computeEnvironment() {
+		final var digest = getSha256Digest();
+		update(digest, getLibraryVersion());
+		update(digest, String.join(File.pathSeparator, Policies.getSourceClasspath()));
+		/**
+		 * The tests outcomes depends on the violation cap, the lean model and the baseline
+		 */
+		update(digest, String.valueOf(ViolationCollector.getDefaultMaxByRule()));
+		update(digest, String.valueOf(LeanModelBuilder.isEnabled()));
+		final var baseline = System.getProperty(Baseline.BASELINE_PROPERTY, "");
+		update(digest, baseline.isBlank() || Files.exists(Path.of(baseline)) == false ? "" : sha256(Path.of(baseline)));
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	static String computeFingerprint(final String environment, final Map<String, String> fileHashes) {
+		final var digest = getSha256Digest();
+		update(digest, environment);
+		final var rootDir = new File("").getAbsoluteFile().toPath();
+		fileHashes.forEach((file, hash) -> {
+			update(digest, rootDir.relativize(Path.of(file)).toString());
+			update(digest, hash);
+		});
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * @return sorted files, deduplicated
+	 */
+	static List<Path> getInputFiles(final String... inputResources) {
+		return Stream.of(inputResources)
+				.map(Path::of)
+				.filter(Files::exists)
+				.flatMap(PolicyCache::walk)
+				.filter(Files::isRegularFile)
+				.map(Path::toAbsolutePath)
+				.map(Path::normalize)
+				.distinct()
+				.sorted()
+				.toList();
+	}
+
+	private static Stream<Path> walk(final Path inputResource) {
+		try (var walk = Files.walk(inputResource)) {
+			return walk.toList().stream();
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Can't list " + inputResource, e);
+		}
+	}
+
+	private static String getLibraryVersion() {
+		final var codeSource = Policies.class.getProtectionDomain().getCodeSource();
+		try {
+			return getLibraryVersion(codeSource == null ? null : Path.of(codeSource.getLocation().toURI()));
+		} catch (final URISyntaxException | IllegalArgumentException e) {
+			log.warn("Can't get the library location from {}", codeSource.getLocation(), e);
+			return getLibraryVersion(null);
+		}
+	}
+
+	/**
+	 * @param location this library jar, or its classes directory (like target/classes). Can be null.
+	 * @return the hash of the jar, or of all the class files of this package
+	 */
+	static String getLibraryVersion(final Path location) {
+		final var digest = getSha256Digest();
+		update(digest, String.valueOf(Policies.class.getPackage().getImplementationVersion()));
+		if (location == null) {
+			return HexFormat.of().formatHex(digest.digest());
+		} else if (Files.isRegularFile(location)) {
+			update(digest, sha256(location));
+		} else {
+			final var packageDir = location.resolve(Policies.class.getPackageName().replace(".", File.separator));
+			if (Files.isDirectory(packageDir)) {
+				walk(packageDir)
+						.filter(Files::isRegularFile)
+						.sorted()
+						.forEach(classFile -> {
+							update(digest, packageDir.relativize(classFile).toString());
+							update(digest, sha256(classFile));
+						});
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	static String sha256(final Path file) {
+		final var digest = getSha256Digest();
+		try (var in = new BufferedInputStream(new FileInputStream(file.toFile()))) {
+			final var buffer = new byte[0xFFFF];
+			int read;
+			while ((read = in.read(buffer)) > -1) {
+				digest.update(buffer, 0, read);
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Can't read " + file, e);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	static String sha256(final String value) {
+		final var digest = getSha256Digest();
+		update(digest, value);
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static void update(final MessageDigest digest, final String value) {
+		digest.update(value.getBytes(UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest getSha256Digest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("No SHA-256 on this JVM", e);
+		}
+	}
+
+	/**
+	 * @return empty if disabled, absent, or unreadable. Check isUpToDate and isPatchable before use it.
+	 */
+	Optional<CachedSources> loadSourceStates() {
+		if (isEnabled() == false || sourcesFile.exists() == false) {
+			return Optional.empty();
+		}
+		try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(sourcesFile)))) {
+			if (in.readInt() != SOURCES_MAGIC) {
+				return Optional.empty();
+			}
+			final var cachedFingerprint = readString(in);
+			final var cachedEnvironment = readString(in);
+			final var states = new TreeMap<String, SourceFileState>();
+			final var fileCount = in.readInt();
+			for (var pos = 0; pos < fileCount; pos++) {
+				final var path = readString(in);
+				final var hash = readString(in);
+				final var referencedNamesByType = readMap(in, PolicyCache::readStringSet);
+				final var messagesByRule = readMap(in, PolicyCache::readStringList);
+				final var superTypesByType = readMap(in, PolicyCache::readStringList);
+				states.put(path, new SourceFileState(hash, referencedNamesByType, messagesByRule, superTypesByType));
+			}
+			log.debug("Load cached source states from {}", sourcesFile);
+			return Optional.ofNullable(new CachedSources(cachedFingerprint, cachedEnvironment, states));
+		} catch (final IOException e) {
+			log.warn("Can't read cache file {}, ignore it", sourcesFile, e);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Also reset the stored test outcomes if they were done with another fingerprint.
+	 * @param states source file path -&gt; its state
+	 */
+	synchronized void saveSourceStates(final Map<String, SourceFileState> states) {
+		if (isEnabled() == false) {
+			return;
+		}
+		sourcesFile.getParentFile().mkdirs();
+		try (var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(sourcesFile)))) {
+			out.writeInt(SOURCES_MAGIC);
+			writeString(out, fingerprint);
+			writeString(out, environment);
+			out.writeInt(states.size());
+			for (final var entry : states.entrySet()) {
+				writeString(out, entry.getKey());
+				final var state = entry.getValue();
+				writeString(out, state.hash());
+				writeMap(out, state.referencedNamesByType());
+				writeMap(out, state.messagesByRule());
+				writeMap(out, state.superTypesByType());
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Can't write cache file " + sourcesFile, e);
+		}
+		if (outcomes.isEmpty()) {
+			try {
+				Files.deleteIfExists(outcomesFile.toPath());
+			} catch (final IOException e) {
+				throw new UncheckedIOException("Can't delete cache file " + outcomesFile, e);
+			}
+		}
+	}
+
+	private interface ValueReader<T> {
+		T read(DataInputStream in) throws IOException;
+	}
+
+	private static <T> Map<String, T> readMap(final DataInputStream in,
+											  final ValueReader<T> valueReader) throws IOException {
+		final var size = in.readInt();
+		final var result = new HashMap<String, T>(size);
+		for (var pos = 0; pos < size; pos++) {
+			final var key = readString(in);
+			result.put(key, valueReader.read(in));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	private static void writeMap(final DataOutputStream out,
+								 final Map<String, ? extends Collection<String>> map) throws IOException {
+		out.writeInt(map.size());
+		for (final var entry : map.entrySet()) {
+			writeString(out, entry.getKey());
+			out.writeInt(entry.getValue().size());
+			for (final var value : entry.getValue()) {
+				writeString(out, value);
+			}
+		}
+	}
+
+	private static Set<String> readStringSet(final DataInputStream in) throws IOException {
+		return Set.copyOf(readStringList(in));
+	}
+
+	private static List<String> readStringList(final DataInputStream in) throws IOException {
+		final var size = in.readInt();
+		final var result = new ArrayList<String>(size);
+		for (var pos = 0; pos < size; pos++) {
+			result.add(readString(in));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	private void loadOutcomes() {
+		if (outcomesFile.exists() == false) {
+			return;
+		}
+		try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(outcomesFile)))) {
+			while (true) {// NOSONAR S135
+				final String recordFingerprint;
+				try {
+					recordFingerprint = readString(in);
+				} catch (final EOFException e) {
+					break;
+				}
+				final var key = readString(in);
+				final var errorClassName = readString(in);
+				final var message = readString(in);
+				if (fingerprint.equals(recordFingerprint)) {
+					outcomes.put(key, new RuleOutcome(errorClassName.isEmpty() ? null : errorClassName, message));
+				}
+			}
+		} catch (final IOException e) {
+			log.warn("Can't read cache file {}, ignore it", outcomesFile, e);
+			outcomes.clear();
+		}
+	}
+
+	/**
+	 * @return empty if disabled or never done with this fingerprint
+	 */
+	synchronized Optional<RuleOutcome> getOutcome(final String key) {
+		return Optional.ofNullable(outcomes.get(key));
+	}
+
+	/**
+	 * Append-only write.
+	 * @param error null if passed
+	 */
+	synchronized void putOutcome(final String key, final AssertionError error) {
+		if (isEnabled() == false) {
+			return;
+		}
+		final var outcome = new RuleOutcome(
+				Optional.ofNullable(error).map(e -> e.getClass().getName()).orElse(null),
+				Optional.ofNullable(error).map(AssertionError::getMessage).orElse(""));
+		outcomes.put(key, outcome);
+
+		outcomesFile.getParentFile().mkdirs();
+		try (var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outcomesFile, true)))) {
+			writeString(out, fingerprint);
+			writeString(out, key);
+			writeString(out, Optional.ofNullable(outcome.errorClassName()).orElse(""));
+			writeString(out, outcome.message());
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Can't write cache file " + outcomesFile, e);
+		}
+	}
+
+	static void writeString(final DataOutputStream out, final String value) throws IOException {
+		final var bytes = value.getBytes(UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(final DataInputStream in) throws IOException {
+		final var bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+/**
+ * Replay the CheckPolicy test outcomes from PolicyCache, if the sources are unchanged since the last run, but not
+ * during a Baseline recording or in a GitDiff scope.
+ */
+class PolicyCacheExtension implements InvocationInterceptor {
+
+	@Override
+	public void interceptTestMethod(final Invocation<Void> invocation,
+									final ReflectiveInvocationContext<Method> invocationContext,
+									final ExtensionContext extensionContext) throws Throwable {
+		final var policyCache = Policies.policyCache;
+		if (policyCache == null || policyCache.isEnabled() == false || Baseline.isRecording() || GitDiff.isScoped()) {
+			invocation.proceed();
+			return;
+		}
+
+		final var key = extensionContext.getRequiredTestClass().getName()
+						+ "#" + invocationContext.getExecutable().getName();
+		final var cachedOutcome = policyCache.getOutcome(key);
+		if (cachedOutcome.isPresent()) {
+			invocation.skip();
+			if (cachedOutcome.get().passed()) {
+				return;
+			}
+			throw cachedOutcome.get().toError();
+		}
+
+		try {
+			invocation.proceed();
+		} catch (final AssertionError e) {
+			policyCache.putOutcome(key, e);
+			throw e;
+		}
+		policyCache.putOutcome(key, null);
+	}
+
+}
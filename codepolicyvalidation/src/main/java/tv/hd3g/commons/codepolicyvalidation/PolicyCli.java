@@ -0,0 +1,267 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Standalone entry point, for a pre-commit hook or a CI job:
+ * java -jar codepolicyvalidation.jar [--policy class] [--module name] [--report file] [--cache dir] source...
+ * Print a compact ModuleReport, and exit with EXIT_OK, EXIT_FAILED, EXIT_USAGE or EXIT_ERROR.
+ * With --serve, start a PolicyDaemon instead, and with --watch, a PolicyWatcher.
+ * With --diff, only check the sources changed since a git revision, and only report the violations on changed lines.
+ * With --baseline, ignore the violations of a Baseline file, and with --write-baseline, record all the violations in
+ * a new one.
+ */
+public class PolicyCli {
+
+	public static final int EXIT_OK = 0;
+	public static final int EXIT_FAILED = 1;
+	public static final int EXIT_USAGE = 2;
+	public static final int EXIT_ERROR = 3;
+
+	static final String DEFAULT_POLICY_CLASS = "tv.hd3g.commons.codepolicyvalidation.CheckPolicy";
+	static final String USAGE = """
+			Usage: [--policy class] [--module name] [--report file] [--cache dir] [--diff revision] [--baseline file] source...
+			       [--policy class] [--module name] [--cache dir] --write-baseline file source...
+			       [--policy class] [--module name] [--cache dir] --serve port|socket [--idle s] [--max-heap MB] source...
+			       [--policy class] [--module name] [--cache dir] --watch source...
+			  --policy          the Policies class with the @Test methods to run (default CheckPolicy)
+			  --module          the name to display (default the current directory name)
+			  --report          write the report to this file too
+			  --cache           keep the results in this directory, and only check again the changed sources
+			  --serve           start a daemon on this loopback port, or Unix domain socket path
+			  --idle            stop the daemon after this idle time (default 1800)
+			  --max-heap        stop the daemon if its used heap stay over it after a check (default 1024)
+			  --watch           check again after each change, and display the new and resolved violations
+			  --diff            only check the files changed since this git revision, and the violations on changed lines
+			  --baseline        ignore the accepted violations of this baseline file
+			  --write-baseline  record all the current violations in this baseline file
+			Exit codes: 0 ok, 1 failed tests, 2 bad usage, 3 internal error""";
+
+	private PolicyCli() {
+	}
+
+	public static void main(final String[] args) {
+		System.exit(run(args, System.out));// NOSONAR S106
+	}
+
+	/**
+	 * @return the exit code
+	 */
+	static int run(final String[] args, final PrintStream out) {
+		String policyClassName = DEFAULT_POLICY_CLASS;
+		var module = Path.of("").toAbsolutePath().getFileName().toString();
+		String reportFile = null;
+		String serve = null;
+		String diffBase = null;
+		String writeBaseline = null;
+		var watch = false;
+		var idleTimeout = PolicyDaemon.DEFAULT_IDLE_TIMEOUT;
+		var maxHeapBytes = PolicyDaemon.DEFAULT_MAX_HEAP_BYTES;
+		final var sources = new ArrayList<String>();
+
+		for (var pos = 0; pos < args.length; pos++) {
+			final var arg = args[pos];
+			if (arg.equals("--watch")) {
+				watch = true;
+				continue;
+			}
+			if (arg.startsWith("--") && pos + 1 == args.length) {
+				out.println("Missing value for " + arg);
+				out.println(USAGE);
+				return EXIT_USAGE;
+			}
+			switch (arg) {
+			case "--serve" -> serve = args[++pos];
+			case "--idle" -> idleTimeout = Duration.ofSeconds(parsePositive(args[++pos]));
+			case "--max-heap" -> {
+				maxHeapBytes = megabytesToBytes(parsePositive(args[++pos]));
+				if (maxHeapBytes == 0) {
+					out.println("Invalid value for --max-heap: " + args[pos]);
+					out.println(USAGE);
+					return EXIT_USAGE;
+				}
+			}
+			case "--policy" -> policyClassName = args[++pos];
+			case "--module" -> module = args[++pos];
+			case "--report" -> reportFile = args[++pos];
+			case "--diff" -> diffBase = args[++pos];
+			case "--baseline" -> System.setProperty(Baseline.BASELINE_PROPERTY, args[++pos]);
+			case "--write-baseline" -> writeBaseline = args[++pos];
+			case "--cache" -> {
+				System.setProperty(PolicyCache.CACHE_DIR_PROPERTY, args[++pos]);
+				System.setProperty(PolicyCache.INCREMENTAL_PROPERTY, "true");
+			}
+			default -> {
+				if (arg.startsWith("--") || new File(arg).exists() == false) {
+					out.println("Invalid option or source: " + arg);
+					out.println(USAGE);
+					return EXIT_USAGE;
+				}
+				sources.add(arg);
+			}
+			}
+		}
+		if (sources.isEmpty() || idleTimeout.isZero()) {
+			out.println(USAGE);
+			return EXIT_USAGE;
+		} else if (writeBaseline != null && diffBase != null) {
+			out.println("--write-baseline can't be used with --diff: the baseline would only get the changed lines");
+			out.println(USAGE);
+			return EXIT_USAGE;
+		}
+
+		final PolicyRunner runner;
+		try {
+			runner = PolicyRunner.of(Class.forName(policyClassName).asSubclass(Policies.class));
+		} catch (final ClassNotFoundException | ClassCastException e) {
+			out.println("Invalid policy class: " + policyClassName);
+			return EXIT_USAGE;
+		}
+		if (serve != null) {
+			return serve(runner, module, sources, serve, idleTimeout, maxHeapBytes, out);
+		} else if (watch) {
+			return watch(runner, module, sources, out);
+		}
+
+		if (writeBaseline != null) {
+			return writeBaseline(runner, module, sources, Path.of(writeBaseline), out);
+		}
+
+		final ModuleReport report;
+		try {
+			if (diffBase == null) {
+				report = runner.check(module, List.copyOf(sources));
+			} else {
+				final var diff = GitDiff.read(diffBase);
+				final var changedSources = diff.getChangedFiles(sources);
+				if (changedSources.isEmpty()) {
+					out.println(module + ": no changed sources since " + diffBase);
+					return EXIT_OK;
+				}
+				try (var scope = diff.scope()) {
+					report = runner.check(module, changedSources);
+				}
+			}
+		} catch (final RuntimeException e) {
+			out.println("Can't check " + module + ": " + e);
+			return EXIT_ERROR;
+		}
+		out.print(report.toText());
+		if (reportFile != null) {
+			report.write(Path.of(reportFile));
+		}
+		return report.isSuccess() ? EXIT_OK : EXIT_FAILED;
+	}
+
+	/**
+	 * @return 0 for invalid, or too big
+	 */
+	static long megabytesToBytes(final long megabytes) {
+		try {
+			return Math.multiplyExact(megabytes, 1024L * 1024L);
+		} catch (final ArithmeticException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * @return 0 for invalid
+	 */
+	private static long parsePositive(final String value) {
+		try {
+			return Math.max(0, Long.parseLong(value));
+		} catch (final NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Without --cache, use a temporary cache directory.
+	 */
+	private static void useIncrementalCache() throws IOException {
+		if (System.getProperty(PolicyCache.CACHE_DIR_PROPERTY) == null) {
+			System.setProperty(PolicyCache.CACHE_DIR_PROPERTY,
+					Files.createTempDirectory("codepolicy-cache").toString());
+			System.setProperty(PolicyCache.INCREMENTAL_PROPERTY, "true");
+		}
+	}
+
+	private static int writeBaseline(final PolicyRunner runner,
+									 final String module,
+									 final List<String> sources,
+									 final Path baselineFile,
+									 final PrintStream out) {
+		final ModuleReport report;
+		try (var recorder = Baseline.record(baselineFile)) {
+			report = runner.check(module, sources);
+			out.println(module + ": " + recorder.getCount() + " violations recorded in " + baselineFile);
+		} catch (final IOException | RuntimeException e) {
+			out.println("Can't write baseline for " + module + ": " + e);
+			return EXIT_ERROR;
+		}
+		out.print(report.toText());
+		return report.isSuccess() ? EXIT_OK : EXIT_FAILED;
+	}
+
+	private static int watch(final PolicyRunner runner,
+							 final String module,
+							 final List<String> sources,
+							 final PrintStream out) {
+		try {
+			useIncrementalCache();
+			try (var watcher = new PolicyWatcher(runner, module, sources, PolicyWatcher.DEFAULT_DEBOUNCE,
+					out::println)) {
+				watcher.watch();
+			}
+			return EXIT_OK;
+		} catch (final IOException | RuntimeException e) {
+			out.println("Can't watch " + module + ": " + e);
+			return EXIT_ERROR;
+		}
+	}
+
+	private static int serve(final PolicyRunner runner,
+							 final String module,
+							 final List<String> sources,
+							 final String address,
+							 final Duration idleTimeout,
+							 final long maxHeapBytes,
+							 final PrintStream out) {
+		try {
+			useIncrementalCache();
+			try (var daemon = new PolicyDaemon(runner, module, sources, PolicyDaemon.parseAddress(address),
+					idleTimeout, maxHeapBytes)) {
+				out.println("Listen on " + daemon.getLocalAddress());
+				daemon.serve();
+			}
+			return EXIT_OK;
+		} catch (final IOException | RuntimeException e) {
+			out.println("Can't serve " + module + ": " + e);
+			return EXIT_ERROR;
+		}
+	}
+
+}
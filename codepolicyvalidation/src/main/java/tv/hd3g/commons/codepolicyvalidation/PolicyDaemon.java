@@ -0,0 +1,326 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived PolicyRunner for one module, on a local socket (loopback TCP port, or Unix domain socket path), for
+ * keep the JVM warm, the policy loaded, and the model and its indexes in memory between the checks. The module is
+ * checked one time on serve, and each CHECK patches this model with the changed files only (see PolicyRunner.recheck),
+ * without a new globalInit. With the PolicyCache, all the changed files are found by their hashes; without, only the
+ * files sent with CHECK are parsed again.
+ * One request by connection, one line (sent before REQUEST_TIMEOUT), the response lines ends by END:
+ * CHECK [file...] -&gt; the report header, and the failed tests (only their lines which mention a file, if set)
+ * STATUS -&gt; the uptime, request count and heap usage
+ * STOP -&gt; stop the daemon
+ * It stops itself after an idle timeout, or after a check if the used heap stay over its memory cap.
+ */
+public class PolicyDaemon implements Closeable {
+	private static final Logger log = LoggerFactory.getLogger(PolicyDaemon.class);
+
+	public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+	public static final long DEFAULT_MAX_HEAP_BYTES = 1024L * 1024 * 1024;
+	public static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+	static final String END = "END";
+	private static final int MAX_REQUEST_BYTES = 1024 * 1024;
+
+	private final PolicyRunner runner;
+	private final String module;
+	private final List<String> inputResources;
+	private final Duration idleTimeout;
+	private final long maxHeapBytes;
+	private final Duration requestTimeout;
+	private final ServerSocketChannel server;
+	private final SocketAddress localAddress;
+	private final long startTime;
+	private long requestCount;
+	private boolean running;
+	/**
+	 * True if the Policies state is the model of the last check, for patch it
+	 */
+	private boolean loaded;
+
+	/**
+	 * Bind the socket, but don't accept requests before serve.
+	 * @param address an InetSocketAddress (port 0 for any free port) or an UnixDomainSocketAddress
+	 */
+	public PolicyDaemon(final PolicyRunner runner,
+						final String module,
+						final List<String> inputResources,
+						final SocketAddress address,
+						final Duration idleTimeout,
+						final long maxHeapBytes) throws IOException {
+		this(runner, module, inputResources, address, idleTimeout, maxHeapBytes, REQUEST_TIMEOUT);
+	}
+
+	PolicyDaemon(final PolicyRunner runner,
+				 final String module,
+				 final List<String> inputResources,
+				 final SocketAddress address,
+				 final Duration idleTimeout,
+				 final long maxHeapBytes,
+				 final Duration requestTimeout) throws IOException {
+		this.runner = Objects.requireNonNull(runner, "\"runner\" can't to be null");
+		this.module = Objects.requireNonNull(module, "\"module\" can't to be null");
+		this.inputResources = List.copyOf(inputResources);
+		this.idleTimeout = Objects.requireNonNull(idleTimeout, "\"idleTimeout\" can't to be null");
+		this.maxHeapBytes = maxHeapBytes;
+		this.requestTimeout = Objects.requireNonNull(requestTimeout, "\"requestTimeout\" can't to be null");
+		if (address instanceof UnixDomainSocketAddress) {
+			server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		} else {
+			server = ServerSocketChannel.open();
+		}
+		server.bind(Objects.requireNonNull(address, "\"address\" can't to be null"));
+		localAddress = server.getLocalAddress();
+		startTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * @param value a port number (on the loopback interface), else an Unix domain socket path
+	 */
+	public static SocketAddress parseAddress(final String value) {
+		if (value.matches("\\d{1,5}")) {
+			return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(value));
+		}
+		return UnixDomainSocketAddress.of(value);
+	}
+
+	public SocketAddress getLocalAddress() {
+		return localAddress;
+	}
+
+	/**
+	 * Run on the caller thread, until STOP, idle timeout or memory cap.
+	 */
+	public void serve() throws IOException {
+		running = true;
+		check(List.of());
+		log.info("Policy daemon for {} listen on {}", module, localAddress);
+		try (var selector = Selector.open()) {
+			server.configureBlocking(false);
+			server.register(selector, SelectionKey.OP_ACCEPT);
+			var lastActivity = System.currentTimeMillis();
+			while (running) {
+				final var remaining = lastActivity + idleTimeout.toMillis() - System.currentTimeMillis();
+				if (remaining <= 0) {
+					log.info("Policy daemon for {} stopped after {} idle", module, idleTimeout);
+					break;
+				}
+				if (selector.select(remaining) == 0) {
+					continue;
+				}
+				selector.selectedKeys().clear();
+				try (var client = server.accept()) {
+					if (client != null && handle(client)) {
+						lastActivity = System.currentTimeMillis();
+					}
+				}
+			}
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * @return false if the client has not sent its request before the requestTimeout
+	 */
+	private boolean handle(final SocketChannel client) throws IOException {
+		final var request = readRequest(client, requestTimeout);
+		client.configureBlocking(true);
+		final var out = new PrintWriter(new OutputStreamWriter(Channels.newOutputStream(client), UTF_8));
+		if (request == null) {
+			log.warn("Policy daemon for {}: no request after {}", module, requestTimeout);
+			out.println("ERROR request timeout");
+		} else {
+			requestCount++;
+			respond(request.strip()).forEach(out::println);
+		}
+		out.println(END);
+		out.flush();
+		return request != null;
+	}
+
+	/**
+	 * Read the request line without blocking the daemon more than timeout.
+	 * @return the line (or the data before the end of stream), null if it's not sent before timeout, or too long
+	 */
+	static String readRequest(final SocketChannel client, final Duration timeout) throws IOException {
+		final var deadline = System.currentTimeMillis() + timeout.toMillis();
+		final var line = new ByteArrayOutputStream();
+		final var buffer = ByteBuffer.allocate(8192);
+		client.configureBlocking(false);
+		try (var selector = Selector.open()) {
+			client.register(selector, SelectionKey.OP_READ);
+			while (line.size() < MAX_REQUEST_BYTES) {
+				final var remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return null;
+				}
+				if (selector.select(remaining) == 0) {
+					continue;
+				}
+				selector.selectedKeys().clear();
+				buffer.clear();
+				final var read = client.read(buffer);
+				if (read < 0) {
+					return line.toString(UTF_8);
+				}
+				for (var pos = 0; pos < read; pos++) {
+					final var b = buffer.get(pos);
+					if (b == '\n') {
+						return line.toString(UTF_8);
+					}
+					line.write(b);
+				}
+			}
+			return null;
+		}
+	}
+
+	List<String> respond(final String request) {
+		final var words = request.split("\\s+");
+		return switch (words[0]) {
+		case "CHECK" -> checkUnderMemoryCap(Stream.of(words).skip(1).toList());
+		case "STATUS" -> List.of("module " + module,
+				"uptime " + (System.currentTimeMillis() - startTime) + " ms",
+				"requests " + requestCount,
+				"heap " + getUsedHeap() + "/" + maxHeapBytes + " bytes");
+		case "STOP" -> {
+			running = false;
+			yield List.of("BYE");
+		}
+		default -> List.of("ERROR unknown request: " + request);
+		};
+	}
+
+	private List<String> checkUnderMemoryCap(final List<String> files) {
+		final var lines = check(files);
+		if (getUsedHeap() > maxHeapBytes) {
+			System.gc();// NOSONAR S1215
+			if (getUsedHeap() > maxHeapBytes) {
+				log.warn("Policy daemon for {} stopped: used heap over {} bytes", module, maxHeapBytes);
+				running = false;
+				lines.add("BYE memory cap");
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Patch the model of the last check with the changed files, or build it if the last check has failed.
+	 * @param files empty for all, else only report the failure lines which mention a file name or its class name
+	 */
+	private List<String> check(final List<String> files) {
+		final var lines = new ArrayList<String>();
+		final ModuleReport report;
+		try {
+			if (loaded) {
+				report = runner.recheck(module, files);
+			} else {
+				report = runner.check(module, inputResources);
+				loaded = true;
+			}
+		} catch (final RuntimeException e) {
+			loaded = false;
+			log.error("Can't check {}", module, e);
+			lines.add("ERROR " + e);
+			return lines;
+		}
+		final var names = files.stream()
+				.map(file -> Path.of(file).getFileName().toString())
+				.map(name -> name.endsWith(".java") ? name.substring(0, name.length() - 5) : name)
+				.map(name -> Pattern.compile("(^|[^\\w$])" + Pattern.quote(name) + "([^\\w$]|$)"))
+				.toList();
+		lines.add(report.toText().lines().findFirst().orElse(module));
+		report.failuresByTest().forEach((test, message) -> {
+			final var kept = message.lines()
+					.filter(line -> names.isEmpty() || names.stream().anyMatch(name -> name.matcher(line).find()))
+					.toList();
+			if (kept.isEmpty() == false) {
+				lines.add("FAIL " + test + ": " + String.join(System.lineSeparator(), kept));
+			}
+		});
+		return lines;
+	}
+
+	private static long getUsedHeap() {
+		final var runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	@Override
+	public void close() throws IOException {
+		running = false;
+		server.close();
+		if (localAddress instanceof final UnixDomainSocketAddress unixAddress) {
+			Files.deleteIfExists(unixAddress.getPath());
+		}
+	}
+
+	/**
+	 * Send a request to a daemon.
+	 * @return the response lines, without END
+	 */
+	public static List<String> request(final SocketAddress address, final String request) throws IOException {
+		try (var channel = SocketChannel.open(address)) {
+			final var out = new PrintWriter(new OutputStreamWriter(Channels.newOutputStream(channel), UTF_8));
+			out.println(request);
+			out.flush();
+			final var in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), UTF_8));
+			final var lines = new ArrayList<String>();
+			var line = in.readLine();
+			while (line != null && END.equals(line) == false) {
+				lines.add(line);
+				line = in.readLine();
+			}
+			return lines;
+		}
+	}
+
+}
@@ -0,0 +1,225 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Wall time, CPU time, allocated bytes and node counts of the phases of a policy run (parsing, used types
+ * collection, index builds, rules walk), of each ElementRule and of each CheckPolicy test.
+ * One instance by globalInit. CPU time and allocated bytes are only for the measuring thread, -1 if unknown.
+ */
+public class PolicyMetrics {
+	private static final Logger log = LoggerFactory.getLogger(PolicyMetrics.class);
+
+	/**
+	 * Set to true for log the summary after each CheckPolicy test class, and for time each ElementRule.
+	 */
+	static final String METRICS_PROPERTY = "codepolicy.metrics";
+	/**
+	 * Set a file path for append to it the summary after each CheckPolicy test class, and for time each ElementRule.
+	 */
+	static final String METRICS_FILE_PROPERTY = "codepolicy.metrics.file";
+
+	public enum Kind {
+		PHASE,
+		RULE,
+		TEST;
+	}
+
+	/**
+	 * @param nodes parsed files, types, references, visited or matched elements... depends on kind and name
+	 */
+	public record Measure(Kind kind, String name, long wallNanos, long cpuNanos, long allocatedBytes, long nodes) {
+	}
+
+	/**
+	 * Started on, and stopped by, the same thread.
+	 */
+	final class Stopwatch {
+		private final long wallStart;
+		private final long cpuStart;
+		private final long allocatedStart;
+
+		private Stopwatch() {
+			wallStart = System.nanoTime();
+			cpuStart = getCurrentThreadCpuTime();
+			allocatedStart = getCurrentThreadAllocatedBytes();
+		}
+
+		Measure stop(final Kind kind, final String name, final long nodes) {
+			final var cpuEnd = getCurrentThreadCpuTime();
+			final var allocatedEnd = getCurrentThreadAllocatedBytes();
+			final var measure = new Measure(kind, name,
+					System.nanoTime() - wallStart,
+					cpuStart < 0 || cpuEnd < 0 ? -1 : cpuEnd - cpuStart,
+					allocatedStart < 0 || allocatedEnd < 0 ? -1 : allocatedEnd - allocatedStart,
+					nodes);
+			add(measure);
+			return measure;
+		}
+	}
+
+	private final List<Measure> measures;
+	private final boolean enabled;
+	private final String metricsFile;
+
+	PolicyMetrics() {
+		measures = new ArrayList<>();
+		metricsFile = System.getProperty(METRICS_FILE_PROPERTY);
+		enabled = Boolean.getBoolean(METRICS_PROPERTY) || metricsFile != null && metricsFile.isBlank() == false;
+	}
+
+	/**
+	 * @return true if a summary is asked, and so if each ElementRule is timed during the walks
+	 */
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	Stopwatch start() {
+		return new Stopwatch();
+	}
+
+	<T> T measure(final Kind kind, final String name, final Supplier<T> action, final ToLongFunction<T> nodes) {
+		final var stopwatch = start();
+		final var result = action.get();
+		stopwatch.stop(kind, name, nodes.applyAsLong(result));
+		return result;
+	}
+
+	synchronized void add(final Measure measure) {
+		measures.add(measure);
+	}
+
+	/**
+	 * @return all measures, in adding order
+	 */
+	public synchronized List<Measure> getMeasures() {
+		return List.copyOf(measures);
+	}
+
+	/**
+	 * @return the measures with the same kind and name summed, by kind and adding order
+	 */
+	public List<Measure> getTotals() {
+		final var totals = new LinkedHashMap<String, Measure>();
+		getMeasures().stream()
+				.sorted(Comparator.comparing(Measure::kind))
+				.forEach(measure -> totals.merge(measure.kind() + ":" + measure.name(), measure,
+						(l, r) -> new Measure(l.kind(), l.name(),
+								l.wallNanos() + r.wallNanos(),
+								sumKnown(l.cpuNanos(), r.cpuNanos()),
+								sumKnown(l.allocatedBytes(), r.allocatedBytes()),
+								sumKnown(l.nodes(), r.nodes()))));
+		return List.copyOf(totals.values());
+	}
+
+	private static long sumKnown(final long l, final long r) {
+		if (l < 0 || r < 0) {
+			return -1;
+		}
+		return l + r;
+	}
+
+	/**
+	 * @return a text table of getTotals
+	 */
+	public String getSummary() {
+		final var lines = new ArrayList<String>();
+		lines.add(String.format(Locale.ENGLISH, "%-6s %-60s %10s %10s %12s %10s",
+				"kind", "name", "wall ms", "cpu ms", "alloc KB", "nodes"));
+		getTotals().forEach(measure -> lines.add(String.format(Locale.ENGLISH, "%-6s %-60s %10s %10s %12s %10s",
+				measure.kind(),
+				measure.name(),
+				toMillis(measure.wallNanos()),
+				toMillis(measure.cpuNanos()),
+				measure.allocatedBytes() < 0 ? "-" : String.valueOf(measure.allocatedBytes() / 1024),
+				measure.nodes() < 0 ? "-" : String.valueOf(measure.nodes()))));
+		return String.join(System.lineSeparator(), lines);
+	}
+
+	private static String toMillis(final long nanos) {
+		if (nanos < 0) {
+			return "-";
+		}
+		return String.format(Locale.ENGLISH, "%.1f", nanos / 1_000_000d);
+	}
+
+	/**
+	 * Log the summary and/or append it to METRICS_FILE_PROPERTY, if asked.
+	 */
+	void report(final String title) {
+		if (enabled == false) {
+			return;
+		}
+		final var summary = getSummary();
+		if (Boolean.getBoolean(METRICS_PROPERTY)) {
+			log.info("Policy metrics for {}:{}{}", title, System.lineSeparator(), summary);
+		}
+		if (metricsFile != null && metricsFile.isBlank() == false) {
+			final var text = "# " + title + System.lineSeparator() + summary + System.lineSeparator()
+							 + System.lineSeparator();
+			try {
+				Files.writeString(Path.of(metricsFile), text, UTF_8, CREATE, APPEND);
+			} catch (final IOException e) {
+				throw new UncheckedIOException("Can't write metrics to " + metricsFile, e);
+			}
+		}
+	}
+
+	/**
+	 * @return -1 if not available on this JVM
+	 */
+	static long getCurrentThreadCpuTime() {
+		final var threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled()) {
+			return threadMXBean.getCurrentThreadCpuTime();
+		}
+		return -1;
+	}
+
+	/**
+	 * @return -1 if not available on this JVM
+	 */
+	static long getCurrentThreadAllocatedBytes() {
+		if (ManagementFactory.getThreadMXBean() instanceof final com.sun.management.ThreadMXBean threadMXBean
+			&& threadMXBean.isThreadAllocatedMemoryEnabled()) {
+			return threadMXBean.getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	}
+
+}
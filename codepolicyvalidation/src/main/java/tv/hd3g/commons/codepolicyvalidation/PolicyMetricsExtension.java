@@ -0,0 +1,51 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+import tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.Kind;
+
+/**
+ * Measure each CheckPolicy test, and report the PolicyMetrics after the test class.
+ */
+class PolicyMetricsExtension implements InvocationInterceptor, AfterAllCallback {
+
+	@Override
+	public void interceptTestMethod(final Invocation<Void> invocation,
+									final ReflectiveInvocationContext<Method> invocationContext,
+									final ExtensionContext extensionContext) throws Throwable {
+		final var metrics = Policies.metrics;
+		final var stopwatch = metrics.start();
+		try {
+			invocation.proceed();
+		} finally {
+			stopwatch.stop(Kind.TEST, invocationContext.getExecutable().getName(), -1);
+		}
+	}
+
+	@Override
+	public void afterAll(final ExtensionContext context) throws Exception {
+		Policies.metrics.report(context.getRequiredTestClass().getName());
+	}
+
+}
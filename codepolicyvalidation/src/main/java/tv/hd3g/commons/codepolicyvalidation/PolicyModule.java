@@ -0,0 +1,36 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A module for an aggregate analysis (see PolicyRunner.checkAll).
+ * @param name the module name, like a Maven artifactId
+ * @param inputResources the module source directories or files
+ * @param dependencies the names of the modules used by this one, checked before it
+ */
+public record PolicyModule(String name, List<String> inputResources, List<String> dependencies) {
+
+	public PolicyModule {
+		Objects.requireNonNull(name, "\"name\" can't to be null");
+		inputResources = List.copyOf(inputResources);
+		dependencies = List.copyOf(dependencies);
+	}
+
+}
@@ -0,0 +1,318 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tv.hd3g.commons.codepolicyvalidation.PolicyCache.RuleOutcome;
+import tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.Kind;
+
+/**
+ * Run the policy tests in the current JVM, without JUnit, module by module: for a build tool plugin, a CLI...
+ * With the PolicyCache, the test outcomes are replayed if the module sources are unchanged.
+ * The policy class, its test list, its rules and the shared typeFactory are loaded one time for all modules.
+ * The Policies state is global to the JVM: the modules are checked one after the other, even if check is called by
+ * many threads (like a parallel Maven build).
+ */
+public class PolicyRunner {
+	private static final Logger log = LoggerFactory.getLogger(PolicyRunner.class);
+	private static final ReentrantLock lock = new ReentrantLock();
+
+	private final Supplier<? extends Policies> policyFactory;
+	private final String policyClassName;
+	private final List<Method> tests;
+
+	/**
+	 * @param policyFactory like CheckPolicy::new, or the constructor of a CheckPolicy subclass with more tests
+	 * @param policyClass the policyFactory class, for found its public &#64;Test methods
+	 */
+	public <T extends Policies> PolicyRunner(final Supplier<T> policyFactory, final Class<T> policyClass) {
+		this.policyFactory = Objects.requireNonNull(policyFactory, "\"policyFactory\" can't to be null");
+		Objects.requireNonNull(policyClass, "\"policyClass\" can't to be null");
+		policyClassName = policyClass.getName();
+		tests = Stream.of(policyClass.getMethods())
+				.filter(method -> method.isAnnotationPresent(Test.class))
+				.filter(method -> method.getParameterCount() == 0)
+				.sorted(Comparator.comparing(Method::getName))
+				.toList();
+	}
+
+	/**
+	 * @param policyClass CheckPolicy or a subclass, with a public no-args constructor
+	 * @return a runner which instantiate policyClass by reflection, like for a policy class name given by a CLI or a
+	 *         build tool plugin configuration
+	 */
+	public static <T extends Policies> PolicyRunner of(final Class<T> policyClass) {
+		Objects.requireNonNull(policyClass, "\"policyClass\" can't to be null");
+		return new PolicyRunner(() -> {
+			try {
+				return policyClass.getDeclaredConstructor().newInstance();
+			} catch (final InstantiationException
+						   | IllegalAccessException
+						   | InvocationTargetException
+						   | NoSuchMethodException e) {
+				throw new IllegalStateException("Can't instantiate " + policyClass.getName(), e);
+			}
+		}, policyClass);
+	}
+
+	/**
+	 * @return the test method names, in run order
+	 */
+	public List<String> getTestNames() {
+		return tests.stream().map(Method::getName).toList();
+	}
+
+	/**
+	 * Build the model of inputResources, and run all tests on it. Each test is measured in the PolicyMetrics.
+	 * @param inputResources the module source directories or files
+	 */
+	public ModuleReport check(final String module, final Collection<String> inputResources) {
+		return lockAndCheck(module, inputResources, null);
+	}
+
+	/**
+	 * Like check, but with the classpath of the module, instead of the test classpath of the current JVM. It's used for
+	 * resolve the types declared in the non-parsed files (model shards, incremental model), and it's a part of the
+	 * PolicyCache key. The next rechecks keep this classpath.
+	 * @param classpath the module dependencies and compiled classes, jar files or directories
+	 */
+	public ModuleReport check(final String module,
+							  final Collection<String> inputResources,
+							  final Collection<String> classpath) {
+		return lockAndCheck(module, inputResources,
+				Objects.requireNonNull(classpath, "\"classpath\" can't to be null"));
+	}
+
+	private ModuleReport lockAndCheck(final String module,
+									  final Collection<String> inputResources,
+									  final Collection<String> classpath) {
+		Objects.requireNonNull(module, "\"module\" can't to be null");
+		lock.lock();
+		try {
+			Policies.typeUniverse = new TypeUniverse();
+			return checkModule(module, inputResources, classpath);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Patch the model of the last check with the changed source files, without globalInit (see Policies.update), and
+	 * run all tests again on it: the ElementRules only walk the parsed files, and the other indexes are builded again
+	 * from the patched model, without parse it again.
+	 * @param module the module of the last check
+	 * @param changedFiles the added, modified or removed source files
+	 */
+	public ModuleReport recheck(final String module, final Collection<String> changedFiles) {
+		Objects.requireNonNull(module, "\"module\" can't to be null");
+		lock.lock();
+		try {
+			final var startTime = System.currentTimeMillis();
+			final var policy = policyFactory.get();
+			Policies.update(changedFiles);
+			return runTests(module, policy, startTime);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Check many modules, each parsed only one time, after the modules it depends on. The declared types of the checked
+	 * modules are kept by name in a TypeUniverse, for resolve the super types across the modules, until all the modules
+	 * which depend on them (directly or not) are checked. Only one module model is loaded at a time.
+	 * @return the reports, in check order
+	 */
+	public List<ModuleReport> checkAll(final Collection<PolicyModule> modules) {
+		final var ordered = sortByDependencies(modules);
+		final var pendingDependents = new HashMap<String, Set<String>>();
+		ordered.forEach(module -> getAllDependencies(module.name(), ordered).forEach(
+				dependency -> pendingDependents.computeIfAbsent(dependency, d -> new HashSet<>()).add(module.name())));
+
+		lock.lock();
+		try {
+			final var universe = new TypeUniverse();
+			Policies.typeUniverse = universe;
+			final var reports = new ArrayList<ModuleReport>(ordered.size());
+			for (final PolicyModule module : ordered) {
+				reports.add(checkModule(module.name(), module.inputResources(), universe));
+				pendingDependents.values().forEach(dependents -> dependents.remove(module.name()));
+				universe.getModules().stream()
+						.filter(name -> pendingDependents.getOrDefault(name, Set.of()).isEmpty())
+						.forEach(universe::unload);
+				log.debug("Type universe: {} types from {}", universe.size(), universe.getModules());
+			}
+			return reports;
+		} finally {
+			Policies.typeUniverse = new TypeUniverse();
+			lock.unlock();
+		}
+	}
+
+	private ModuleReport checkModule(final String module,
+									 final Collection<String> inputResources,
+									 final TypeUniverse universe) {
+		final var startTime = System.currentTimeMillis();
+		final var policy = policyFactory.get();
+		Policies.globalInit(policy.getBodyTokens(), inputResources.toArray(String[]::new));
+		universe.add(module, Policies.getSuperTypesByType());
+		return runTests(module, policy, startTime);
+	}
+
+	private ModuleReport checkModule(final String module,
+									 final Collection<String> inputResources,
+									 final Collection<String> classpath) {
+		final var startTime = System.currentTimeMillis();
+		final var policy = policyFactory.get();
+		Policies.globalInitModule(classpath, policy.getBodyTokens(), inputResources.toArray(String[]::new));
+		return runTests(module, policy, startTime);
+	}
+
+	private ModuleReport runTests(final String module, final Policies policy, final long startTime) {
+		final var passed = new ArrayList<String>();
+		final var failures = new LinkedHashMap<String, String>();
+		for (final Method test : tests) {
+			final var failure = run(policy, test);
+			if (failure == null) {
+				passed.add(test.getName());
+			} else {
+				failures.put(test.getName(), failure);
+			}
+		}
+		Policies.metrics.report(module);
+		final var report = new ModuleReport(module, passed, failures, System.currentTimeMillis() - startTime);
+		log.info("Policy check for {}: {} tests, {} failed, in {} ms",
+				module, tests.size(), failures.size(), report.durationMillis());
+		return report;
+	}
+
+	/**
+	 * @return modules, with each module after its dependencies, else in the same order.
+	 * @throws IllegalArgumentException on an unknown dependency, or a dependency cycle
+	 */
+	static List<PolicyModule> sortByDependencies(final Collection<PolicyModule> modules) {
+		final var moduleByName = new LinkedHashMap<String, PolicyModule>();
+		modules.forEach(module -> {
+			if (moduleByName.put(module.name(), module) != null) {
+				throw new IllegalArgumentException("Duplicate module " + module.name());
+			}
+		});
+		final var sorted = new LinkedHashMap<String, PolicyModule>();
+		final var pending = new HashSet<String>();
+		moduleByName.values().forEach(module -> addSorted(module, moduleByName, sorted, pending));
+		return List.copyOf(sorted.values());
+	}
+
+	private static void addSorted(final PolicyModule module,
+								  final Map<String, PolicyModule> moduleByName,
+								  final Map<String, PolicyModule> sorted,
+								  final Set<String> pending) {
+		if (sorted.containsKey(module.name())) {
+			return;
+		}
+		if (pending.add(module.name()) == false) {
+			throw new IllegalArgumentException("Dependency cycle on module " + module.name());
+		}
+		module.dependencies().forEach(dependency -> {
+			final var dependencyModule = moduleByName.get(dependency);
+			if (dependencyModule == null) {
+				throw new IllegalArgumentException("Unknown module " + dependency + ", needed by " + module.name());
+			}
+			addSorted(dependencyModule, moduleByName, sorted, pending);
+		});
+		pending.remove(module.name());
+		sorted.put(module.name(), module);
+	}
+
+	/**
+	 * @return the direct and indirect dependencies of a module
+	 */
+	private static Set<String> getAllDependencies(final String module, final List<PolicyModule> modules) {
+		final var moduleByName = modules.stream()
+				.collect(Collectors.toUnmodifiableMap(PolicyModule::name, m -> m));
+		final var dependencies = new HashSet<String>();
+		final var pending = new ArrayDeque<>(moduleByName.get(module).dependencies());
+		while (pending.isEmpty() == false) {
+			final var dependency = pending.poll();
+			if (dependencies.add(dependency)) {
+				pending.addAll(moduleByName.get(dependency).dependencies());
+			}
+		}
+		return dependencies;
+	}
+
+	/**
+	 * Replay the outcome from the PolicyCache if the sources are unchanged since the last run, like
+	 * PolicyCacheExtension, but not during a Baseline recording or in a GitDiff scope.
+	 * @return null if passed, else the failure message
+	 */
+	private String run(final Policies policy, final Method test) {
+		final var recording = Baseline.isRecording() || GitDiff.isScoped();
+		final var policyCache = Policies.policyCache;
+		final var key = policyClassName + "#" + test.getName();
+		final var cachedOutcome = recording ? Optional.<RuleOutcome> empty() : policyCache.getOutcome(key);
+		if (cachedOutcome.isPresent()) {
+			return cachedOutcome.get().passed() ? null : cachedOutcome.get().toError().getMessage();
+		}
+
+		final var stopwatch = Policies.metrics.start();
+		try {
+			test.invoke(policy);
+			if (recording == false) {
+				policyCache.putOutcome(key, null);
+			}
+			return null;
+		} catch (final InvocationTargetException e) {
+			final var cause = e.getCause();
+			if (cause instanceof final AssertionError failure) {
+				if (recording == false) {
+					policyCache.putOutcome(key, failure);
+				}
+				return String.valueOf(failure.getMessage());
+			} else if (cause instanceof RuntimeException) {
+				return cause.toString();
+			}
+			throw new IllegalStateException("Can't run " + test.getName(), cause);
+		} catch (final IllegalAccessException e) {
+			throw new IllegalStateException("Can't run " + test.getName(), e);
+		} finally {
+			stopwatch.stop(Kind.TEST, test.getName(), -1);
+		}
+	}
+
+}
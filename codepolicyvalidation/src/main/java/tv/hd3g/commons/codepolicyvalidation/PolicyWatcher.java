@@ -0,0 +1,201 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watch the source directories of a module, and check it again after each burst of changes on .java files, with a
+ * PolicyRunner. Only the differences with the previous check are sent: "+ test: violation" for the new ones,
+ * "- test: violation" for the resolved ones, and a summary line.
+ * After the first check, the model is not builded again: only the changed files and their dependents are parsed
+ * again in it (see PolicyRunner.recheck). The changes lost by the WatchService (overflow), and the added or removed
+ * directories, need a full check.
+ */
+public class PolicyWatcher implements Closeable {
+	private static final Logger log = LoggerFactory.getLogger(PolicyWatcher.class);
+	private static final Pattern CACHED_RESULT = Pattern.compile("^\\(cached result, [^)]*\\) ");
+
+	public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(300);
+
+	private final PolicyRunner runner;
+	private final String module;
+	private final List<String> inputResources;
+	private final Duration debounce;
+	private final Consumer<String> output;
+	private final WatchService watchService;
+	private final Map<WatchKey, Path> dirByKey;
+	private Set<String> violations;
+
+	/**
+	 * @param output the check results, line by line
+	 */
+	public PolicyWatcher(final PolicyRunner runner,
+						 final String module,
+						 final List<String> inputResources,
+						 final Duration debounce,
+						 final Consumer<String> output) throws IOException {
+		this.runner = Objects.requireNonNull(runner, "\"runner\" can't to be null");
+		this.module = Objects.requireNonNull(module, "\"module\" can't to be null");
+		this.inputResources = List.copyOf(inputResources);
+		this.debounce = Objects.requireNonNull(debounce, "\"debounce\" can't to be null");
+		this.output = Objects.requireNonNull(output, "\"output\" can't to be null");
+		violations = Set.of();
+		dirByKey = new HashMap<>();
+		watchService = Path.of("").getFileSystem().newWatchService();
+		for (final String inputResource : this.inputResources) {
+			final var path = Path.of(inputResource).toAbsolutePath();
+			registerAll(Files.isDirectory(path) ? path : path.getParent());
+		}
+	}
+
+	private void registerAll(final Path dir) throws IOException {
+		try (var dirs = Files.walk(dir)) {
+			for (final Path subDir : dirs.filter(Files::isDirectory).toList()) {
+				dirByKey.put(subDir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), subDir);
+			}
+		}
+	}
+
+	/**
+	 * @return "test: violation" for each line of each failed test message
+	 */
+	static Set<String> toViolations(final ModuleReport report) {
+		final var result = new LinkedHashSet<String>();
+		report.failuresByTest().forEach((test, message) -> CACHED_RESULT.matcher(message).replaceFirst("")
+				.lines()
+				.filter(line -> line.isBlank() == false)
+				.forEach(line -> result.add(test + ": " + line.strip())));
+		return result;
+	}
+
+	/**
+	 * Check now, and send the differences with the previous check.
+	 */
+	public ModuleReport check() {
+		return send(runner.check(module, inputResources));
+	}
+
+	/**
+	 * Check again only the changed files, and send the differences with the previous check.
+	 * @param changedFiles the added, modified or removed source files since the previous check
+	 */
+	public ModuleReport recheck(final Set<Path> changedFiles) {
+		return send(runner.recheck(module, changedFiles.stream().map(Path::toString).toList()));
+	}
+
+	private ModuleReport send(final ModuleReport report) {
+		final var newViolations = toViolations(report);
+		final var added = newViolations.stream()
+				.filter(v -> violations.contains(v) == false)
+				.toList();
+		final var resolved = violations.stream()
+				.filter(v -> newViolations.contains(v) == false)
+				.toList();
+		resolved.forEach(v -> output.accept("- " + v));
+		added.forEach(v -> output.accept("+ " + v));
+		output.accept(module + ": " + newViolations.size() + " violations (+" + added.size() + " -"
+					  + resolved.size() + ") in " + report.durationMillis() + " ms");
+		violations = newViolations;
+		return report;
+	}
+
+	/**
+	 * Check, and check again after each change, on the caller thread, until close or interruption.
+	 */
+	public void watch() throws IOException {
+		check();
+		try {
+			while (true) {
+				final var changedFiles = new LinkedHashSet<Path>();
+				var needFullCheck = handle(watchService.take(), changedFiles);
+				var next = watchService.poll(debounce.toMillis(), MILLISECONDS);
+				while (next != null) {
+					needFullCheck |= handle(next, changedFiles);
+					next = watchService.poll(debounce.toMillis(), MILLISECONDS);
+				}
+				if (needFullCheck) {
+					check();
+				} else if (changedFiles.isEmpty() == false) {
+					recheck(changedFiles);
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final ClosedWatchServiceException e) {
+			log.debug("Stop watch {}", module);
+		}
+	}
+
+	/**
+	 * @param changedFiles the changed java sources will be added here
+	 * @return true if a directory has changed, or if some events are lost: a full check is needed
+	 */
+	private boolean handle(final WatchKey key, final Set<Path> changedFiles) throws IOException {
+		final var dir = dirByKey.get(key);
+		var needFullCheck = false;
+		for (final var event : key.pollEvents()) {
+			if (event.kind() == OVERFLOW || dir == null) {
+				needFullCheck = true;
+				continue;
+			}
+			final var path = dir.resolve((Path) event.context());
+			if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+				registerAll(path);
+				needFullCheck = true;
+			} else if (event.kind() == ENTRY_DELETE && dirByKey.containsValue(path)) {
+				needFullCheck = true;
+			} else if (path.toString().endsWith(".java")) {
+				changedFiles.add(path);
+			}
+		}
+		if (key.reset() == false) {
+			dirByKey.remove(key);
+		}
+		return needFullCheck;
+	}
+
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+	}
+
+}
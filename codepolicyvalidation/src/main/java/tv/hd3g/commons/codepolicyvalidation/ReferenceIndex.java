@@ -0,0 +1,99 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * "Who references X" queries: referenced type qualified name -> the project types that use it.
+ */
+public class ReferenceIndex {
+
+	/**
+	 * @param sourceFile can be null if the type is not from a source file
+	 */
+	public record Referrer(String qualifiedName, File sourceFile) {
+	}
+
+	private final SortedMap<String, Set<Referrer>> referrersByReferencedName;
+	private final int referenceCount;
+
+	ReferenceIndex(final Map<String, Set<Referrer>> referrersByReferencedName) {
+		final var sorted = new TreeMap<String, Set<Referrer>>();
+		var count = 0;
+		for (final var entry : referrersByReferencedName.entrySet()) {
+			sorted.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+			count += entry.getValue().size();
+		}
+		this.referrersByReferencedName = Collections.unmodifiableSortedMap(sorted);
+		referenceCount = count;
+	}
+
+	/**
+	 * Build the reverse index in one pass over the used types of each project type.
+	 * @param sourceStates source file path (empty if unknown) -&gt; its state
+	 */
+	static ReferenceIndex build(final Map<String, SourceFileState> sourceStates) {
+		final var referrersByReferencedName = new HashMap<String, Set<Referrer>>();
+		sourceStates.forEach((path, state) -> {
+			final var sourceFile = path.isEmpty() ? null : new File(path);
+			state.referencedNamesByType().forEach((type, referencedNames) -> {
+				final var referrer = new Referrer(type, sourceFile);
+				referencedNames.forEach(referencedName -> referrersByReferencedName
+						.computeIfAbsent(referencedName, k -> new HashSet<>())
+						.add(referrer));
+			});
+		});
+		return new ReferenceIndex(referrersByReferencedName);
+	}
+
+	/**
+	 * @return empty if nothing references it
+	 */
+	public Set<Referrer> getReferrers(final String referencedQualifiedName) {
+		return referrersByReferencedName.getOrDefault(referencedQualifiedName, Set.of());
+	}
+
+	/**
+	 * @return referenced type qualified name starting by prefix -> its referrers
+	 */
+	public SortedMap<String, Set<Referrer>> getReferrersByPrefix(final String prefix) {
+		if (prefix.isEmpty()) {
+			return referrersByReferencedName;
+		}
+		return referrersByReferencedName.subMap(prefix, prefix + Character.MAX_VALUE);
+	}
+
+	public Set<String> getReferencedNames() {
+		return referrersByReferencedName.keySet();
+	}
+
+	/**
+	 * @return the referencing relations count, as "referrer uses referenced"
+	 */
+	public int getReferenceCount() {
+		return referenceCount;
+	}
+
+}
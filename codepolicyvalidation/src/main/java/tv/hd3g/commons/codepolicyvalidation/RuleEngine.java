@@ -0,0 +1,218 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.visitor.CtScanner;
+import tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.Kind;
+import tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.Measure;
+
+/**
+ * Walk the model once for all pending ElementRules, and keep each rule matches.
+ * Each visited node is only sent to the rules registered for its Spoon type.
+ * With a sharded model, the shards are walked one after the other, and the matches are concatenated in shard order.
+ * With a parallelism greater than 1, the top level types are walked concurrently on a ForkJoinPool, and their matches
+ * are put back in the model order: the results are the same as a single thread walk.
+ * Each walk is measured as a "ruleWalk" phase, and each rule too if the PolicyMetrics are enabled.
+ */
+class RuleEngine {
+
+	static final String PARALLELISM_PROPERTY = "codepolicy.parallelism";
+
+	private final ModelSnapshot snapshot;
+	private final int parallelism;
+	private final PolicyMetrics metrics;
+	private final Map<ElementRule<?>, List<CtElement>> matchesByRule;
+	private final Map<ElementRule<?>, RuntimeException> failuresByRule;
+
+	RuleEngine(final CtPackage rootPackage) {
+		this(new ModelSnapshot(List.of(rootPackage)), 1, new PolicyMetrics());
+	}
+
+	/**
+	 * @param parallelism 1 for walk only on the caller thread
+	 */
+	RuleEngine(final ModelSnapshot snapshot, final int parallelism, final PolicyMetrics metrics) {
+		this.snapshot = snapshot;
+		this.parallelism = parallelism;
+		this.metrics = metrics;
+		matchesByRule = new HashMap<>();
+		failuresByRule = new HashMap<>();
+	}
+
+	/**
+	 * @return the PARALLELISM_PROPERTY value, 1 (no parallelism) if not set or invalid
+	 */
+	static int getParallelism() {
+		return Math.max(1, Integer.getInteger(PARALLELISM_PROPERTY, 1));
+	}
+
+	/**
+	 * @param knownRules will be evaluated in the same model walk as rule, if not already done.
+	 */
+	synchronized <T extends CtElement> List<T> getMatches(final ElementRule<T> rule,
+														  final Collection<ElementRule<?>> knownRules) {
+		if (matchesByRule.containsKey(rule) == false) {
+			final var pending = new LinkedHashSet<ElementRule<?>>(knownRules);
+			pending.add(rule);
+			pending.removeIf(matchesByRule::containsKey);
+			scan(List.copyOf(pending));
+		}
+		if (failuresByRule.containsKey(rule)) {
+			throw failuresByRule.get(rule);
+		}
+		return matchesByRule.get(rule).stream().map(rule::cast).toList();
+	}
+
+	private void scan(final List<ElementRule<?>> rules) {
+		final var stopwatch = metrics.start();
+		final var rulesByElementClass = new ConcurrentHashMap<Class<?>, List<ElementRule<?>>>();
+		final var walk = new Walk(rules, rulesByElementClass, walkTopLevelTypes(rules, rulesByElementClass),
+				metrics.isEnabled());
+		snapshot.getRoots().forEach(walk::scan);
+
+		walk.failures.forEach(failuresByRule::putIfAbsent);
+		walk.matches.forEach((rule, list) -> matchesByRule.put(rule, List.copyOf(list)));
+		stopwatch.stop(Kind.PHASE, "ruleWalk", walk.visited);
+		rules.forEach(rule -> metrics.add(new Measure(Kind.RULE, rule.getName(),
+				walk.testNanos.getOrDefault(rule, -1L), -1, -1, walk.matches.get(rule).size())));
+	}
+
+	/**
+	 * @return top level type -&gt; its walk, by instance. Empty without parallelism.
+	 */
+	private Map<CtElement, Walk> walkTopLevelTypes(final List<ElementRule<?>> rules,
+												   final Map<Class<?>, List<ElementRule<?>>> rulesByElementClass) {
+		final var types = snapshot.getTopLevelTypes();
+		if (parallelism < 2 || types.size() < 2) {
+			return Map.of();
+		}
+		final var tasks = types.stream()
+				.<Callable<Walk>> map(type -> () -> {
+					final var walk = new Walk(rules, rulesByElementClass, Map.of(), metrics.isEnabled());
+					walk.scan(type);
+					return walk;
+				})
+				.toList();
+
+		final var pool = new ForkJoinPool(parallelism);
+		try {
+			final var futures = pool.invokeAll(tasks);
+			final var walksByType = new IdentityHashMap<CtElement, Walk>(types.size());
+			for (var pos = 0; pos < types.size(); pos++) {
+				walksByType.put(types.get(pos), getWalk(futures.get(pos)));
+			}
+			return walksByType;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static Walk getWalk(final Future<Walk> future) {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted during model walk", e);
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException("Can't walk model", e.getCause());
+		}
+	}
+
+	/**
+	 * A model walk on one thread, with its own results.
+	 * The already walked elements (walksByElement) are not walked again: their results are added in place.
+	 * With timeRules, the time passed in each rule test is summed, only the wall time: the thread CPU time is too
+	 * slow to get for each test.
+	 */
+	private static class Walk extends CtScanner {
+		private final List<ElementRule<?>> rules;
+		private final Map<Class<?>, List<ElementRule<?>>> rulesByElementClass;
+		private final Map<CtElement, Walk> walksByElement;
+		private final Map<ElementRule<?>, List<CtElement>> matches;
+		private final Map<ElementRule<?>, RuntimeException> failures;
+		private final boolean timeRules;
+		private final Map<ElementRule<?>, Long> testNanos;
+		private long visited;
+
+		Walk(final List<ElementRule<?>> rules,
+			 final Map<Class<?>, List<ElementRule<?>>> rulesByElementClass,
+			 final Map<CtElement, Walk> walksByElement,
+			 final boolean timeRules) {
+			this.rules = rules;
+			this.rulesByElementClass = rulesByElementClass;
+			this.walksByElement = walksByElement;
+			matches = new HashMap<>();
+			rules.forEach(r -> matches.put(r, new ArrayList<>()));
+			failures = new HashMap<>();
+			this.timeRules = timeRules;
+			testNanos = new HashMap<>();
+		}
+
+		@Override
+		public void scan(final CtElement element) {
+			final var walk = element == null ? null : walksByElement.get(element);
+			if (walk == null) {
+				super.scan(element);
+				return;
+			}
+			walk.failures.forEach(failures::putIfAbsent);
+			walk.matches.forEach((rule, list) -> matches.get(rule).addAll(list));
+			walk.testNanos.forEach((rule, nanos) -> testNanos.merge(rule, nanos, Long::sum));
+			visited += walk.visited;
+		}
+
+		@Override
+		protected void enter(final CtElement element) {
+			visited++;
+			final var elementRules = rulesByElementClass.computeIfAbsent(element.getClass(),
+					c -> rules.stream().filter(r -> r.accept(c)).toList());
+			for (var pos = 0; pos < elementRules.size(); pos++) {
+				final var rule = elementRules.get(pos);
+				if (failures.containsKey(rule)) {
+					continue;
+				}
+				final var startTime = timeRules ? System.nanoTime() : 0L;
+				try {
+					if (rule.test(element)) {
+						matches.get(rule).add(element);
+					}
+				} catch (final RuntimeException e) {
+					failures.put(rule, e);
+				}
+				if (timeRules) {
+					testNanos.merge(rule, System.nanoTime() - startTime, Long::sum);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What is known about a source file, without its Spoon model.
+ * @param hash the file content hash, empty if unknown (without PolicyCache)
+ * @param referencedNamesByType the top level types declared in this file -&gt; the qualified names of the types they use
+ * @param messagesByRule the ElementRule name -&gt; the rendered matches in this file
+ * @param superTypesByType the types declared in this file, with the nested ones -&gt; their super types names (see
+ *        TypeUniverse.getSuperTypesByType)
+ */
+record SourceFileState(String hash,
+					   Map<String, Set<String>> referencedNamesByType,
+					   Map<String, List<String>> messagesByRule,
+					   Map<String, List<String>> superTypesByType) {
+
+	SourceFileState(final String hash, final Map<String, Set<String>> referencedNamesByType) {
+		this(hash, referencedNamesByType, Map.of());
+	}
+
+	SourceFileState(final String hash,
+					final Map<String, Set<String>> referencedNamesByType,
+					final Map<String, List<String>> messagesByRule) {
+		this(hash, referencedNamesByType, messagesByRule, Map.of());
+	}
+
+	SourceFileState withMessages(final String ruleName, final List<String> messages) {
+		final var newMessagesByRule = new HashMap<>(messagesByRule);
+		newMessagesByRule.put(ruleName, List.copyOf(messages));
+		return new SourceFileState(hash, referencedNamesByType, Map.copyOf(newMessagesByRule), superTypesByType);
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtConstructor;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.CtTypeMember;
+
+/**
+ * Where is a model element: its source file name, line and column, and its enclosing declaration (method,
+ * constructor or field, else type) out of the anonymous and local classes, and out of the implicit constructors.
+ * It's cheap to get: no CtPath is computed, and the text is only rendered by toString, like
+ * "tv.hd3g.Foo.bar(int) Foo.java:12", "tv.hd3g.Foo.field (Foo.java:8)" or "tv.hd3g.Foo Foo.java:3".
+ * The declarations names are rendered only one time by compilation unit.
+ */
+final class SourceLocation {
+
+	private static final String NAMES_METADATA_KEY = SourceLocation.class.getName();
+
+	private final CtElement declaration;
+	private final SourcePosition position;
+
+	private SourceLocation(final CtElement declaration, final SourcePosition position) {
+		this.declaration = declaration;
+		this.position = position;
+	}
+
+	/**
+	 * Located on the element source position, or on its nearest parent with a source file.
+	 */
+	static SourceLocation of(final CtElement element) {
+		SourcePosition position = null;
+		CtElement member = null;
+		CtElement declaration = null;
+		var current = element;
+		while (current != null && declaration == null) {
+			final var currentPosition = current.getPosition();
+			if (position == null
+				&& currentPosition != null
+				&& currentPosition.isValidPosition()
+				&& currentPosition.getFile() != null) {
+				position = currentPosition;
+			}
+			if (current instanceof final CtType<?> type) {
+				if (type.isAnonymous() || type.isLocalType()) {
+					member = null;
+				} else {
+					declaration = member == null ? type : member;
+				}
+			} else if (member == null
+					   && current.isImplicit() == false
+					   && (current instanceof CtMethod<?>
+						   || current instanceof CtConstructor<?>
+						   || current instanceof CtField<?>)) {
+				member = current;
+			}
+			current = current.isParentInitialized() ? current.getParent() : null;
+		}
+		return new SourceLocation(declaration, position);
+	}
+
+	/**
+	 * @return empty if unknown
+	 */
+	String getFileName() {
+		return position == null ? "" : position.getFile().getName();
+	}
+
+	/**
+	 * @return 1 based, -1 if unknown
+	 */
+	int getLine() {
+		return position == null ? -1 : position.getLine();
+	}
+
+	/**
+	 * @return 1 based, -1 if unknown
+	 */
+	int getColumn() {
+		return position == null ? -1 : position.getColumn();
+	}
+
+	/**
+	 * @return the enclosing method, constructor, field or type name, empty if unknown
+	 */
+	String getDeclarationName() {
+		if (declaration == null) {
+			return "";
+		}
+		final var compilationUnit = position == null ? null : position.getCompilationUnit();
+		if (compilationUnit == null) {
+			return renderName(declaration);
+		}
+		synchronized (compilationUnit) {
+			if (compilationUnit.getMetadata(NAMES_METADATA_KEY) instanceof final DeclarationNames names) {
+				return names.get(declaration);
+			}
+			final var names = new DeclarationNames();
+			compilationUnit.putMetadata(NAMES_METADATA_KEY, names);
+			return names.get(declaration);
+		}
+	}
+
+	private static String renderName(final CtElement declaration) {
+		if (declaration instanceof final CtType<?> type) {
+			return renderTypeName(type);
+		} else if (declaration instanceof final CtConstructor<?> constructor) {
+			return renderTypeName(constructor.getDeclaringType()) + constructor.getSignature().substring(
+					constructor.getDeclaringType().getQualifiedName().length());
+		} else if (declaration instanceof final CtMethod<?> method) {
+			return renderTypeName(method.getDeclaringType()) + "." + method.getSignature();
+		}
+		final var member = (CtTypeMember) declaration;
+		return renderTypeName(member.getDeclaringType()) + "." + member.getSimpleName();
+	}
+
+	/**
+	 * @return the qualified name, with "." for the nested types
+	 */
+	private static String renderTypeName(final CtType<?> type) {
+		final var declaringType = type.getDeclaringType();
+		if (declaringType == null) {
+			return type.getQualifiedName();
+		}
+		return renderTypeName(declaringType) + "." + type.getSimpleName();
+	}
+
+	@Override
+	public String toString() {
+		final var name = getDeclarationName();
+		if (position == null) {
+			return name;
+		}
+		final var fileLine = getFileName() + ":" + getLine();
+		if (name.isEmpty()) {
+			return fileLine;
+		} else if (declaration instanceof CtField<?>) {
+			return name + " (" + fileLine + ")";
+		}
+		return name + " " + fileLine;
+	}
+
+	/**
+	 * The rendered declarations names of a compilation unit, by instance.
+	 */
+	private static final class DeclarationNames {
+		private final Map<CtElement, String> names = new IdentityHashMap<>();
+
+		String get(final CtElement declaration) {
+			return names.computeIfAbsent(declaration, SourceLocation::renderName);
+		}
+	}
+
+}
@@ -0,0 +1,209 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtTypeReference;
+import tv.hd3g.commons.codepolicyvalidation.TypeUniverse.TypeSummary;
+
+/**
+ * All the super types of each type, by qualified name: each known type has a dense id, and the ids of all its super
+ * classes and interfaces (directly or not, without java.lang.Object) in a BitSet. So "is X a subtype of Y" is a
+ * single bit test.
+ * It's builded with all the model types, and their super types found in the TypeUniverse (the other modules) and in
+ * the classpath class files (see LibraryTypes). The other types are added on demand, on the first query about them:
+ * the known types super types never change.
+ */
+public class TypeHierarchy {
+
+	private final Function<String, TypeSummary> resolver;
+	private final Map<String, Integer> idByName;
+	private final List<String> names;
+	private final List<BitSet> superTypesById;
+	private final BitSet interfaces;
+
+	private TypeHierarchy(final Function<String, TypeSummary> resolver) {
+		this.resolver = resolver;
+		idByName = new HashMap<>();
+		names = new ArrayList<>();
+		superTypesById = new ArrayList<>();
+		interfaces = new BitSet();
+	}
+
+	/**
+	 * Resolve the super types in the model, else in the universe, else in the classpath.
+	 */
+	static TypeHierarchy build(final List<CtPackage> rootPackages, final TypeUniverse universe) {
+		final var modelSummaries = new HashMap<String, TypeSummary>();
+		final var modelInterfaces = new HashSet<String>();
+		final var modelNames = new ArrayList<String>();
+		final var pending = new ArrayDeque<CtType<?>>();
+		rootPackages.forEach(rootPackage -> pending.addAll(rootPackage.getFactory().getModel().getAllTypes()));
+		while (pending.isEmpty() == false) {
+			final var type = pending.poll();
+			pending.addAll(type.getNestedTypes());
+			final var name = type.getQualifiedName();
+			final var superclass = type.getSuperclass();
+			modelSummaries.put(name, new TypeSummary("",
+					superclass == null ? null : superclass.getQualifiedName(),
+					type.getSuperInterfaces().stream().map(CtTypeReference::getQualifiedName).toList()));
+			if (type.isInterface()) {
+				modelInterfaces.add(name);
+			}
+			modelNames.add(name);
+		}
+
+		final var hierarchy = new TypeHierarchy(name -> {
+			final var summary = modelSummaries.get(name);
+			if (summary != null) {
+				return summary;
+			}
+			final var moduleSummary = universe.getSummary(name);
+			return moduleSummary != null ? moduleSummary : LibraryTypes.getSummary(name);
+		});
+		modelNames.forEach(name -> {
+			final var id = hierarchy.add(name);
+			if (modelInterfaces.contains(name)) {
+				hierarchy.interfaces.set(id);
+			}
+		});
+		return hierarchy;
+	}
+
+	/**
+	 * Add the type, and all its super types, if not already known.
+	 * A type in a super types cycle (only in an invalid code) don't get the super types of the cycle.
+	 * @return the type id
+	 */
+	private int add(final String name) {
+		final var knownId = idByName.get(name);
+		if (knownId != null) {
+			return knownId;
+		}
+		final var id = names.size();
+		idByName.put(name, id);
+		names.add(name);
+		final var superTypes = new BitSet();
+		superTypesById.add(superTypes);
+
+		final var summary = resolver.apply(name);
+		if (summary == null) {
+			return id;
+		}
+		summary.interfaces().forEach(interfaceName -> {
+			final var interfaceId = add(interfaceName);
+			interfaces.set(interfaceId);
+			superTypes.set(interfaceId);
+			superTypes.or(superTypesById.get(interfaceId));
+		});
+		if (summary.superclass() != null) {
+			final var superclassId = add(summary.superclass());
+			superTypes.set(superclassId);
+			superTypes.or(superTypesById.get(superclassId));
+		}
+		return id;
+	}
+
+	private Set<String> toNames(final BitSet ids) {
+		final var result = new LinkedHashSet<String>(ids.cardinality());
+		ids.stream().forEach(id -> result.add(names.get(id)));
+		return result;
+	}
+
+	/**
+	 * @return the type id, added if not known
+	 */
+	synchronized int getId(final String typeName) {
+		return add(typeName);
+	}
+
+	/**
+	 * @param typeId see getId
+	 */
+	synchronized boolean isSameOrSubtypeOf(final int typeId, final int superTypeId) {
+		return typeId == superTypeId || superTypesById.get(typeId).get(superTypeId);
+	}
+
+	/**
+	 * @return false if superTypeName is not a super type of typeName, or if it's the same type
+	 */
+	public synchronized boolean isSubtypeOf(final String typeName, final String superTypeName) {
+		final var superTypes = superTypesById.get(add(typeName));
+		final var superTypeId = idByName.get(superTypeName);
+		return superTypeId != null && superTypes.get(superTypeId);
+	}
+
+	/**
+	 * @return the super classes and interfaces, directly or not, without java.lang.Object. By id order.
+	 */
+	public synchronized Set<String> getAllSuperTypeNames(final String typeName) {
+		return toNames(superTypesById.get(add(typeName)));
+	}
+
+	/**
+	 * @return the implemented (or extended, for an interface) interfaces, directly or by a super type. By id order.
+	 */
+	public synchronized Set<String> getAllInterfaceNames(final String typeName) {
+		final var superInterfaces = (BitSet) superTypesById.get(add(typeName)).clone();
+		superInterfaces.and(interfaces);
+		return toNames(superInterfaces);
+	}
+
+	/**
+	 * @return true if the type implements (or extends, for an interface) one interface, directly or by a super type.
+	 */
+	public synchronized boolean hasSuperInterfaces(final String typeName) {
+		return superTypesById.get(add(typeName)).intersects(interfaces);
+	}
+
+	/**
+	 * @return all the known sub types (classes and interfaces, directly or not) of superTypeName. By id order: the
+	 *         model types first.
+	 */
+	public synchronized Set<String> getSubtypeNames(final String superTypeName) {
+		final var superTypeId = idByName.get(superTypeName);
+		final var subtypes = new BitSet();
+		if (superTypeId != null) {
+			for (var id = 0; id < superTypesById.size(); id++) {
+				if (superTypesById.get(id).get(superTypeId)) {
+					subtypes.set(id);
+				}
+			}
+		}
+		return toNames(subtypes);
+	}
+
+	/**
+	 * @return the known types count
+	 */
+	public synchronized int size() {
+		return names.size();
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtTypeReference;
+
+/**
+ * The declared types of many modules, only by names: what each type extends and implements.
+ * It stay small when the module models are unloaded, and it resolve the super types declared in the other modules
+ * of an aggregate analysis (see Policies.getAllInterfaceNames).
+ */
+class TypeUniverse {
+
+	/**
+	 * @param superclass null for Object, or unknown
+	 * @param interfaces the direct implemented (or extended, for an interface) interfaces
+	 */
+	record TypeSummary(String module, String superclass, List<String> interfaces) {
+	}
+
+	private final Map<String, TypeSummary> summaryByType;
+	private final Map<String, Set<String>> typesByModule;
+
+	TypeUniverse() {
+		summaryByType = new HashMap<>();
+		typesByModule = new HashMap<>();
+	}
+
+	/**
+	 * @param types top level types
+	 * @return the types and their nested types -&gt; their superclass (empty for none), then their direct interfaces
+	 *         (sorted), only by names, like in SourceFileState.superTypesByType
+	 */
+	static Map<String, List<String>> getSuperTypesByType(final Collection<? extends CtType<?>> types) {
+		final var superTypesByType = new HashMap<String, List<String>>();
+		final var pending = new ArrayDeque<CtType<?>>(types);
+		while (pending.isEmpty() == false) {
+			final var type = pending.poll();
+			pending.addAll(type.getNestedTypes());
+			final var superclass = type.getSuperclass();
+			final var superTypes = new ArrayList<String>();
+			superTypes.add(superclass == null ? "" : superclass.getQualifiedName());
+			type.getSuperInterfaces().stream()
+					.map(CtTypeReference::getQualifiedName)
+					.sorted()
+					.forEach(superTypes::add);
+			superTypesByType.put(type.getQualifiedName(), List.copyOf(superTypes));
+		}
+		return superTypesByType;
+	}
+
+	/**
+	 * Add, or replace, the types of a module, without its model: the names are not resolved again.
+	 * @param superTypesByType see getSuperTypesByType
+	 */
+	synchronized void add(final String module, final Map<String, List<String>> superTypesByType) {
+		unload(module);
+		superTypesByType.forEach((type, superTypes) -> summaryByType.put(type, new TypeSummary(module,
+				superTypes.get(0).isEmpty() ? null : superTypes.get(0),
+				superTypes.subList(1, superTypes.size()))));
+		typesByModule.put(module, new HashSet<>(superTypesByType.keySet()));
+	}
+
+	/**
+	 * Forget all the types of a module.
+	 */
+	synchronized void unload(final String module) {
+		final var types = typesByModule.remove(module);
+		if (types != null) {
+			types.forEach(summaryByType::remove);
+		}
+	}
+
+	/**
+	 * @return null if not known
+	 */
+	synchronized TypeSummary getSummary(final String qualifiedName) {
+		return summaryByType.get(qualifiedName);
+	}
+
+	synchronized Set<String> getModules() {
+		return Set.copyOf(typesByModule.keySet());
+	}
+
+	synchronized int size() {
+		return summaryByType.size();
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import spoon.reflect.declaration.CtElement;
+
+/**
+ * A located policy violation. The message and the fingerprint are only computed on demand.
+ * @param ruleId like the ElementRule name, or the BannedImport class base name
+ * @param file the absolute source file path, empty if unknown
+ * @param line 1 based, -1 if unknown
+ * @param column 1 based, -1 if unknown
+ * @param elementKind the Spoon element type, like "CtInvocation", empty if unknown
+ * @param fingerprint see Baseline, only needed with an active Baseline
+ */
+public record Violation(String ruleId,
+						Severity severity,
+						String file,
+						int line,
+						int column,
+						String elementKind,
+						Supplier<String> fingerprint,
+						Supplier<String> message) {
+
+	public enum Severity {
+		ERROR,
+		WARNING;
+	}
+
+	public Violation {
+		Objects.requireNonNull(ruleId, "\"ruleId\" can't to be null");
+		Objects.requireNonNull(severity, "\"severity\" can't to be null");
+		Objects.requireNonNull(file, "\"file\" can't to be null");
+		Objects.requireNonNull(elementKind, "\"elementKind\" can't to be null");
+		Objects.requireNonNull(fingerprint, "\"fingerprint\" can't to be null");
+		Objects.requireNonNull(message, "\"message\" can't to be null");
+	}
+
+	/**
+	 * Located on the element source position, or on its nearest parent with a source file.
+	 */
+	public static Violation of(final String ruleId,
+							   final Severity severity,
+							   final CtElement element,
+							   final Supplier<String> message) {
+		final var location = SourceLocation.of(element);
+		return new Violation(ruleId, severity,
+				Policies.getSourcePath(element),
+				location.getLine(),
+				location.getColumn(),
+				getElementKind(element),
+				() -> Baseline.fingerprint(ruleId, element),
+				message);
+	}
+
+	static String getElementKind(final CtElement element) {
+		final var name = element.getClass().getSimpleName();
+		return name.endsWith("Impl") ? name.substring(0, name.length() - 4) : name;
+	}
+
+	/**
+	 * Compute the fingerprint, each call.
+	 */
+	public String getFingerprint() {
+		return fingerprint.get();
+	}
+
+	/**
+	 * Render the message, each call.
+	 */
+	public String getMessage() {
+		return message.get();
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Collect Violations by rule, and only keep the first ones of each rule (but count all), for bound the memory used by
+ * a code base with many violations. The messages are only rendered by toText.
+ * The violations in the Baseline (or recorded by a Baseline.Recorder) are only counted as baselined. Without baseline
+ * and recorder, the violations fingerprints are never computed.
+ * In a GitDiff scope, the violations out of the diff are ignored, and not counted.
+ */
+public class ViolationCollector {
+
+	/**
+	 * The default maximum of kept Violations by rule, unlimited if not set
+	 */
+	public static final String MAX_BY_RULE_PROPERTY = "codepolicy.violations.max";
+
+	private final int maxByRule;
+	private final Baseline baseline;
+	private final Map<String, List<Violation>> violationsByRule;
+	private final Map<String, Integer> countByRule;
+	private final Map<String, Integer> baselinedByRule;
+
+	/**
+	 * With the MAX_BY_RULE_PROPERTY cap, and the default Baseline
+	 */
+	public ViolationCollector() {
+		this(getDefaultMaxByRule(), Baseline.getDefault());
+	}
+
+	/**
+	 * Without baseline
+	 */
+	public ViolationCollector(final int maxByRule) {
+		this(maxByRule, Baseline.empty());
+	}
+
+	public ViolationCollector(final int maxByRule, final Baseline baseline) {
+		this.baseline = Objects.requireNonNull(baseline, "\"baseline\" can't to be null");
+		if (maxByRule < 1) {
+			throw new IllegalArgumentException("Invalid maxByRule: " + maxByRule);
+		}
+		this.maxByRule = maxByRule;
+		violationsByRule = new LinkedHashMap<>();
+		countByRule = new LinkedHashMap<>();
+		baselinedByRule = new LinkedHashMap<>();
+	}
+
+	/**
+	 * @return the MAX_BY_RULE_PROPERTY value, Integer.MAX_VALUE if not set or invalid
+	 */
+	static int getDefaultMaxByRule() {
+		final var max = Integer.getInteger(MAX_BY_RULE_PROPERTY, Integer.MAX_VALUE);
+		return max < 1 ? Integer.MAX_VALUE : max;
+	}
+
+	public int getMaxByRule() {
+		return maxByRule;
+	}
+
+	/**
+	 * @return true if the Violations must be collected one by one: with a Baseline (see Baseline.isActive), or in a
+	 *         GitDiff scope.
+	 */
+	static boolean isRequired() {
+		return Baseline.isActive() || GitDiff.isScoped();
+	}
+
+	/**
+	 * @return false if the violation rule is already at its cap: it's only counted. False if the violation is
+	 *         baselined: it's only counted by getBaselinedCount. False if the violation is out of the scoped GitDiff.
+	 */
+	public synchronized boolean add(final Violation violation) {
+		if (GitDiff.isOutOfScope(violation)) {
+			return false;
+		} else if (Baseline.onViolation(violation)
+			|| baseline.isEmpty() == false && baseline.contains(violation.getFingerprint())) {
+			baselinedByRule.merge(violation.ruleId(), 1, Integer::sum);
+			return false;
+		}
+		final var count = countByRule.merge(violation.ruleId(), 1, Integer::sum);
+		if (count > maxByRule) {
+			return false;
+		}
+		violationsByRule.computeIfAbsent(violation.ruleId(), r -> new ArrayList<>()).add(violation);
+		return true;
+	}
+
+	public synchronized boolean isEmpty() {
+		return countByRule.isEmpty();
+	}
+
+	/**
+	 * @return in add order
+	 */
+	public synchronized List<String> getRuleIds() {
+		return List.copyOf(countByRule.keySet());
+	}
+
+	/**
+	 * @return the kept violations, in add order
+	 */
+	public synchronized List<Violation> getViolations(final String ruleId) {
+		return List.copyOf(violationsByRule.getOrDefault(ruleId, List.of()));
+	}
+
+	/**
+	 * @return all the added violations for ruleId, kept or not
+	 */
+	public synchronized int getCount(final String ruleId) {
+		return countByRule.getOrDefault(ruleId, 0);
+	}
+
+	/**
+	 * @return the ignored violations for ruleId, in the baseline
+	 */
+	public synchronized int getBaselinedCount(final String ruleId) {
+		return baselinedByRule.getOrDefault(ruleId, 0);
+	}
+
+	/**
+	 * Render the kept messages of ruleId.
+	 * @return empty if ruleId has no violations
+	 */
+	public synchronized String toText(final String ruleId, final String delimiter) {
+		return join(getViolations(ruleId).stream().map(Violation::getMessage).toList(),
+				getCount(ruleId), delimiter);
+	}
+
+	/**
+	 * @param messages the first messages
+	 * @param count all the messages count, if more than messages, a "(and N more)" is added
+	 */
+	static String join(final List<String> messages, final int count, final String delimiter) {
+		final var text = String.join(delimiter, messages);
+		if (count <= messages.size()) {
+			return text;
+		}
+		return text + delimiter + "(and " + (count - messages.size()) + " more)";
+	}
+
+}
@@ -16,6 +16,6 @@
  */
 package org.springframework.data.jpa.repository;
 
-public interface JpaRepository {
+public interface JpaRepository<T, I> {
 
 }
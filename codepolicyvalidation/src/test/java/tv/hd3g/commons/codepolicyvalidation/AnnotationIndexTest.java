@@ -0,0 +1,129 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import jakarta.persistence.Entity;
+import spoon.Launcher;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.filter.AbstractFilter;
+
+class AnnotationIndexTest {
+
+	static AnnotationIndex annotationIndex;
+
+	@BeforeAll
+	static void globalInit() {
+		Policies.globalInit("src/test/java/tv/hd3g/commons/codepolicyvalidation/springboot/ok");
+		annotationIndex = new Policies().getAnnotationIndex();
+	}
+
+	@Test
+	void getAnnotatedTypes() {
+		final var serviceName = Service.class.getName();
+		final var expected = Policies.getLauncher().getFactory().Package().getRootPackage().getElements(
+				new AbstractFilter<CtType<?>>() {
+					@Override
+					public boolean matches(final CtType<?> element) {
+						return element.getAnnotations().stream()
+								.anyMatch(a -> a.getAnnotationType().getQualifiedName().equals(serviceName));
+					}
+				});
+		assertEquals(2, expected.size());
+		assertEquals(expected, annotationIndex.getAnnotatedTypes(serviceName));
+		assertEquals(3, annotationIndex.getAnnotatedTypes(Entity.class.getName()).size());
+		assertTrue(annotationIndex.getTypeAnnotationNames().contains(serviceName));
+		assertSame(annotationIndex, new Policies().getAnnotationIndex());
+	}
+
+	@Test
+	void getAnnotatedMethods() {
+		final var methods = annotationIndex.getAnnotatedMethods(PostMapping.class.getName());
+		assertEquals(1, methods.size());
+		assertTrue(annotationIndex.getAnnotatedTypes(PostMapping.class.getName()).isEmpty());
+		assertTrue(annotationIndex.getAnnotatedFields(PostMapping.class.getName()).isEmpty());
+	}
+
+	@Test
+	void notFound() {
+		assertEquals(List.of(), annotationIndex.getAnnotatedTypes("this.is.not.Found"));
+		assertEquals(List.of(), annotationIndex.getAnnotatedMethods("this.is.not.Found"));
+		assertEquals(List.of(), annotationIndex.getAnnotatedFields("this.is.not.Found"));
+	}
+
+	@Test
+	void getAnnotationNames() {
+		final var method = annotationIndex.getAnnotatedMethods(PostMapping.class.getName()).get(0);
+		final var names = annotationIndex.getAnnotationNames(method);
+		assertTrue(names.containsAll(Set.of(PostMapping.class.getName(), RequestMapping.class.getName())),
+				names::toString);
+		assertSame(names, annotationIndex.getAnnotationNames(method));
+		assertEquals(Set.of(), annotationIndex.getAnnotationNames(method.getType()));
+	}
+
+	@Test
+	void getAnnotationNames_modelMetaAnnotation(@TempDir final Path sourceDir) throws IOException {
+		Files.writeString(sourceDir.resolve("Meta.java"), """
+				package meta;
+				import org.springframework.web.bind.annotation.GetMapping;
+				public class Meta {
+					@GetMapping
+					public @interface MyGet {
+					}
+					@MyGet
+					public void get() {
+					}
+					@Deprecated
+					@MyGet
+					public void deprecatedGet() {
+					}
+				}
+				""");
+		final var launcher = new Launcher();
+		launcher.addInputResource(sourceDir.toString());
+		launcher.buildModel();
+		final var index = AnnotationIndex.build(List.of(launcher.getFactory().Package().getRootPackage()));
+		final var type = launcher.getFactory().Type().get("meta.Meta");
+
+		final var expected = Set.of("meta.Meta$MyGet", GetMapping.class.getName(), RequestMapping.class.getName());
+		final var getNames = index.getAnnotationNames(type.getMethodsByName("get").get(0));
+		assertTrue(getNames.containsAll(expected), getNames::toString);
+		final var deprecatedGetNames = index.getAnnotationNames(type.getMethodsByName("deprecatedGet").get(0));
+		assertTrue(deprecatedGetNames.containsAll(expected), deprecatedGetNames::toString);
+		assertTrue(deprecatedGetNames.contains(Deprecated.class.getName()));
+		assertFalse(getNames.contains(Deprecated.class.getName()));
+	}
+
+}
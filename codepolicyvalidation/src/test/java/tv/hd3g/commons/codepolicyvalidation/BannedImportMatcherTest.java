@@ -0,0 +1,118 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BannedImportMatcherTest {
+
+	static final BannedImport bannedApache = new BannedImport("org.apache.", "apache");
+	static final BannedImport bannedLang = new BannedImport("org.apache.commons.lang.", "lang");
+	static final BannedImport bannedAssert = new BannedImport("org.junit.Assert", "junit");
+
+	static Policies policies;
+
+	@TempDir
+	File tempDir;
+
+	@BeforeAll
+	static void globalInit() {
+		Policies.globalInit("src/test/java/tv/hd3g/commons/codepolicyvalidation/ko");
+		policies = new Policies();
+	}
+
+	@Test
+	void match() {
+		final var matcher = new BannedImportMatcher(List.of(bannedLang, bannedAssert, bannedApache));
+		assertEquals(List.of(bannedApache, bannedLang), matcher.match("org.apache.commons.lang.StringUtils"));
+		assertEquals(List.of(bannedApache), matcher.match("org.apache.commons.lang3.StringUtils"));
+		assertEquals(List.of(bannedAssert), matcher.match("org.junit.Assert"));
+		assertEquals(List.of(), matcher.match("org.junit.jupiter.api.Assertions"));
+		assertEquals(List.of(), matcher.match("org"));
+		assertEquals(List.of(), new BannedImportMatcher(List.of()).match("org.junit.Assert"));
+	}
+
+	@Test
+	void getHits_sameAsOneByOne() {
+		final var bannedImports = List.of(
+				bannedLang,
+				bannedAssert,
+				new BannedImport("java.", "java"),
+				new BannedImport("java.sql.Date", "sql"),
+				new BannedImport("nothing.here", "nothing"));
+		final var matcher = new BannedImportMatcher(bannedImports);
+		final var hits = matcher.getHits(policies.getReferenceIndex());
+		assertEquals(List.of(bannedLang, bannedAssert, bannedImports.get(2), bannedImports.get(3)),
+				List.copyOf(hits.keySet()));
+
+		bannedImports.forEach(bannedImport -> {
+			if (hits.containsKey(bannedImport)) {
+				final var error = assertThrows(BadImportClass.class,
+						() -> policies.checkClassNotPresent(bannedImport));
+				assertEquals(error.getMessage(), assertThrows(BadImportClass.class,
+						() -> policies.checkClassNotPresent(matcher, bannedImport))
+								.getMessage());
+			} else {
+				policies.checkClassNotPresent(bannedImport);
+			}
+		});
+	}
+
+	@Test
+	void getHits_manyPrefixes() {
+		final var bannedImports = IntStream.range(0, 500)
+				.mapToObj(pos -> new BannedImport("com.shop" + pos + ".", "reason " + pos))
+				.toList();
+		final var matcher = new BannedImportMatcher(bannedImports);
+		assertTrue(matcher.getHits(policies.getReferenceIndex()).isEmpty());
+		assertEquals(List.of(bannedImports.get(42)), matcher.match("com.shop42.Class"));
+		policies.checkClassesNotPresent(matcher);
+	}
+
+	@Test
+	void checkClassesNotPresent() {
+		final var matcher = new BannedImportMatcher(List.of(bannedLang, bannedAssert));
+		final var error = assertThrows(BadImportClass.class, () -> policies.checkClassesNotPresent(matcher));
+		assertTrue(error.getMessage().contains("You should use lang"));
+		assertTrue(error.getMessage().contains("You should use junit"));
+		assertEquals(policies.getBannedImportHits(matcher), policies.getBannedImportHits(matcher));
+	}
+
+	@Test
+	void readBannedImports() throws IOException {
+		final var file = new File(tempDir, "banned.properties").toPath();
+		Files.writeString(file, """
+				# Shop rules
+				org.junit.Assert=junit
+				org.apache.commons.lang.=lang
+				""");
+		assertEquals(List.of(bannedLang, bannedAssert), BannedImportMatcher.readBannedImports(file));
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyRunnerTest.KO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BaselineTest {
+
+	static final String SOURCE = """
+			package baseline;
+			public class Legacy {
+				void a() {
+					System.out.println("a");
+				}
+				void b() {
+					System.out.println("b");
+				}
+			}
+			""";
+
+	@TempDir
+	Path tempDir;
+
+	@AfterEach
+	void end() {
+		System.clearProperty(Baseline.BASELINE_PROPERTY);
+	}
+
+	@Test
+	void read() throws IOException {
+		final var file = tempDir.resolve("baseline.txt");
+		assertTrue(Baseline.read(file).isEmpty());
+
+		Files.writeString(file, "# comment\nrule:1\n\n  rule:2  \nrule:1\n", UTF_8);
+		final var baseline = Baseline.read(file);
+		assertEquals(2, baseline.size());
+		assertTrue(baseline.contains("rule:1"));
+		assertTrue(baseline.contains("rule:2"));
+		assertFalse(baseline.contains("# comment"));
+	}
+
+	@Test
+	void getDefault() throws IOException {
+		assertTrue(Baseline.getDefault().isEmpty());
+		final var file = tempDir.resolve("baseline.txt");
+		Files.writeString(file, "rule:1\n", UTF_8);
+		System.setProperty(Baseline.BASELINE_PROPERTY, file.toString());
+		assertEquals(1, Baseline.getDefault().size());
+		assertTrue(Baseline.isActive());
+	}
+
+	private Set<String> getFingerprints(final String source) throws IOException {
+		final var dir = tempDir.resolve("src");
+		FileUtils.deleteDirectory(dir.toFile());
+		Files.createDirectories(dir);
+		Files.writeString(dir.resolve("Legacy.java"), source, UTF_8);
+		Policies.globalInit(dir.toString());
+		final var collector = new ViolationCollector();
+		new Policies().collectViolations(CheckPolicy.ruleSysOutSysErr, collector);
+		return collector.getViolations("noSysOutSysErr").stream()
+				.map(Violation::getFingerprint)
+				.collect(Collectors.toUnmodifiableSet());
+	}
+
+	@Test
+	void fingerprint() throws IOException {
+		final var fingerprints = getFingerprints(SOURCE);
+		assertEquals(2, fingerprints.size());
+		fingerprints.forEach(fingerprint -> assertTrue(fingerprint.startsWith("noSysOutSysErr:"), fingerprint));
+
+		assertEquals(fingerprints, getFingerprints("// moved\n\n" + SOURCE.replace("(\"a\");", "( \"a\" );")));
+		assertNotEquals(fingerprints, getFingerprints(SOURCE.replace("\"b\"", "\"c\"")));
+		assertNotEquals(fingerprints, getFingerprints(SOURCE.replace("void b()", "void c()")));
+	}
+
+	@Test
+	void recordAndCheck() throws IOException {
+		final var sources = tempDir.resolve("ko");
+		FileUtils.copyDirectory(Path.of(KO).toFile(), sources.toFile());
+		final var baselineFile = tempDir.resolve("baseline.txt");
+		final var runner = new PolicyRunner(CheckPolicy::new, CheckPolicy.class);
+		final var before = runner.check("ko", List.of(sources.toString()));
+
+		try (var recorder = Baseline.record(baselineFile)) {
+			assertThrows(IllegalStateException.class, () -> Baseline.record(tempDir.resolve("other.txt")));
+			final var recorded = runner.check("ko", List.of(sources.toString()));
+			assertTrue(recorder.getCount() > 0);
+			assertTrue(recorded.failuresByTest().size() < before.failuresByTest().size());
+		}
+		assertFalse(Baseline.isRecording());
+		assertTrue(Files.readString(baselineFile).startsWith("# "));
+
+		System.setProperty(Baseline.BASELINE_PROPERTY, baselineFile.toString());
+		final var baselined = runner.check("ko", List.of(sources.toString()));
+		assertFalse(baselined.failuresByTest().containsKey("noSysOutSysErr"));
+		assertFalse(baselined.failuresByTest().containsKey("notSQLDate"));
+
+		Files.writeString(sources.resolve("NewClass.java"), """
+				package tv.hd3g.commons.codepolicyvalidation.ko;
+				public class NewClass {
+					void a() {
+						System.err.println("new");
+					}
+				}
+				""", UTF_8);
+		final var withNew = runner.check("ko", List.of(sources.toString()));
+		assertEquals(List.of("Don't use sys.out/sys.err in tv.hd3g.commons.codepolicyvalidation.ko.NewClass.a() "
+							 + "NewClass.java:4"),
+				withNew.failuresByTest().get("noSysOutSysErr").lines().toList());
+	}
+
+}
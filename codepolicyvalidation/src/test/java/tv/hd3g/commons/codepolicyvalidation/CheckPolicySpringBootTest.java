@@ -22,6 +22,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static tv.hd3g.commons.codepolicyvalidation.CtTypeCat.CLASS;
 import static tv.hd3g.commons.codepolicyvalidation.Policies.typeFactory;
 
+import java.util.List;
+import java.util.Set;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -34,6 +37,7 @@ import spoon.reflect.declaration.CtType;
 import tv.hd3g.commons.codepolicyvalidation.springboot.ok.SpringBootApp;
 import tv.hd3g.commons.codepolicyvalidation.springboot.ok.controller.AController;
 import tv.hd3g.commons.codepolicyvalidation.springboot.ok.entity.AnEntity;
+import tv.hd3g.commons.codepolicyvalidation.springboot.ok.repository.ARepository;
 
 class CheckPolicySpringBootTest {
 
@@ -116,4 +120,22 @@ class CheckPolicySpringBootTest {
 				() -> p.assertClassesByPackageIsAnnotated("controller", serviceClassName, CLASS));
 	}
 
+	@Test
+	void getAllInterfaceNames() {
+		final var repository = typeFactory.get(ARepository.class).getReference();
+		assertEquals(Set.of("org.springframework.data.jpa.repository.JpaRepository"),
+				p.getAllInterfaceNames(repository));
+
+		final var arrayList = typeFactory.createReference("java.util.ArrayList");
+		assertTrue(p.getAllInterfaceNames(arrayList).containsAll(List.of(
+				"java.util.List", "java.util.Collection", "java.lang.Iterable", "java.util.RandomAccess")));
+	}
+
+	@Test
+	void isKnownType() {
+		assertTrue(p.isKnownType(AController.class.getName()));
+		assertTrue(p.isKnownType(Controller.class.getName()));
+		assertFalse(p.isKnownType("this.is.not.Found"));
+	}
+
 }
@@ -0,0 +1,158 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import tv.hd3g.commons.codepolicyvalidation.Violation.Severity;
+
+@ResourceLock(Policies.STATE_LOCK)
+class GitDiffTest {
+
+	static final Path ROOT = Path.of("/repo");
+	static final String DIFF = """
+			diff --git a/src/main/java/p/A.java b/src/main/java/p/A.java
+			index 1111111..2222222 100644
+			--- a/src/main/java/p/A.java
+			+++ b/src/main/java/p/A.java
+			@@ -10 +10 @@ class A {
+			-	old();
+			+	System.out.println();
+			@@ -20,0 +21,3 @@ class A {
+			+	a();
+			+	b();
+			+	c();
+			@@ -40,2 +43,0 @@ class A {
+			-	removed();
+			-	removed();
+			diff --git a/src/main/java/p/B.java b/src/main/java/p/B.java
+			new file mode 100644
+			--- /dev/null
+			+++ b/src/main/java/p/B.java
+			@@ -0,0 +1,2 @@
+			+package p;
+			+class B {}
+			""";
+
+	static final String A = "/repo/src/main/java/p/A.java";
+
+	final GitDiff diff = GitDiff.parse(ROOT, DIFF);
+
+	@Test
+	void parse() {
+		assertEquals(Set.of(ROOT.resolve("src/main/java/p/A.java"), ROOT.resolve("src/main/java/p/B.java")),
+				diff.getChangedFiles());
+		assertTrue(diff.isChanged(A, 10));
+		assertFalse(diff.isChanged(A, 11));
+		assertFalse(diff.isChanged(A, 20));
+		assertTrue(diff.isChanged(A, 21));
+		assertTrue(diff.isChanged(A, 23));
+		assertFalse(diff.isChanged(A, 24));
+		assertFalse(diff.isChanged(A, 43));
+		assertTrue(diff.isChanged(A, -1));
+		assertTrue(diff.isChanged("/repo/src/main/java/p/B.java", 2));
+		assertFalse(diff.isChanged("/repo/src/main/java/p/C.java", 1));
+		assertFalse(diff.isChanged("/repo/src/main/java/p/C.java", -1));
+	}
+
+	@Test
+	void parseEmpty() {
+		assertTrue(GitDiff.parse(ROOT, "").getChangedFiles().isEmpty());
+	}
+
+	@Test
+	void parse_untracked() {
+		final var withUntracked = GitDiff.parse(ROOT, DIFF, """
+				src/main/java/p/C.java
+				src/test/java/p/CTest.java
+				""");
+		assertEquals(4, withUntracked.getChangedFiles().size());
+		assertTrue(withUntracked.isChanged("/repo/src/main/java/p/C.java", 1));
+		assertTrue(withUntracked.isChanged("/repo/src/main/java/p/C.java", 1000));
+		assertTrue(withUntracked.isChanged("/repo/src/test/java/p/CTest.java", -1));
+		assertFalse(withUntracked.isChanged(A, 11));
+		assertEquals(List.of("/repo/src/test/java/p/CTest.java"),
+				withUntracked.getChangedFiles(List.of("/repo/src/test/java")));
+	}
+
+	@Test
+	void getChangedFilesIn() {
+		assertEquals(List.of("/repo/src/main/java/p/A.java", "/repo/src/main/java/p/B.java"),
+				diff.getChangedFiles(List.of("/repo/src/main/java")));
+		assertEquals(List.of(), diff.getChangedFiles(List.of("/repo/src/test/java")));
+	}
+
+	@Test
+	void isChanged_violation() {
+		assertTrue(diff.isChanged(violation("rule", A, 10)));
+		assertFalse(diff.isChanged(violation("rule", A, 30)));
+		assertTrue(diff.isChanged(violation("rule", "", -1)));
+		assertFalse(diff.isChanged(violation("rule", "/repo/src/main/java/q/A.java", 10)));
+	}
+
+	@Test
+	void scope() {
+		final var collector = new ViolationCollector(10);
+		try (var scope = diff.scope()) {
+			assertTrue(GitDiff.isScoped());
+			assertTrue(ViolationCollector.isRequired());
+			assertThrows(IllegalStateException.class, diff::scope);
+			assertTrue(collector.add(violation("sysOut", A, 10)));
+			assertFalse(collector.add(violation("sysOut", A, 30)));
+			assertTrue(collector.add(violation("notLocated", "", -1)));
+			assertFalse(collector.add(violation("otherFile", "/repo/src/main/java/q/A.java", 10)));
+		}
+		assertFalse(GitDiff.isScoped());
+		assertTrue(collector.add(violation("sysOut", A, 30)));
+
+		assertEquals(List.of("sysOut", "notLocated"), collector.getRuleIds());
+		assertEquals(2, collector.getCount("sysOut"));
+		assertEquals("sysOut " + A + ":10, sysOut " + A + ":30", collector.toText("sysOut", ", "));
+	}
+
+	/**
+	 * The hits of a banned import are joined on one line, but each one is kept by its own referrer file.
+	 */
+	@Test
+	void scope_joinedViolations() {
+		final var collector = new ViolationCollector(10);
+		try (var scope = diff.scope()) {
+			collector.add(violation("Banned", "/repo/src/main/java/p/B.java", -1));
+			collector.add(violation("Banned", "/repo/src/main/java/p/C.java", -1));
+		}
+		assertEquals(1, collector.getCount("Banned"));
+		final var error = new BadImportClass(new BannedImport("Banned", "reason"), collector);
+		assertTrue(error.getMessage().contains("B.java"));
+		assertFalse(error.getMessage().contains("C.java"));
+	}
+
+	private static Violation violation(final String ruleId, final String file, final int line) {
+		return new Violation(ruleId, Severity.ERROR, file, line, -1, "CtInvocation",
+				() -> ruleId + file + line, () -> ruleId + " " + file + ":" + line);
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncrementalAnalysisTest {
+
+	static final String ROOT = new File("src").getAbsolutePath();
+
+	String fileA;
+	String fileB;
+	String fileC;
+	SourceFileState stateA;
+	SourceFileState stateB;
+	SourceFileState stateC;
+	Map<String, SourceFileState> previousStates;
+
+	@BeforeEach
+	void init() {
+		fileA = path("pkg/A.java");
+		fileB = path("pkg/B.java");
+		fileC = path("pkg/C.java");
+		stateA = new SourceFileState("hashA", Map.of("pkg.A", Set.of("java.lang.String")));
+		stateB = new SourceFileState("hashB", Map.of("pkg.B", Set.of("pkg.A")), Map.of("rule", List.of("msg")));
+		stateC = new SourceFileState("hashC", Map.of("pkg.C", Set.of("java.lang.Object")));
+		previousStates = Map.of(fileA, stateA, fileB, stateB, fileC, stateC);
+	}
+
+	static String path(final String relative) {
+		return new File(ROOT, relative).getPath();
+	}
+
+	@Test
+	void noChanges() {
+		final var analysis = new IncrementalAnalysis(previousStates,
+				Map.of(fileA, "hashA", fileB, "hashB", fileC, "hashC"), ROOT);
+		assertTrue(analysis.getFilesToParse().isEmpty());
+		assertTrue(analysis.getRemovedFiles().isEmpty());
+		assertEquals(previousStates, analysis.patch(Map.of()));
+	}
+
+	@Test
+	void changedWithDependents() {
+		final var analysis = new IncrementalAnalysis(previousStates,
+				Map.of(fileA, "newHashA", fileB, "hashB", fileC, "hashC"), ROOT);
+		assertEquals(Set.of(fileA, fileB), analysis.getFilesToParse());
+
+		final var newStateA = new SourceFileState("", Map.of("pkg.A", Set.of()));
+		final var patched = analysis.patch(Map.of(fileA, newStateA));
+		assertEquals(Set.of(fileA, fileB, fileC), patched.keySet());
+		assertEquals("newHashA", patched.get(fileA).hash());
+		assertEquals(newStateA.referencedNamesByType(), patched.get(fileA).referencedNamesByType());
+		assertEquals("hashB", patched.get(fileB).hash());
+		assertTrue(patched.get(fileB).referencedNamesByType().isEmpty());
+		assertTrue(patched.get(fileB).messagesByRule().isEmpty());
+		assertSame(stateC, patched.get(fileC));
+	}
+
+	/**
+	 * C extends B extends A: C and its user E don't reference A, but they must be parsed again if A is changed. D only
+	 * uses B, so its own users are not dependents.
+	 */
+	@Test
+	void changedWithTransitiveSubTypes() {
+		final var fileD = path("pkg/D.java");
+		final var fileE = path("pkg/E.java");
+		final var fileF = path("pkg/F.java");
+		final var hierarchyStates = Map.of(
+				fileA, new SourceFileState("hashA", Map.of("pkg.A", Set.of()), Map.of(),
+						Map.of("pkg.A", List.of(""))),
+				fileB, new SourceFileState("hashB", Map.of("pkg.B", Set.of("pkg.A")), Map.of(),
+						Map.of("pkg.B", List.of("pkg.A"))),
+				fileC, new SourceFileState("hashC", Map.of("pkg.C", Set.of("pkg.B")), Map.of(),
+						Map.of("pkg.C", List.of("", "pkg.B"), "pkg.C$Inner", List.of(""))),
+				fileD, new SourceFileState("hashD", Map.of("pkg.D", Set.of("pkg.B")), Map.of(),
+						Map.of("pkg.D", List.of(""))),
+				fileE, new SourceFileState("hashE", Map.of("pkg.E", Set.of("pkg.C")), Map.of(),
+						Map.of("pkg.E", List.of(""))),
+				fileF, new SourceFileState("hashF", Map.of("pkg.F", Set.of("pkg.D")), Map.of(),
+						Map.of("pkg.F", List.of(""))));
+		final var analysis = new IncrementalAnalysis(hierarchyStates, Map.of(
+				fileA, "newHashA", fileB, "hashB", fileC, "hashC", fileD, "hashD", fileE, "hashE", fileF, "hashF"),
+				ROOT);
+		assertEquals(Set.of(fileA, fileB, fileC, fileD, fileE), analysis.getFilesToParse());
+
+		final var patched = analysis.patch(Map.of(fileC, hierarchyStates.get(fileC)));
+		assertEquals(hierarchyStates.get(fileC).superTypesByType(), patched.get(fileC).superTypesByType());
+		assertTrue(patched.get(fileB).superTypesByType().isEmpty());
+	}
+
+	@Test
+	void removedAndAdded() {
+		final var fileD = path("pkg/D.java");
+		final var analysis = new IncrementalAnalysis(previousStates,
+				Map.of(fileB, "hashB", fileC, "hashC", fileD, "hashD"), ROOT);
+		assertEquals(Set.of(fileA), analysis.getRemovedFiles());
+		assertEquals(Set.of(fileB, fileD), analysis.getFilesToParse());
+		assertEquals(Set.of(fileB, fileC, fileD), analysis.patch(Map.of()).keySet());
+	}
+
+	@Test
+	void guessTypeName() {
+		assertEquals("pkg.A", IncrementalAnalysis.guessTypeName(fileA, ROOT));
+		assertNull(IncrementalAnalysis.guessTypeName(fileA, path("other")));
+		assertNull(IncrementalAnalysis.guessTypeName(path("pkg/README.md"), ROOT));
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyRunnerTest.KO;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyRunnerTest.OK;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import spoon.reflect.code.CtComment;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+class LeanModelBuilderTest {
+
+	static final String SPRINGBOOT_KO = "src/test/java/tv/hd3g/commons/codepolicyvalidation/springboot/ko";
+	static final String SPRINGBOOT_OK = "src/test/java/tv/hd3g/commons/codepolicyvalidation/springboot/ok";
+
+	@TempDir
+	Path tempDir;
+
+	@AfterEach
+	void end() {
+		System.clearProperty(LeanModelBuilder.LEAN_PROPERTY);
+	}
+
+	@Test
+	void buildModel() throws IOException {
+		Files.writeString(tempDir.resolve("WithToken.java"), """
+				public class WithToken {
+					// comment
+					void a() {
+						System.out.println("a");
+					}
+				}
+				""", UTF_8);
+		Files.writeString(tempDir.resolve("WithoutToken.java"), """
+				public class WithoutToken {
+					// comment
+					int b() {
+						final var b = 1;
+						return b;
+					}
+					static class Inner {
+						int c() {
+							return 2;
+						}
+					}
+				}
+				""", UTF_8);
+		System.setProperty(LeanModelBuilder.LEAN_PROPERTY, "true");
+		Policies.globalInit(Set.of("System.out"), tempDir.toString());
+		final var model = Policies.getLauncher().getModel();
+
+		assertTrue(model.getElements(new TypeFilter<CtComment>(CtComment.class)).isEmpty());
+		assertEquals(1, getStatementCount(model.getAllTypes().stream()
+				.filter(type -> type.getSimpleName().equals("WithToken"))
+				.findFirst()
+				.orElseThrow()));
+		assertEquals(0, getStatementCount(model.getAllTypes().stream()
+				.filter(type -> type.getSimpleName().equals("WithoutToken"))
+				.findFirst()
+				.orElseThrow()));
+	}
+
+	@Test
+	void buildModel_wildcardImport() throws IOException {
+		Files.createDirectories(tempDir.resolve("banned"));
+		Files.writeString(tempDir.resolve("banned").resolve("Tool.java"), """
+				package banned;
+				public class Tool {
+					public static void run() {
+					}
+				}
+				""", UTF_8);
+		Files.writeString(tempDir.resolve("User.java"), """
+				import banned.*;
+				public class User {
+					void a() {
+						Tool.run();
+					}
+				}
+				""", UTF_8);
+		System.setProperty(LeanModelBuilder.LEAN_PROPERTY, "true");
+		Policies.globalInit(Set.of("banned.Tool"), tempDir.toString());
+
+		assertEquals(1, getStatementCount(Policies.getLauncher().getModel().getAllTypes().stream()
+				.filter(type -> type.getSimpleName().equals("User"))
+				.findFirst()
+				.orElseThrow()));
+	}
+
+	private static int getStatementCount(final CtType<?> type) {
+		return type.getElements(new TypeFilter<>(CtMethod.class)).stream()
+				.map(CtMethod::getBody)
+				.mapToInt(body -> body == null ? 0 : body.getStatements().size())
+				.sum();
+	}
+
+	@Test
+	void sameResults() {
+		final var runner = new PolicyRunner(CheckPolicy::new, CheckPolicy.class);
+		for (final String sources : List.of(OK, KO, SPRINGBOOT_OK, SPRINGBOOT_KO, "src/main/java")) {
+			System.clearProperty(LeanModelBuilder.LEAN_PROPERTY);
+			final var expected = runner.check("full", List.of(sources)).failuresByTest();
+			System.setProperty(LeanModelBuilder.LEAN_PROPERTY, "true");
+			assertEquals(expected, runner.check("lean", List.of(sources)).failuresByTest(), sources);
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LibraryTypesTest {
+
+	static boolean initialized;
+
+	static class NotInitialized {
+		static {
+			initialized = true;
+		}
+	}
+
+	static class NotLoaded extends NotInitialized implements Runnable {
+		@Override
+		public void run() {
+			// Only for the test
+		}
+	}
+
+	@Test
+	void getSummary() {
+		final var summary = LibraryTypes.getSummary("java.util.ArrayList");
+		assertEquals("java.util.AbstractList", summary.superclass());
+		assertTrue(summary.interfaces().containsAll(List.of("java.util.List", "java.util.RandomAccess")));
+		assertEquals("", summary.module());
+		assertSame(summary, LibraryTypes.getSummary("java.util.ArrayList"));
+	}
+
+	@Test
+	void getSummary_nested() {
+		final var summary = LibraryTypes.getSummary("java.util.Map$Entry");
+		assertNull(summary.superclass());
+		assertEquals(List.of(), summary.interfaces());
+	}
+
+	@Test
+	void getSummary_notFound() {
+		assertNull(LibraryTypes.getSummary("this.is.not.Found"));
+		assertFalse(LibraryTypes.exists("this.is.not.Found"));
+		assertTrue(LibraryTypes.exists("java.lang.Runnable"));
+	}
+
+	@Test
+	void getSummary_withoutLoad() {
+		final var summary = LibraryTypes.getSummary(getClass().getName() + "$NotLoaded");
+		assertEquals(getClass().getName() + "$NotInitialized", summary.superclass());
+		assertEquals(List.of("java.lang.Runnable"), summary.interfaces());
+		assertFalse(initialized);
+	}
+
+	@Test
+	void getAnnotationNames() {
+		assertTrue(LibraryTypes.getAnnotationNames("org.springframework.web.bind.annotation.GetMapping")
+				.contains("org.springframework.web.bind.annotation.RequestMapping"));
+		assertEquals(List.of(), LibraryTypes.getAnnotationNames("java.util.ArrayList"));
+		assertEquals(List.of(), LibraryTypes.getAnnotationNames("this.is.not.Found"));
+	}
+
+	@Test
+	void getAnnotationNames_byClassLoader() throws IOException {
+		final var getMapping = "org.springframework.web.bind.annotation.GetMapping";
+		final var requestMapping = "org.springframework.web.bind.annotation.RequestMapping";
+		final var currentThread = Thread.currentThread();
+		final var previousClassLoader = currentThread.getContextClassLoader();
+		try (var withoutSpring = new URLClassLoader(new URL[0], null)) {
+			currentThread.setContextClassLoader(withoutSpring);
+			assertFalse(LibraryTypes.exists(getMapping));
+			assertEquals(List.of(), LibraryTypes.getAnnotationNames(getMapping));
+			assertTrue(LibraryTypes.exists("java.util.ArrayList"));
+
+			currentThread.setContextClassLoader(previousClassLoader);
+			assertTrue(LibraryTypes.exists(getMapping));
+			assertTrue(LibraryTypes.getAnnotationNames(getMapping).contains(requestMapping));
+
+			currentThread.setContextClassLoader(withoutSpring);
+			assertFalse(LibraryTypes.exists(getMapping));
+		} finally {
+			currentThread.setContextClassLoader(previousClassLoader);
+		}
+		assertTrue(LibraryTypes.exists(getMapping));
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import spoon.Launcher;
+import spoon.reflect.declaration.CtType;
+import tv.hd3g.commons.codepolicyvalidation.MemberTable.Member;
+
+class MemberTableTest {
+
+	@TempDir
+	Path sourceDir;
+
+	Launcher launcher;
+	MemberTable memberTable;
+
+	@BeforeEach
+	void init() throws IOException {
+		Files.writeString(sourceDir.resolve("Sub.java"), """
+				package members;
+				import java.util.ArrayList;
+				import java.util.List;
+import java.util.Set;
+				interface Api {
+					default List<String> list() {
+						return List.of();
+					}
+				}
+				class Base {
+					public Object value() {
+						return null;
+					}
+					static void util() {
+					}
+				}
+				public class Sub extends Base implements Api {
+					@Override
+					public ArrayList<String> value() {
+						return new ArrayList<>();
+					}
+					<T> T generic() {
+						return null;
+					}
+					public int count() {
+						return 0;
+					}
+				}
+				""");
+		launcher = new Launcher();
+		launcher.addInputResource(sourceDir.toString());
+		launcher.buildModel();
+		final var rootPackages = List.of(launcher.getFactory().Package().getRootPackage());
+		memberTable = new MemberTable(TypeHierarchy.build(rootPackages, new TypeUniverse()));
+	}
+
+	private Member getMember(final List<Member> members, final String name) {
+		return members.stream().filter(m -> m.getSimpleName().equals(name)).findFirst().orElseThrow();
+	}
+
+	@Test
+	void getMembers() {
+		final CtType<?> sub = launcher.getFactory().Type().get("members.Sub");
+		final var members = memberTable.getMembers(sub);
+		assertEquals(Set.of("value", "generic", "count"),
+				members.stream().limit(3).map(Member::getSimpleName).collect(toUnmodifiableSet()));
+		assertEquals(1, members.stream().filter(m -> m.signature().equals("value()")).count());
+		assertTrue(members.stream().anyMatch(m -> m.getSimpleName().equals("list")));
+		assertTrue(members.stream().anyMatch(m -> m.getSimpleName().equals("util")));
+		assertTrue(members.stream().anyMatch(m -> m.getSimpleName().equals("hashCode")));
+		assertSame(members, memberTable.getMembers(sub));
+
+		assertTrue(getMember(members, "value").isPublic());
+		assertFalse(getMember(members, "value").isStatic());
+		assertTrue(getMember(members, "util").isStatic());
+		assertFalse(getMember(members, "generic").isPublic());
+	}
+
+	@Test
+	void returns() {
+		final var members = memberTable.getMembers(launcher.getFactory().Type().get("members.Sub"));
+		assertTrue(memberTable.returns(getMember(members, "value"), "java.util.ArrayList"));
+		assertTrue(memberTable.returns(getMember(members, "value"), "java.util.Collection"));
+		assertFalse(memberTable.returns(getMember(members, "value"), "java.util.Map"));
+		assertTrue(memberTable.returns(getMember(members, "list"), "java.util.List"));
+		assertEquals(-1, getMember(members, "generic").returnTypeId());
+		assertEquals(-1, getMember(members, "count").returnTypeId());
+		assertFalse(memberTable.returns(getMember(members, "count"), "java.lang.Object"));
+	}
+
+	@Test
+	void getObjectMethodNames() {
+		final var names = memberTable.getObjectMethodNames();
+		assertTrue(names.containsAll(List.of("hashCode", "equals", "toString", "getClass", "wait")));
+		assertSame(names, memberTable.getObjectMethodNames());
+	}
+
+}
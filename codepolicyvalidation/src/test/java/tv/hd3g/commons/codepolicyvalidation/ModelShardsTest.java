@@ -0,0 +1,134 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tv.hd3g.commons.codepolicyvalidation.ModelShards.SHARDS_PROPERTY;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.stereotype.Service;
+
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+
+class ModelShardsTest {
+
+	static final String SPRINGBOOT_DIR = "src/test/java/tv/hd3g/commons/codepolicyvalidation/springboot";
+
+	@AfterEach
+	void end() {
+		System.clearProperty(SHARDS_PROPERTY);
+	}
+
+	@Test
+	void getShardCount() {
+		assertEquals(1, ModelShards.getShardCount());
+		System.setProperty(SHARDS_PROPERTY, "4");
+		assertEquals(4, ModelShards.getShardCount());
+		System.setProperty(SHARDS_PROPERTY, "-1");
+		assertEquals(1, ModelShards.getShardCount());
+	}
+
+	@Test
+	void partition() {
+		final var shards = ModelShards.partition(List.of(
+				"/a/A1.java", "/a/A2.java", "/a/A3.java",
+				"/b/B1.java", "/b/B2.java",
+				"/c/C1.java", "/c/README.md"), 2);
+		assertEquals(List.of(
+				List.of("/a/A1.java", "/a/A2.java", "/a/A3.java"),
+				List.of("/b/B1.java", "/b/B2.java", "/c/C1.java")), shards);
+
+		assertEquals(1, ModelShards.partition(List.of("/a/A1.java", "/a/A2.java"), 8).size());
+		assertTrue(ModelShards.partition(List.of(), 8).isEmpty());
+	}
+
+	@Test
+	void globalInit_sameAsNotSharded() {
+		final var policies = new Policies();
+		Policies.globalInit(SPRINGBOOT_DIR);
+		final var referrers = Policies.referenceIndex.getReferrersByPrefix("");
+		final var services = typeNames(policies.searchByAnnotationInClass(Service.class));
+		final var matches = policies.getMatchMessages(CheckPolicy.ruleSuppressWarnings);
+
+		System.setProperty(SHARDS_PROPERTY, "3");
+		Policies.globalInit(SPRINGBOOT_DIR);
+		assertEquals(3, Policies.getModelShards().size());
+		assertEquals(referrers, Policies.referenceIndex.getReferrersByPrefix(""));
+		assertEquals(services, typeNames(policies.searchByAnnotationInClass(Service.class)));
+		assertEquals(matches, policies.getMatchMessages(CheckPolicy.ruleSuppressWarnings));
+		assertFalse(services.isEmpty());
+	}
+
+	private static List<String> typeNames(final List<CtType<?>> types) {
+		return types.stream()
+				.map(CtType::getQualifiedName)
+				.sorted()
+				.toList();
+	}
+
+	@Test
+	void globalInit_moduleClasspath(@TempDir final Path dir) throws IOException {
+		final var libSource = Files.createDirectories(dir.resolve("lib").resolve("lib")).resolve("Base.java");
+		Files.writeString(libSource, "package lib; public class Base { public void base() { } }");
+		final var classes = dir.resolve("classes");
+		final var compiler = ToolProvider.getSystemJavaCompiler();
+		assertEquals(0, compiler.run(null, null, null, "-d", classes.toString(), libSource.toString()));
+
+		final var sources = dir.resolve("src");
+		Files.writeString(Files.createDirectories(sources.resolve("app")).resolve("A.java"),
+				"package app; public class A extends lib.Base { }");
+		Files.writeString(Files.createDirectories(sources.resolve("other")).resolve("O.java"),
+				"package other; public class O { }");
+		System.setProperty(SHARDS_PROPERTY, "2");
+
+		Policies.globalInitModule(List.of(classes.toString()), null, sources.toString());
+		assertEquals(2, Policies.getModelShards().size());
+		assertEquals(List.of("base"), getSuperclassMethodNames("app.A"));
+
+		Policies.globalInit(sources.toString());
+		assertEquals(List.of(), getSuperclassMethodNames("app.A"));
+	}
+
+	private static List<String> getSuperclassMethodNames(final String typeName) {
+		final var type = Policies.getModelShards().stream()
+				.map(l -> l.getFactory().Type().<Object> get(typeName))
+				.filter(Objects::nonNull)
+				.findFirst()
+				.orElseThrow();
+		final var superclass = type.getSuperclass().getTypeDeclaration();
+		if (superclass == null) {
+			return List.of();
+		}
+		return superclass.getMethods().stream()
+				.map(CtMethod::getSimpleName)
+				.toList();
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyRunnerTest.KO;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyRunnerTest.OK;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestExecutionResult.Status;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+class PoliciesResourceLockTest {
+
+	static class OkPolicy extends CheckPolicy {
+		@BeforeAll
+		public static void globalInit() {
+			Policies.globalInit(OK);
+		}
+	}
+
+	static class KoPolicy extends CheckPolicy {
+		@BeforeAll
+		public static void globalInit() {
+			Policies.globalInit(KO);
+		}
+	}
+
+	/**
+	 * @return test display name -&gt; its status, for OkPolicy and KoPolicy
+	 */
+	private static Map<String, Status> run(final boolean parallel) {
+		return EngineTestKit.engine("junit-jupiter")
+				.configurationParameter("junit.jupiter.execution.parallel.enabled", String.valueOf(parallel))
+				.configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+				.configurationParameter("junit.jupiter.execution.parallel.mode.classes.default", "concurrent")
+				.configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed")
+				.configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism", "4")
+				.selectors(selectClass(OkPolicy.class), selectClass(KoPolicy.class))
+				.execute()
+				.testEvents()
+				.finished()
+				.stream()
+				.collect(toMap(
+						event -> event.getTestDescriptor().getUniqueId().toString(),
+						event -> event.getRequiredPayload(TestExecutionResult.class).getStatus(),
+						(l, r) -> l,
+						TreeMap::new));
+	}
+
+	@Test
+	void parallelPolicyClasses() {
+		final var serial = run(false);
+		final var okStatus = serial.entrySet().stream()
+				.filter(entry -> entry.getKey().contains("OkPolicy"))
+				.map(Map.Entry::getValue)
+				.distinct()
+				.toList();
+		assertEquals(List.of(Status.SUCCESSFUL), okStatus);
+		assertTrue(serial.entrySet().stream()
+				.anyMatch(entry -> entry.getKey().contains("KoPolicy") && entry.getValue() == Status.FAILED));
+
+		assertEquals(serial, run(true));
+	}
+
+}
@@ -0,0 +1,189 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyCache.CACHE_DIR_PROPERTY;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyCache.INCREMENTAL_PROPERTY;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tv.hd3g.commons.codepolicyvalidation.ReferenceIndex.Referrer;
+
+class PolicyCacheTest {
+
+	static final String KO_DIR = "src/test/java/tv/hd3g/commons/codepolicyvalidation/ko";
+
+	@TempDir
+	File cacheDir;
+
+	@BeforeEach
+	void init() {
+		System.setProperty(CACHE_DIR_PROPERTY, cacheDir.getPath());
+	}
+
+	@AfterEach
+	void end() {
+		System.clearProperty(CACHE_DIR_PROPERTY);
+	}
+
+	@Test
+	void disabled() {
+		System.clearProperty(CACHE_DIR_PROPERTY);
+		final var policyCache = PolicyCache.create(KO_DIR);
+		assertFalse(policyCache.isEnabled());
+		assertTrue(policyCache.loadSourceStates().isEmpty());
+		policyCache.putOutcome("key", null);
+		assertTrue(policyCache.getOutcome("key").isEmpty());
+	}
+
+	@Test
+	void loadSourceStates() {
+		Policies.globalInit(KO_DIR);
+		final var builded = Policies.referenceIndex;
+
+		final var policyCache = PolicyCache.create(KO_DIR);
+		final var loaded = policyCache.loadSourceStates();
+		assertTrue(loaded.isPresent());
+		assertTrue(policyCache.isUpToDate(loaded.get()));
+		assertEquals(policyCache.getFileHashes().keySet(), loaded.get().states().keySet());
+
+		final var loadedIndex = ReferenceIndex.build(loaded.get().states());
+		assertEquals(builded.getReferrersByPrefix(""), loadedIndex.getReferrersByPrefix(""));
+		assertEquals(builded.getReferenceCount(), loadedIndex.getReferenceCount());
+
+		Policies.globalInit(KO_DIR);
+		assertEquals(builded.getReferrersByPrefix(""), Policies.referenceIndex.getReferrersByPrefix(""));
+	}
+
+	@Test
+	void incrementalGlobalInit() throws IOException {
+		System.setProperty(INCREMENTAL_PROPERTY, "true");
+		try {
+			final var sourceDir = new File(cacheDir, "src");
+			final var packageDir = new File(sourceDir, "pkg");
+			packageDir.mkdirs();
+			final var sourceA = new File(packageDir, "A.java").toPath();
+			Files.writeString(sourceA, "package pkg; class A { void f() { throw new RuntimeException(); } }");
+			Files.writeString(new File(packageDir, "B.java").toPath(), "package pkg; class B { A a; }");
+			final var policies = new Policies();
+
+			Policies.globalInit(sourceDir.getPath());
+			assertEquals(Set.of("pkg.B"), referrerNames("pkg.A"));
+			assertEquals(1, policies.getMatchMessages(CheckPolicy.ruleRuntimeException).size());
+
+			Files.writeString(sourceA, "package pkg; class A { void f() { } }");
+			Files.writeString(new File(packageDir, "C.java").toPath(), "package pkg; class C { A a; }");
+			Policies.globalInit(sourceDir.getPath());
+			assertEquals(Set.of("pkg.B", "pkg.C"), referrerNames("pkg.A"));
+			assertTrue(policies.getMatchMessages(CheckPolicy.ruleRuntimeException).isEmpty());
+
+			final var incrementalReferrers = Policies.referenceIndex.getReferrersByPrefix("");
+			System.clearProperty(CACHE_DIR_PROPERTY);
+			Policies.globalInit(sourceDir.getPath());
+			assertEquals(Policies.referenceIndex.getReferrersByPrefix(""), incrementalReferrers);
+		} finally {
+			System.clearProperty(INCREMENTAL_PROPERTY);
+		}
+	}
+
+	@Test
+	void isUpToDate_byClasspath() {
+		Policies.globalInitModule(List.of("classpath-a"), null, KO_DIR);
+		final var cachedSources = PolicyCache.create(KO_DIR).loadSourceStates().orElseThrow();
+		assertTrue(PolicyCache.create(KO_DIR).isUpToDate(cachedSources));
+
+		Policies.globalInitModule(List.of("classpath-b"), null, KO_DIR);
+		assertFalse(PolicyCache.create(KO_DIR).isUpToDate(cachedSources));
+		Policies.globalInit(KO_DIR);
+		assertFalse(PolicyCache.create(KO_DIR).isUpToDate(cachedSources));
+	}
+
+	private static Set<String> referrerNames(final String name) {
+		return Policies.referenceIndex.getReferrers(name).stream()
+				.map(Referrer::qualifiedName)
+				.collect(toUnmodifiableSet());
+	}
+
+	@Test
+	void putOutcome() {
+		final var policyCache = PolicyCache.create(KO_DIR);
+		policyCache.putOutcome("passed", null);
+		policyCache.putOutcome("failed", new BadImportClass("name", "reason", "badClasses"));
+
+		final var reloaded = PolicyCache.create(KO_DIR);
+		assertTrue(reloaded.getOutcome("passed").get().passed());
+		final var failed = reloaded.getOutcome("failed").get();
+		assertFalse(failed.passed());
+		assertEquals(BadImportClass.class.getName(), failed.errorClassName());
+		assertTrue(failed.toError().getMessage().endsWith("name. You should use reason. badClasses"));
+		assertTrue(reloaded.getOutcome("never").isEmpty());
+	}
+
+	@Test
+	void computeFileHashes() throws IOException {
+		final var sourceDir = new File(cacheDir, "src");
+		sourceDir.mkdirs();
+		final var source = new File(sourceDir, "A.java");
+		Files.writeString(source.toPath(), "class A {}");
+		final var fileHashes = PolicyCache.computeFileHashes(sourceDir.getPath());
+		assertEquals(Set.of(source.getAbsoluteFile().toPath().normalize().toString()), fileHashes.keySet());
+		assertEquals(fileHashes, PolicyCache.computeFileHashes(sourceDir.getPath()));
+		final var fingerprint = PolicyCache.computeFingerprint("env", fileHashes);
+
+		Files.writeString(source.toPath(), "class A { }");
+		final var newFileHashes = PolicyCache.computeFileHashes(sourceDir.getPath());
+		assertNotEquals(fileHashes, newFileHashes);
+		assertNotEquals(fingerprint, PolicyCache.computeFingerprint("env", newFileHashes));
+		assertNotEquals(fingerprint, PolicyCache.computeFingerprint("otherEnv", fileHashes));
+	}
+
+	@Test
+	void getLibraryVersion() throws IOException {
+		final var classesDir = cacheDir.toPath().resolve("classes");
+		final var packageDir = classesDir.resolve(Policies.class.getPackageName().replace(".", File.separator));
+		Files.createDirectories(packageDir.resolve("sub"));
+		final var classFile = packageDir.resolve("sub").resolve("Any.class");
+		Files.writeString(classFile, "v1");
+		final var version = PolicyCache.getLibraryVersion(classesDir);
+		assertEquals(version, PolicyCache.getLibraryVersion(classesDir));
+		assertNotEquals(PolicyCache.getLibraryVersion(null), version);
+
+		Files.writeString(classFile, "v2");
+		assertNotEquals(version, PolicyCache.getLibraryVersion(classesDir));
+
+		final var jar = cacheDir.toPath().resolve("lib.jar");
+		Files.writeString(jar, "v1");
+		final var jarVersion = PolicyCache.getLibraryVersion(jar);
+		Files.writeString(jar, "v2");
+		assertNotEquals(jarVersion, PolicyCache.getLibraryVersion(jar));
+	}
+
+}
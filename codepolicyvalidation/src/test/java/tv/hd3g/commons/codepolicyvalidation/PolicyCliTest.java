@@ -0,0 +1,138 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyCli.EXIT_FAILED;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyCli.EXIT_OK;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyCli.EXIT_USAGE;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyRunnerTest.KO;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyRunnerTest.OK;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PolicyCliTest {
+
+	@TempDir
+	Path tempDir;
+	ByteArrayOutputStream output;
+
+	@AfterEach
+	void end() {
+		System.clearProperty(PolicyCache.CACHE_DIR_PROPERTY);
+		System.clearProperty(PolicyCache.INCREMENTAL_PROPERTY);
+		System.clearProperty(Baseline.BASELINE_PROPERTY);
+	}
+
+	private int run(final String... args) {
+		output = new ByteArrayOutputStream();
+		return PolicyCli.run(args, new PrintStream(output, true, UTF_8));
+	}
+
+	private String getOutput() {
+		return output.toString(UTF_8);
+	}
+
+	@Test
+	void usage() {
+		assertEquals(EXIT_USAGE, run());
+		assertTrue(getOutput().startsWith("Usage: "));
+		PolicyCli.USAGE.lines()
+				.filter(line -> line.strip().startsWith("--"))
+				.forEach(line -> {
+					assertTrue(line.startsWith("  --"), line);
+					assertEquals(' ', line.charAt(19), line);
+					assertTrue(line.charAt(20) != ' ', line);
+				});
+		assertEquals(EXIT_USAGE, run("--nope", OK));
+		assertEquals(EXIT_USAGE, run(OK, "--module"));
+		assertEquals(EXIT_USAGE, run("not/a/dir"));
+		assertEquals(EXIT_USAGE, run("--policy", "not.a.Class", OK));
+		assertEquals(EXIT_USAGE, run("--policy", String.class.getName(), OK));
+		assertEquals(EXIT_USAGE, run("--max-heap", "nope", "--serve", "0", OK));
+		assertEquals(EXIT_USAGE, run("--max-heap", "0", "--serve", "0", OK));
+		assertEquals(EXIT_USAGE, run("--max-heap", String.valueOf(Long.MAX_VALUE), "--serve", "0", OK));
+		assertTrue(getOutput().contains("Invalid value for --max-heap: " + Long.MAX_VALUE), this::getOutput);
+	}
+
+	@Test
+	void megabytesToBytes() {
+		assertEquals(1024L * 1024L, PolicyCli.megabytesToBytes(1));
+		assertEquals(0, PolicyCli.megabytesToBytes(Long.MAX_VALUE / 1024));
+	}
+
+	@Test
+	void writeBaselineWithDiff() {
+		final var baseline = tempDir.resolve("baseline.txt");
+		assertEquals(EXIT_USAGE, run("--write-baseline", baseline.toString(), "--diff", "HEAD", KO));
+		assertTrue(getOutput().startsWith("--write-baseline can't be used with --diff"), this::getOutput);
+		assertFalse(Files.exists(baseline));
+	}
+
+	@Test
+	void ok() throws IOException {
+		final var report = tempDir.resolve("report.txt");
+		assertEquals(EXIT_OK, run("--module", "ok", "--report", report.toString(), OK));
+		assertTrue(getOutput().startsWith("ok: "), this::getOutput);
+		assertTrue(getOutput().contains(" 0 failed"), this::getOutput);
+		assertEquals(getOutput(), Files.readString(report));
+	}
+
+	@Test
+	void ko() {
+		assertEquals(EXIT_FAILED, run("--module", "ko", KO));
+		assertTrue(getOutput().contains("FAIL noSysOutSysErr: "), this::getOutput);
+	}
+
+	@Test
+	void cache() {
+		final var cacheDir = tempDir.resolve("cache").toString();
+		assertEquals(EXIT_FAILED, run("--module", "ko", "--cache", cacheDir, KO));
+		assertEquals(EXIT_FAILED, run("--module", "ko", "--cache", cacheDir, KO));
+		assertTrue(getOutput().contains("FAIL noSysOutSysErr: (cached result"), this::getOutput);
+	}
+
+	@Test
+	void diffWithoutChanges() {
+		assertEquals(EXIT_OK, run("--module", "ko", "--diff", "HEAD", KO));
+		assertTrue(getOutput().startsWith("ko: no changed sources since HEAD"), this::getOutput);
+	}
+
+	@Test
+	void baseline() {
+		final var baseline = tempDir.resolve("baseline.txt").toString();
+		run("--module", "ko", "--write-baseline", baseline, KO);
+		assertTrue(getOutput().startsWith("ko: "), this::getOutput);
+		assertTrue(getOutput().contains(" violations recorded in "), this::getOutput);
+		assertFalse(getOutput().contains("FAIL noSysOutSysErr: "), this::getOutput);
+
+		assertEquals(EXIT_FAILED, run("--module", "ko", "--baseline", baseline, KO));
+		assertFalse(getOutput().contains("FAIL noSysOutSysErr: "), this::getOutput);
+	}
+
+}
@@ -0,0 +1,224 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyRunnerTest.KO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.Kind;
+
+class PolicyDaemonTest {
+
+	@TempDir
+	Path tempDir;
+	PolicyRunner runner;
+
+	@BeforeEach
+	void init() {
+		System.setProperty(PolicyCache.CACHE_DIR_PROPERTY, tempDir.resolve("cache").toString());
+		System.setProperty(PolicyCache.INCREMENTAL_PROPERTY, "true");
+		runner = new PolicyRunner(CheckPolicy::new, CheckPolicy.class);
+	}
+
+	@AfterEach
+	void end() {
+		System.clearProperty(PolicyCache.CACHE_DIR_PROPERTY);
+		System.clearProperty(PolicyCache.INCREMENTAL_PROPERTY);
+	}
+
+	private static CompletableFuture<Void> start(final PolicyDaemon daemon) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				daemon.serve();
+			} catch (final IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	@Test
+	void parseAddress() {
+		assertEquals(new InetSocketAddress("127.0.0.1", 1234), PolicyDaemon.parseAddress("1234"));
+		assertEquals(UnixDomainSocketAddress.of("/tmp/codepolicy.sock"),
+				PolicyDaemon.parseAddress("/tmp/codepolicy.sock"));
+	}
+
+	@Test
+	void checkStatusStop() throws IOException {
+		final var daemon = new PolicyDaemon(runner, "ko", List.of(KO), PolicyDaemon.parseAddress("0"),
+				Duration.ofMinutes(1), PolicyDaemon.DEFAULT_MAX_HEAP_BYTES);
+		final var served = start(daemon);
+		final var address = daemon.getLocalAddress();
+
+		final var all = PolicyDaemon.request(address, "CHECK");
+		assertTrue(all.get(0).startsWith("ko: "), all::toString);
+		assertTrue(all.stream().anyMatch(line -> line.startsWith("FAIL noSysOutSysErr: ")), all::toString);
+		final var classNameFailure = "FAIL classExtendsCheckPolicyNamesMustEndsByTest: ";
+		assertTrue(all.stream().anyMatch(line -> line.startsWith(classNameFailure)));
+
+		final var touched = PolicyDaemon.request(address, "CHECK " + KO + "/BadClass.java");
+		assertTrue(touched.stream().anyMatch(line -> line.startsWith("FAIL noSysOutSysErr: ")), touched::toString);
+		assertFalse(touched.stream().anyMatch(line -> line.startsWith(classNameFailure)));
+		assertTrue(touched.stream().skip(1).allMatch(line -> line.contains("BadClass")), touched::toString);
+
+		final var status = PolicyDaemon.request(address, "STATUS");
+		assertEquals("module ko", status.get(0));
+		assertEquals("requests 3", status.get(2));
+		assertTrue(PolicyDaemon.request(address, "NOPE").get(0).startsWith("ERROR"));
+
+		assertEquals(List.of("BYE"), PolicyDaemon.request(address, "STOP"));
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> served.join());
+	}
+
+	@Test
+	void checkTouchedLines() throws IOException {
+		final var sourceDir = Files.createDirectories(tempDir.resolve("src").resolve("touched"));
+		for (final String name : List.of("Alpha", "Beta")) {
+			Files.writeString(sourceDir.resolve(name + ".java"), """
+					package touched;
+					public class NAME {
+						void run() {
+							System.out.println("run");
+						}
+					}
+					""".replace("NAME", name));
+		}
+		final var daemon = new PolicyDaemon(runner, "touched", List.of(tempDir.resolve("src").toString()),
+				PolicyDaemon.parseAddress("0"), Duration.ofMinutes(1), PolicyDaemon.DEFAULT_MAX_HEAP_BYTES);
+		final var served = start(daemon);
+
+		final var touched = PolicyDaemon.request(daemon.getLocalAddress(), "CHECK " + sourceDir.resolve("Beta.java"));
+		assertEquals(List.of("FAIL noSysOutSysErr: Don't use sys.out/sys.err in touched.Beta.run() Beta.java:4"),
+				touched.subList(1, touched.size()));
+
+		assertEquals(List.of("BYE"), PolicyDaemon.request(daemon.getLocalAddress(), "STOP"));
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> served.join());
+	}
+
+	private static List<String> getPhases(final String name) {
+		return Policies.metrics.getMeasures().stream()
+				.filter(measure -> measure.kind() == Kind.PHASE)
+				.filter(measure -> measure.name().equals(name))
+				.map(measure -> measure.name() + " " + measure.nodes())
+				.toList();
+	}
+
+	@Test
+	void checkResidentModel() throws IOException {
+		final var sourceDir = Files.createDirectories(tempDir.resolve("src").resolve("resident"));
+		for (final String name : List.of("Alpha", "Beta")) {
+			Files.writeString(sourceDir.resolve(name + ".java"), """
+					package resident;
+					public class NAME {
+					}
+					""".replace("NAME", name));
+		}
+		final var daemon = new PolicyDaemon(runner, "resident", List.of(tempDir.resolve("src").toString()),
+				PolicyDaemon.parseAddress("0"), Duration.ofMinutes(1), PolicyDaemon.DEFAULT_MAX_HEAP_BYTES);
+		final var served = start(daemon);
+		final var address = daemon.getLocalAddress();
+
+		final var unchanged = PolicyDaemon.request(address, "CHECK");
+		assertTrue(unchanged.get(0).startsWith("resident: "), unchanged::toString);
+		assertEquals(1, unchanged.size(), unchanged::toString);
+		assertEquals(List.of(), getPhases("globalInit"));
+		assertEquals(List.of(), getPhases("parse"));
+		assertEquals(List.of("update 0"), getPhases("update"));
+
+		final var beta = sourceDir.resolve("Beta.java");
+		Files.writeString(beta, """
+				package resident;
+				public class Beta {
+					void run() {
+						System.out.println("run");
+					}
+				}
+				""");
+		final var touched = PolicyDaemon.request(address, "CHECK " + beta);
+		assertEquals(List.of("FAIL noSysOutSysErr: Don't use sys.out/sys.err in resident.Beta.run() Beta.java:4"),
+				touched.subList(1, touched.size()));
+		assertEquals(List.of(), getPhases("globalInit"));
+		assertEquals(List.of("parse 1"), getPhases("parse"));
+		assertEquals(List.of("update 1"), getPhases("update"));
+
+		assertEquals(List.of("BYE"), PolicyDaemon.request(address, "STOP"));
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> served.join());
+	}
+
+	@Test
+	void requestTimeout() throws IOException {
+		final var daemon = new PolicyDaemon(runner, "ko", List.of(KO), PolicyDaemon.parseAddress("0"),
+				Duration.ofMinutes(1), PolicyDaemon.DEFAULT_MAX_HEAP_BYTES, Duration.ofMillis(200));
+		final var served = start(daemon);
+		final var address = daemon.getLocalAddress();
+
+		try (var silent = SocketChannel.open(address)) {
+			final var status = assertTimeoutPreemptively(Duration.ofSeconds(10),
+					() -> PolicyDaemon.request(address, "STATUS"));
+			assertEquals("requests 1", status.get(2));
+			final var in = new BufferedReader(new InputStreamReader(Channels.newInputStream(silent), UTF_8));
+			assertEquals("ERROR request timeout", in.readLine());
+			assertEquals(PolicyDaemon.END, in.readLine());
+		}
+
+		assertEquals(List.of("BYE"), PolicyDaemon.request(address, "STOP"));
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> served.join());
+	}
+
+	@Test
+	void idleTimeout() throws IOException {
+		final var daemon = new PolicyDaemon(runner, "ko", List.of(KO), PolicyDaemon.parseAddress("0"),
+				Duration.ofMillis(100), PolicyDaemon.DEFAULT_MAX_HEAP_BYTES);
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> start(daemon).join());
+	}
+
+	@Test
+	void memoryCap() throws IOException {
+		final var socket = tempDir.resolve("daemon.sock");
+		final var daemon = new PolicyDaemon(runner, "ko", List.of(KO), UnixDomainSocketAddress.of(socket),
+				Duration.ofMinutes(1), 1);
+		final var served = start(daemon);
+
+		final var response = PolicyDaemon.request(daemon.getLocalAddress(), "CHECK");
+		assertEquals("BYE memory cap", response.get(response.size() - 1));
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> served.join());
+		assertFalse(socket.toFile().exists());
+	}
+
+}
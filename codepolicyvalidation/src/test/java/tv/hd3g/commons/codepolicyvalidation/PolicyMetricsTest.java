@@ -0,0 +1,112 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.METRICS_FILE_PROPERTY;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.Kind.PHASE;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.Kind.RULE;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.Measure;
+
+class PolicyMetricsTest {
+
+	static final String KO_DIR = "src/test/java/tv/hd3g/commons/codepolicyvalidation/ko";
+
+	@TempDir
+	File tempDir;
+
+	@AfterEach
+	void end() {
+		System.clearProperty(METRICS_FILE_PROPERTY);
+	}
+
+	@Test
+	void globalInit() {
+		Policies.globalInit(KO_DIR);
+		final var policies = new CheckPolicy();
+		policies.getMatches(CheckPolicy.ruleRuntimeException);
+
+		final var metrics = policies.getMetrics();
+		assertFalse(metrics.isEnabled());
+		final var phases = metrics.getTotals().stream()
+				.filter(m -> m.kind() == PHASE)
+				.map(Measure::name)
+				.toList();
+		assertTrue(phases.containsAll(List.of("parse", "usedTypes", "referenceIndex", "globalInit", "ruleWalk")));
+
+		final var rules = metrics.getTotals().stream()
+				.filter(m -> m.kind() == RULE)
+				.toList();
+		assertEquals(policies.getElementRules().size(), rules.size());
+		final var runtimeException = rules.stream()
+				.filter(m -> m.name().equals(CheckPolicy.ruleRuntimeException.getName()))
+				.findFirst()
+				.orElseThrow();
+		assertEquals(policies.getMatches(CheckPolicy.ruleRuntimeException).size(), runtimeException.nodes());
+		assertEquals(-1, runtimeException.wallNanos());
+	}
+
+	@Test
+	void getTotals() {
+		final var metrics = new PolicyMetrics();
+		metrics.add(new Measure(PHASE, "parse", 10, 5, 100, 1));
+		metrics.add(new Measure(RULE, "rule", 1, -1, -1, 3));
+		metrics.add(new Measure(PHASE, "parse", 20, 5, 100, 2));
+		assertEquals(List.of(
+				new Measure(PHASE, "parse", 30, 10, 200, 3),
+				new Measure(RULE, "rule", 1, -1, -1, 3)), metrics.getTotals());
+		assertTrue(metrics.getSummary().contains("parse"));
+
+		assertEquals(List.of(2), metrics.measure(PHASE, "other", () -> List.of(2), List::size));
+		assertEquals(1, metrics.getMeasures().get(3).nodes());
+		assertTrue(metrics.getMeasures().get(3).wallNanos() >= 0);
+	}
+
+	@Test
+	void report() throws IOException {
+		final var file = new File(tempDir, "metrics.txt");
+		System.setProperty(METRICS_FILE_PROPERTY, file.getPath());
+		Policies.globalInit(KO_DIR);
+		final var policies = new CheckPolicy();
+		policies.getMatches(CheckPolicy.ruleRuntimeException);
+		final var metrics = policies.getMetrics();
+		assertTrue(metrics.isEnabled());
+		assertTrue(metrics.getTotals().stream()
+				.filter(m -> m.kind() == RULE)
+				.allMatch(m -> m.wallNanos() >= 0));
+
+		metrics.report("title");
+		metrics.report("title2");
+		final var content = Files.readString(file.toPath());
+		assertTrue(content.startsWith("# title"));
+		assertTrue(content.contains("# title2"));
+		assertTrue(content.contains("ruleWalk"));
+	}
+
+}
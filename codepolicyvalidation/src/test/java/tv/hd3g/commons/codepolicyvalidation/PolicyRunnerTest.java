@@ -0,0 +1,337 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import spoon.reflect.declaration.CtType;
+
+class PolicyRunnerTest {
+
+	static final String OK = "src/test/java/tv/hd3g/commons/codepolicyvalidation/ok";
+	static final String KO = "src/test/java/tv/hd3g/commons/codepolicyvalidation/ko";
+
+	@Test
+	void getTestNames() {
+		final var testNames = new PolicyRunner(CheckPolicy::new, CheckPolicy.class).getTestNames();
+		assertTrue(testNames.contains("noSysOutSysErr"));
+		assertTrue(testNames.contains("springBootServiceBadName"));
+		assertEquals(testNames.stream().sorted().toList(), testNames);
+	}
+
+	@Test
+	void check() {
+		final var runner = new PolicyRunner(CheckPolicy::new, CheckPolicy.class);
+		final var ok = runner.check("ok", List.of(OK));
+		assertTrue(ok.isSuccess(), ok::toText);
+		assertEquals(runner.getTestNames(), ok.passedTests());
+
+		final var ko = runner.check("ko", List.of(KO));
+		assertFalse(ko.isSuccess());
+		assertTrue(ko.failuresByTest().containsKey("noSysOutSysErr"));
+		assertTrue(ko.failuresByTest().containsKey("noOptionalOf"));
+		assertEquals(runner.getTestNames().size(), ko.passedTests().size() + ko.failuresByTest().size());
+	}
+
+	@Test
+	void of() {
+		final var runner = PolicyRunner.of(CheckPolicy.class);
+		assertEquals(new PolicyRunner(CheckPolicy::new, CheckPolicy.class).getTestNames(), runner.getTestNames());
+		final var ok = runner.check("ok", List.of(OK));
+		assertTrue(ok.isSuccess(), ok::toText);
+
+		final var noDefaultConstructor = PolicyRunner.of(NoDefaultConstructorPolicy.class);
+		final var inputResources = List.of(OK);
+		assertThrows(IllegalStateException.class, () -> noDefaultConstructor.check("ok", inputResources));
+	}
+
+	static class NoDefaultConstructorPolicy extends CheckPolicy {
+		NoDefaultConstructorPolicy(final String name) {
+			Objects.requireNonNull(name);
+		}
+	}
+
+	@Test
+	void check_parallelModules() throws InterruptedException, ExecutionException {
+		final var runner = new PolicyRunner(CheckPolicy::new, CheckPolicy.class);
+		final var expected = Map.of(
+				"ok", runner.check("ok", List.of(OK)).failuresByTest(),
+				"ko", runner.check("ko", List.of(KO)).failuresByTest());
+
+		final var executor = Executors.newFixedThreadPool(4);
+		try {
+			final var futures = new ArrayList<Future<ModuleReport>>();
+			for (var pos = 0; pos < 4; pos++) {
+				futures.add(executor.submit(() -> runner.check("ok", List.of(OK))));
+				futures.add(executor.submit(() -> runner.check("ko", List.of(KO))));
+			}
+			for (final Future<ModuleReport> future : futures) {
+				final var report = future.get();
+				assertEquals(expected.get(report.module()), report.failuresByTest());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void sortByDependencies() {
+		final var app = new PolicyModule("app", List.of(), List.of("service", "api"));
+		final var service = new PolicyModule("service", List.of(), List.of("api"));
+		final var api = new PolicyModule("api", List.of(), List.of());
+		final var tools = new PolicyModule("tools", List.of(), List.of());
+
+		assertEquals(List.of(api, service, app, tools),
+				PolicyRunner.sortByDependencies(List.of(app, service, api, tools)));
+		assertThrows(IllegalArgumentException.class,
+				() -> PolicyRunner.sortByDependencies(List.of(app, service)));
+		final var cycle = new PolicyModule("api", List.of(), List.of("app"));
+		assertThrows(IllegalArgumentException.class,
+				() -> PolicyRunner.sortByDependencies(List.of(app, service, cycle)));
+	}
+
+	private static void write(final Path dir, final String className, final String content) throws IOException {
+		final var file = dir.resolve(className.replace('.', '/') + ".java");
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, content);
+	}
+
+	private static void writeServiceModules(final Path apiDir, final Path appDir) throws IOException {
+		write(apiDir, "aggregate.api.service.BaseService", """
+				package aggregate.api.service;
+				public interface BaseService {
+				}
+				""");
+		write(apiDir, "aggregate.api.service.AbstractBaseService", """
+				package aggregate.api.service;
+				public abstract class AbstractBaseService implements BaseService {
+				}
+				""");
+		write(appDir, "aggregate.app.service.OrderServiceImpl", """
+				package aggregate.app.service;
+				import org.springframework.stereotype.Service;
+				import aggregate.api.service.AbstractBaseService;
+				@Service
+				public class OrderServiceImpl extends AbstractBaseService {
+				}
+				""");
+	}
+
+	/**
+	 * The service interface is only known from the api module: it's not in the app model, nor in the classpath.
+	 */
+	@Test
+	void checkAll(@TempDir final Path dir) throws IOException {
+		final var apiDir = dir.resolve("api");
+		final var appDir = dir.resolve("app");
+		writeServiceModules(apiDir, appDir);
+		final var runner = new PolicyRunner(CheckPolicy::new, CheckPolicy.class);
+		final var app = new PolicyModule("app", List.of(appDir.toString()), List.of("api"));
+		final var api = new PolicyModule("api", List.of(apiDir.toString()), List.of());
+
+		final var alone = runner.check("app", app.inputResources());
+		assertEquals(Set.of("springBootServiceDontImplInterface"), alone.failuresByTest().keySet());
+
+		final var reports = runner.checkAll(List.of(app, api));
+		assertEquals(List.of("api", "app"), reports.stream().map(ModuleReport::module).toList());
+		assertTrue(reports.stream().allMatch(ModuleReport::isSuccess), () -> reports.get(1).toText());
+	}
+
+	/**
+	 * The api module is unchanged: its types are added to the TypeUniverse from its cached source states, without
+	 * parse it again.
+	 */
+	@Test
+	void checkAll_cachedUniverse(@TempDir final Path dir) throws IOException {
+		final var apiDir = dir.resolve("api");
+		final var appDir = dir.resolve("app");
+		writeServiceModules(apiDir, appDir);
+		final var metricsFile = dir.resolve("metrics.txt");
+		System.setProperty(PolicyCache.CACHE_DIR_PROPERTY, dir.resolve("cache").toString());
+		System.setProperty(PolicyMetrics.METRICS_FILE_PROPERTY, metricsFile.toString());
+		try {
+			final var runner = new PolicyRunner(CheckPolicy::new, CheckPolicy.class);
+			final var modules = List.of(
+					new PolicyModule("app", List.of(appDir.toString()), List.of("api")),
+					new PolicyModule("api", List.of(apiDir.toString()), List.of()));
+			assertTrue(runner.checkAll(modules).stream().allMatch(ModuleReport::isSuccess));
+			assertEquals(List.of("api", "app"), getParsedModules(metricsFile));
+
+			Files.delete(metricsFile);
+			Files.writeString(appDir.resolve("aggregate/app/service/OrderServiceImpl.java"), """
+					package aggregate.app.service;
+					import org.springframework.stereotype.Service;
+					import aggregate.api.service.AbstractBaseService;
+					@Service
+					public class OrderServiceImpl extends AbstractBaseService {
+						void run() {
+						}
+					}
+					""");
+			final var reports = runner.checkAll(modules);
+			assertTrue(reports.stream().allMatch(ModuleReport::isSuccess), () -> reports.get(1).toText());
+			assertEquals(List.of("app"), getParsedModules(metricsFile));
+		} finally {
+			System.clearProperty(PolicyCache.CACHE_DIR_PROPERTY);
+			System.clearProperty(PolicyMetrics.METRICS_FILE_PROPERTY);
+		}
+	}
+
+	/**
+	 * @return the modules with a "parse" phase, from a PolicyMetrics file
+	 */
+	private static List<String> getParsedModules(final Path metricsFile) throws IOException {
+		final var parsed = new ArrayList<String>();
+		String module = null;
+		for (final var line : Files.readAllLines(metricsFile)) {
+			if (line.startsWith("# ")) {
+				module = line.substring(2);
+			} else if (line.matches("PHASE\\s+parse\\s.*")) {
+				parsed.add(module);
+			}
+		}
+		return parsed;
+	}
+
+	/**
+	 * Each violation is kept by its own file and line, even if the failure message joins them on one line.
+	 */
+	@Test
+	@ResourceLock(Policies.STATE_LOCK)
+	void check_gitDiffScope(@TempDir final Path dir) throws IOException {
+		final var classBody = """
+				package diff;
+				import org.junit.Assert;
+				public class %s {
+					void a() {
+						System.out.println(Assert.class);
+					}
+					void b() {
+						System.out.println();
+					}
+				}
+				""";
+		write(dir, "diff.Changed", classBody.formatted("Changed"));
+		write(dir, "diff.Untracked", classBody.formatted("Untracked"));
+		write(dir, "diff.Unchanged", classBody.formatted("Unchanged"));
+		final var diff = GitDiff.parse(dir, """
+				+++ b/diff/Changed.java
+				@@ -8 +8 @@ class Changed {
+				""", "diff/Untracked.java");
+
+		final var runner = new PolicyRunner(CheckPolicy::new, CheckPolicy.class);
+		final ModuleReport report;
+		try (var scope = diff.scope()) {
+			report = runner.check("diff", List.of(dir.toString()));
+		}
+		final var sysOut = report.failuresByTest().get("noSysOutSysErr");
+		assertEquals(3, sysOut.lines().count(), sysOut);
+		assertTrue(sysOut.contains("Changed.java:8"), sysOut);
+		assertFalse(sysOut.contains("Changed.java:5"), sysOut);
+		assertFalse(sysOut.contains("Unchanged"), sysOut);
+
+		final var oldJunitAssert = report.failuresByTest().get("notOldJunitAssert");
+		assertTrue(oldJunitAssert.contains("diff.Changed"), oldJunitAssert);
+		assertTrue(oldJunitAssert.contains("diff.Untracked"), oldJunitAssert);
+		assertFalse(oldJunitAssert.contains("diff.Unchanged"), oldJunitAssert);
+	}
+
+	@Test
+	void recheck(@TempDir final Path dir) throws IOException {
+		write(dir, "recheck.service.OrderService", """
+				package recheck.service;
+				public interface OrderService {
+				}
+				""");
+		final var serviceImpl = """
+				package recheck.service;
+				import org.springframework.stereotype.Service;
+				@Service
+				public class OrderServiceImpl implements OrderService {
+				}
+				""";
+		write(dir, "recheck.service.OrderServiceImpl", serviceImpl);
+		write(dir, "recheck.Tool", """
+				package recheck;
+				public class Tool {
+				}
+				""");
+		final var runner = new PolicyRunner(CheckPolicy::new, CheckPolicy.class);
+		final var first = runner.check("recheck", List.of(dir.toString()));
+		assertTrue(first.isSuccess(), first::toText);
+		final var model = Policies.getModelShards().get(0);
+
+		final var tool = dir.resolve("recheck/Tool.java");
+		write(dir, "recheck.Tool", """
+				package recheck;
+				public class Tool {
+					void run() {
+						System.out.println("run");
+					}
+				}
+				""");
+		final var sysOut = runner.recheck("recheck", List.of(tool.toString()));
+		assertEquals(Set.of("noSysOutSysErr"), sysOut.failuresByTest().keySet());
+		assertTrue(sysOut.failuresByTest().get("noSysOutSysErr").contains("recheck.Tool.run()"));
+
+		write(dir, "recheck.service.OrderServiceImpl", serviceImpl.replace(" implements OrderService", ""));
+		final var noInterface = runner.recheck("recheck",
+				List.of(dir.resolve("recheck/service/OrderServiceImpl.java").toString()));
+		assertEquals(Set.of("noSysOutSysErr", "springBootServiceDontImplInterface"),
+				noInterface.failuresByTest().keySet());
+
+		Files.delete(tool);
+		write(dir, "recheck.service.OrderServiceImpl", serviceImpl);
+		final var last = runner.recheck("recheck",
+				List.of(tool.toString(), dir.resolve("recheck/service/OrderServiceImpl.java").toString()));
+		assertTrue(last.isSuccess(), last::toText);
+		assertSame(model, Policies.getModelShards().get(0));
+		assertEquals(List.of("recheck.service.OrderService", "recheck.service.OrderServiceImpl"),
+				model.getModel().getAllTypes().stream().map(CtType::getQualifiedName).sorted().toList());
+	}
+
+	@Test
+	void writeReport(@TempDir final Path dir) throws IOException {
+		final var report = new ModuleReport("module", List.of("passed"), Map.of("failed", "Bad thing"), 12);
+		final var file = dir.resolve("codepolicy").resolve("report.txt");
+		report.write(file);
+		assertEquals(report.toText(), Files.readString(file));
+		assertEquals(List.of("module: 2 tests, 1 failed, in 12 ms", "FAIL failed: Bad thing"),
+				Files.readAllLines(file));
+	}
+
+}
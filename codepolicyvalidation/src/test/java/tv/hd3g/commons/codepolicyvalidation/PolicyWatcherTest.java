@@ -0,0 +1,105 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PolicyWatcherTest {
+
+	@TempDir
+	Path sourceDir;
+
+	static final String CLEAN = """
+			package watched;
+			public class Watched {
+				void run() {
+				}
+			}
+			""";
+	static final String SYS_OUT = """
+			package watched;
+			public class Watched {
+				void run() {
+					System.out.println("run");
+				}
+			}
+			""";
+
+	@Test
+	void toViolations() {
+		final var report = new ModuleReport("module", List.of(), Map.of(
+				"a", "(cached result, java.lang.AssertionError) one\ntwo",
+				"b", "three"), 0);
+		assertEquals(Set.of("a: one", "a: two", "b: three"), PolicyWatcher.toViolations(report));
+	}
+
+	private static String next(final BlockingQueue<String> lines) throws InterruptedException {
+		final var line = lines.poll(30, TimeUnit.SECONDS);
+		assertTrue(line != null, "No more output");
+		return line;
+	}
+
+	@Test
+	void watch() throws IOException, InterruptedException {
+		final var packageDir = Files.createDirectories(sourceDir.resolve("watched"));
+		final var file = packageDir.resolve("Watched.java");
+		Files.writeString(file, CLEAN);
+		final var lines = new LinkedBlockingQueue<String>();
+		final var runner = new PolicyRunner(CheckPolicy::new, CheckPolicy.class);
+
+		try (var watcher = new PolicyWatcher(runner, "watched", List.of(sourceDir.toString()),
+				Duration.ofMillis(200), lines::add)) {
+			final var watching = CompletableFuture.runAsync(() -> {
+				try {
+					watcher.watch();
+				} catch (final IOException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			assertTrue(next(lines).startsWith("watched: 0 violations (+0 -0)"));
+
+			Files.writeString(file, SYS_OUT);
+			assertTrue(next(lines).startsWith("+ noSysOutSysErr: "));
+			assertTrue(next(lines).startsWith("watched: 1 violations (+1 -0)"));
+
+			Files.writeString(file, CLEAN);
+			assertTrue(next(lines).startsWith("- noSysOutSysErr: "));
+			assertTrue(next(lines).startsWith("watched: 0 violations (+0 -1)"));
+
+			watcher.close();
+			assertTimeoutPreemptively(Duration.ofSeconds(10), () -> watching.join());
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tv.hd3g.commons.codepolicyvalidation.ReferenceIndex.Referrer;
+
+class ReferenceIndexTest {
+
+	static final String BAD_CLASS = "tv.hd3g.commons.codepolicyvalidation.ko.BadClass";
+	static ReferenceIndex referenceIndex;
+
+	@BeforeAll
+	static void globalInit() {
+		Policies.globalInit("src/test/java/tv/hd3g/commons/codepolicyvalidation/ko");
+		referenceIndex = new Policies().getReferenceIndex();
+	}
+
+	@Test
+	void getReferrers() {
+		final var referrers = referenceIndex.getReferrers("org.junit.Assert");
+		assertEquals(1, referrers.size());
+		final var referrer = referrers.iterator().next();
+		assertEquals(BAD_CLASS, referrer.qualifiedName());
+		assertEquals(new File("src/test/java/tv/hd3g/commons/codepolicyvalidation/ko/BadClass.java")
+				.getAbsoluteFile(), referrer.sourceFile().getAbsoluteFile());
+
+		assertEquals(Set.of(), referenceIndex.getReferrers("this.is.not.Referenced"));
+	}
+
+	@Test
+	void getReferrersByPrefix() {
+		final var byPrefix = referenceIndex.getReferrersByPrefix("org.apache.commons.");
+		assertEquals(Set.of(
+				"org.apache.commons.collections.ThisClassIsFromAnOlderPackage",
+				"org.apache.commons.lang.ThisClassIsFromAn2OlderPackage"), byPrefix.keySet());
+		assertTrue(byPrefix.values().stream()
+				.flatMap(Set::stream)
+				.map(Referrer::qualifiedName)
+				.allMatch(BAD_CLASS::equals));
+
+		assertTrue(referenceIndex.getReferrersByPrefix("org.apache.commons.lang3.").isEmpty());
+		assertEquals(referenceIndex.getReferencedNames(), referenceIndex.getReferrersByPrefix("").keySet());
+	}
+
+	@Test
+	void getReferenceCount() {
+		final var count = referenceIndex.getReferencedNames().stream()
+				.map(referenceIndex::getReferrers)
+				.mapToInt(Set::size)
+				.sum();
+		assertEquals(count, referenceIndex.getReferenceCount());
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import spoon.reflect.code.CtThrow;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+class RuleEngineTest {
+
+	static final ElementRule<CtThrow> allThrows = new ElementRule<>("allThrows", CtThrow.class, t -> true,
+			Object::toString);
+	static final ElementRule<CtThrow> badRule = new ElementRule<>("badRule", CtThrow.class, t -> {
+		throw new IllegalStateException("Bad rule");
+	}, Object::toString);
+
+	static final ElementRule<CtElement> allElements = new ElementRule<>("allElements", CtElement.class, t -> true,
+			Object::toString);
+
+	static RuleEngine ruleEngine;
+
+	@BeforeAll
+	static void globalInit() {
+		Policies.globalInit("src/test/java/tv/hd3g/commons/codepolicyvalidation/ko");
+		ruleEngine = new RuleEngine(Policies.getLauncher().getFactory().Package().getRootPackage());
+	}
+
+	@Test
+	void getMatches() {
+		final var expected = Policies.getLauncher().getFactory().Package().getRootPackage()
+				.getElements(new TypeFilter<>(CtThrow.class));
+		assertFalse(expected.isEmpty());
+
+		final var matches = ruleEngine.getMatches(allThrows, List.of(CheckPolicy.ruleRuntimeException));
+		assertEquals(expected, matches);
+		assertEquals(matches, ruleEngine.getMatches(allThrows, List.of()));
+		assertTrue(expected.containsAll(ruleEngine.getMatches(CheckPolicy.ruleRuntimeException, List.of())));
+	}
+
+	@Test
+	void getMatches_parallel() {
+		final var snapshot = new ModelSnapshot(List.of(Policies.getLauncher().getFactory().Package().getRootPackage()));
+		final var expected = new RuleEngine(snapshot, 1, new PolicyMetrics()).getMatches(allElements, List.of(allThrows));
+		final var parallelEngine = new RuleEngine(snapshot, 4, new PolicyMetrics());
+		final var matches = parallelEngine.getMatches(allElements, List.of(allThrows, badRule));
+
+		assertEquals(expected.size(), matches.size());
+		for (var pos = 0; pos < expected.size(); pos++) {
+			assertSame(expected.get(pos), matches.get(pos));
+		}
+		assertEquals(ruleEngine.getMatches(allThrows, List.of()), parallelEngine.getMatches(allThrows, List.of()));
+		assertThrows(IllegalStateException.class, () -> parallelEngine.getMatches(badRule, List.of()));
+	}
+
+	@Test
+	void getMatches_failedRule() {
+		assertThrows(IllegalStateException.class, () -> ruleEngine.getMatches(badRule, List.of(allThrows)));
+		assertFalse(ruleEngine.getMatches(allThrows, List.of()).isEmpty());
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+class SourceLocationTest {
+
+	static final String BAD_CLASS = "tv.hd3g.commons.codepolicyvalidation.ko.BadClass";
+
+	static CtType<?> badClass;
+
+	@BeforeAll
+	static void globalInit() {
+		Policies.globalInit("src/test/java/tv/hd3g/commons/codepolicyvalidation/ko");
+		badClass = Policies.getLauncher().getFactory().Type().get(BAD_CLASS);
+	}
+
+	@Test
+	void method() {
+		final var sysOut = badClass.getMethod("a").getElements(new TypeFilter<>(CtInvocation.class)).stream()
+				.filter(i -> i.toString().contains("System.out"))
+				.findFirst()
+				.orElseThrow();
+		final var location = SourceLocation.of(sysOut);
+		assertEquals("BadClass.java", location.getFileName());
+		assertEquals(61, location.getLine());
+		assertTrue(location.getColumn() > 0);
+		assertEquals(BAD_CLASS + ".a() BadClass.java:61", location.toString());
+		assertEquals(location.toString(), Policies.pathElementToString(sysOut));
+	}
+
+	@Test
+	void field() {
+		final var annotation = badClass.getField("var1").getAnnotations().get(0);
+		assertEquals(BAD_CLASS + ".var1 (BadClass.java:43)", SourceLocation.of(annotation).toString());
+	}
+
+	@Test
+	void type() {
+		final var location = SourceLocation.of(badClass);
+		assertEquals(BAD_CLASS, location.getDeclarationName());
+		assertEquals(BAD_CLASS + " BadClass.java:" + location.getLine(), location.toString());
+	}
+
+	@Test
+	void namesByCompilationUnit() {
+		final var method = badClass.getMethod("b");
+		assertSame(SourceLocation.of(method).getDeclarationName(), SourceLocation.of(method).getDeclarationName());
+	}
+
+	@Test
+	void unknown() {
+		final var location = SourceLocation.of(badClass.getFactory().createLiteral(1));
+		assertEquals("", location.getFileName());
+		assertEquals(-1, location.getLine());
+		assertEquals(-1, location.getColumn());
+		assertEquals("", location.toString());
+	}
+
+}
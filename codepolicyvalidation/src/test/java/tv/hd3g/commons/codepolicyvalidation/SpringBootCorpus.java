@@ -0,0 +1,479 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Write a synthetic Spring Boot project, for test and benchmark CheckPolicy on big code bases.
+ * Each feature is a layered set of classes: an Entity, a Spring Data Repository, a Service interface and its
+ * implementation, a Component and a RestController. The features are grouped by modules (one package tree by module).
+ * Each Violation is injected in a feature with its density (0 for never, 1 for always), with a seeded random: the
+ * same seed always write the same corpus. The violations which hide an other one (like a not annotated Service for
+ * the Service naming checks) are never injected together in the same feature.
+ */
+class SpringBootCorpus {
+
+	static final int CLASSES_BY_FEATURE = 6;
+	static final int FEATURES_BY_MODULE = 100;
+
+	/**
+	 * A CheckPolicy test failure, and where it's injected.
+	 */
+	enum Violation {
+		SYS_OUT("noSysOutSysErr"),
+		PRINT_STACK_TRACE("noSimplePrintStackTrace"),
+		OPTIONAL_OF("noOptionalOf"),
+		ILLEGAL_ARGUMENT_WO_MESSAGE("noIllegalArgumentExceptionWOConstructor"),
+		RUNTIME_EXCEPTION("noRuntimeException"),
+		NULL_POINTER_EXCEPTION("noNullPointerException"),
+		SUPPRESS_WARNINGS("noSuppressWarnings"),
+		TO_ONE_WITHOUT_OPTIONAL("xToOneMustToSetOptional"),
+		TO_MANY_EAGER("xToManyMustNotUseEAGER"),
+		SQL_DATE("notSQLDate", CheckPolicy.bannedSQLDate),
+		OLD_JUNIT_ASSERT("notOldJunitAssert", CheckPolicy.bannedOldJunitAssert),
+		OLD_JUNIT_RUNNER("notOldJunitRunner", CheckPolicy.bannedOldJunitRunner),
+		OLD_JUNIT_TEST("notOldJunit", CheckPolicy.bannedOldJunit),
+		JUNIT_FRAMEWORK("notJunitFramework", CheckPolicy.bannedJunitFramework),
+		COMMONS_LANG2("notCommonsLang2Use3", CheckPolicy.bannedCommonsLang2),
+		COMMONS_COLLECTIONS3("notCommonsCollection3Use4", CheckPolicy.bannedCommonsCollection3),
+		LOG4J("notLog4j", CheckPolicy.bannedLog4j),
+		CONTROLLER_OUTSIDE_PACKAGE("springBootControllersInControllerPackage"),
+		ENTITY_OUTSIDE_PACKAGE("springBootEntitiesInEntityPackage"),
+		REPOSITORY_OUTSIDE_PACKAGE("springBootRepositoriesInRepositoryPackage"),
+		COMPONENT_OUTSIDE_PACKAGE("springBootComponentInComponentPackage"),
+		SERVICE_OUTSIDE_PACKAGE("springBootServicesInServicePackage"),
+		CONTROLLER_NOT_ANNOTATED("springBootNotControllerInControllerPackage"),
+		COMPONENT_NOT_ANNOTATED("springBootNotComponentInComponentPackage"),
+		ENTITY_NOT_ANNOTATED("springBootNotEntityInEntityPackage"),
+		REPOSITORY_NOT_SPRING_DATA("springBootNotRepositoryInRepositoryPackage"),
+		SERVICE_NOT_ANNOTATED("springBootNotServiceInServicePackage"),
+		INTERFACE_IN_CONTROLLER_PACKAGE("springBootNotClassInControllerPackage"),
+		ENUM_IN_ENTITY_PACKAGE("springBootNotClassInEntityPackage"),
+		CLASS_IN_REPOSITORY_PACKAGE("springBootNotInterfaceInRepositoryPackage"),
+		ENUM_IN_SERVICE_PACKAGE("springBootNotClassOrInterfaceInServicePackage"),
+		SERVICE_BAD_NAME("springBootServiceBadName"),
+		SERVICE_WITHOUT_INTERFACE("springBootServiceDontImplInterface"),
+		SERVICE_INTERFACE_BAD_NAME("springBootServiceInterfaceNames"),
+		CONTROLLER_WITHOUT_RESPONSE_ENTITY("springBootRESTControllerMethodsMustReturnResponseEntity"),
+		CONTROLLER_WITHOUT_MAPPING("springBootRESTControllerMethodsMustReturnResponseEntity");
+
+		/**
+		 * The CheckPolicy test method name which must fail with this violation.
+		 */
+		final String checkPolicyTest;
+		/**
+		 * Null if it's not a banned import
+		 */
+		final BannedImport bannedImport;
+
+		Violation(final String checkPolicyTest) {
+			this(checkPolicyTest, null);
+		}
+
+		Violation(final String checkPolicyTest, final BannedImport bannedImport) {
+			this.checkPolicyTest = checkPolicyTest;
+			this.bannedImport = bannedImport;
+		}
+	}
+
+	/**
+	 * A banned import, injected in the Service implementation.
+	 */
+	private record BannedUsage(Violation violation, String importName, String statement) {
+	}
+
+	private static final List<BannedUsage> BANNED_USAGES = List.of(
+			new BannedUsage(Violation.OLD_JUNIT_ASSERT, "org.junit.Assert", "Assert.assertEquals(id, id.strip());"),
+			new BannedUsage(Violation.OLD_JUNIT_RUNNER, "org.junit.runner.Result", "final var result = new Result();"),
+			new BannedUsage(Violation.OLD_JUNIT_TEST, "org.junit.Test", "final Class<?> test = Test.class;"),
+			new BannedUsage(Violation.JUNIT_FRAMEWORK, "junit.framework.TestFailure",
+					"final var failure = new TestFailure();"),
+			new BannedUsage(Violation.COMMONS_LANG2, "org.apache.commons.lang.ThisClassIsFromAn2OlderPackage",
+					"final var lang = new ThisClassIsFromAn2OlderPackage();"),
+			new BannedUsage(Violation.COMMONS_COLLECTIONS3,
+					"org.apache.commons.collections.ThisClassIsFromAnOlderPackage",
+					"final var collections = new ThisClassIsFromAnOlderPackage();"),
+			new BannedUsage(Violation.LOG4J, "org.apache.logging.log4j.Log4jLogger",
+					"final var marker = Log4jLogger.SOMETHING;"));
+
+	private final Path sourceDir;
+	private final String basePackage;
+	private final Map<Violation, Double> densityByViolation;
+	private final Random random;
+	private final Map<Violation, Integer> injected;
+
+	/**
+	 * @param densityByViolation missing violations are never injected
+	 */
+	SpringBootCorpus(final Path sourceDir,
+					 final String basePackage,
+					 final Map<Violation, Double> densityByViolation,
+					 final long seed) {
+		this.sourceDir = Objects.requireNonNull(sourceDir, "\"sourceDir\" can't to be null");
+		this.basePackage = Objects.requireNonNull(basePackage, "\"basePackage\" can't to be null");
+		this.densityByViolation = Map.copyOf(densityByViolation);
+		random = new Random(seed);// NOSONAR S2245
+		injected = new EnumMap<>(Violation.class);
+	}
+
+	/**
+	 * @param classCount the wanted class count, rounded to a feature count (at least one)
+	 * @return the injected count by violation, for all violations, with one violation by injection
+	 */
+	Map<Violation, Integer> generate(final int classCount) throws IOException {
+		for (final var violation : Violation.values()) {
+			injected.put(violation, 0);
+		}
+		write(basePackage, "GeneratedApp", """
+				package %s;
+
+				import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+				@SpringBootApplication
+				public class GeneratedApp {
+				}
+				""".formatted(basePackage));
+
+		final var featureCount = Math.max(1, classCount / CLASSES_BY_FEATURE);
+		for (var feature = 0; feature < featureCount; feature++) {
+			generateFeature(basePackage + ".m" + feature / FEATURES_BY_MODULE, "Feature" + feature);
+		}
+		return Map.copyOf(injected);
+	}
+
+	private boolean inject(final Violation violation) {
+		final var density = densityByViolation.getOrDefault(violation, 0d);
+		if (density <= 0d || random.nextDouble() >= density) {
+			return false;
+		}
+		injected.merge(violation, 1, Integer::sum);
+		return true;
+	}
+
+	private String choose(final Violation violation, final String ok, final String ko) {
+		return inject(violation) ? ko : ok;
+	}
+
+	private void generateFeature(final String modulePackage, final String name) throws IOException {
+		final var entityPackage = generateEntity(modulePackage, name);
+		final var repositoryPackage = generateRepository(modulePackage, name, entityPackage);
+		final var serviceInterface = generateService(modulePackage, name, repositoryPackage);
+		generateComponent(modulePackage, name);
+		generateController(modulePackage, name, serviceInterface);
+	}
+
+	/**
+	 * @return the entity package
+	 */
+	private String generateEntity(final String modulePackage, final String name) throws IOException {
+		final var outsidePackage = inject(Violation.ENTITY_OUTSIDE_PACKAGE);
+		final var notAnnotated = outsidePackage == false && inject(Violation.ENTITY_NOT_ANNOTATED);
+		final var entityPackage = modulePackage + (outsidePackage ? ".model" : ".entity");
+
+		final var sqlDate = inject(Violation.SQL_DATE);
+		write(entityPackage, name + "Entity", """
+				package %1$s;
+
+				import %2$s;
+				import java.util.List;
+
+				import jakarta.persistence.Entity;
+				import jakarta.persistence.FetchType;
+				import jakarta.persistence.Id;
+				import jakarta.persistence.ManyToOne;
+				import jakarta.persistence.OneToMany;
+
+				%7$spublic class %3$sEntity {
+
+					@Id
+					private String id;
+
+					private %4$s created;
+
+					@ManyToOne%5$s
+					private %3$sEntity parent;
+
+					@OneToMany(mappedBy = "parent", fetch = FetchType.%6$s)
+					private List<%3$sEntity> children;
+
+				}
+				""".formatted(entityPackage,
+				sqlDate ? "java.sql.Date" : "java.time.Instant",
+				name,
+				sqlDate ? "Date" : "Instant",
+				choose(Violation.TO_ONE_WITHOUT_OPTIONAL, "(optional = false)", ""),
+				choose(Violation.TO_MANY_EAGER, "LAZY", "EAGER"),
+				notAnnotated ? "" : "@Entity\n"));
+
+		if (inject(Violation.ENUM_IN_ENTITY_PACKAGE)) {
+			write(modulePackage + ".entity", name + "Status", """
+					package %1$s;
+
+					public enum %2$sStatus {
+						ACTIVE, ARCHIVED;
+					}
+					""".formatted(modulePackage + ".entity", name));
+		}
+		return entityPackage;
+	}
+
+	/**
+	 * @return the repository package
+	 */
+	private String generateRepository(final String modulePackage,
+									  final String name,
+									  final String entityPackage) throws IOException {
+		final var outsidePackage = inject(Violation.REPOSITORY_OUTSIDE_PACKAGE);
+		final var notSpringData = outsidePackage == false && inject(Violation.REPOSITORY_NOT_SPRING_DATA);
+		final var repositoryPackage = modulePackage + (outsidePackage ? ".persistence" : ".repository");
+
+		write(repositoryPackage, name + "Repository", """
+				package %1$s;
+
+				import org.springframework.data.jpa.repository.JpaRepository;
+				import org.springframework.stereotype.Repository;
+
+				import %2$s.%3$sEntity;
+
+				%4$spublic interface %3$sRepository%5$s {
+
+				}
+				""".formatted(repositoryPackage, entityPackage, name,
+				outsidePackage ? "@Repository\n" : "",
+				notSpringData ? "" : " extends JpaRepository<" + name + "Entity, String>"));
+
+		if (inject(Violation.CLASS_IN_REPOSITORY_PACKAGE)) {
+			write(modulePackage + ".repository", name + "Queries", """
+					package %1$s;
+
+					public class %2$sQueries {
+
+						public static final String BY_ID = "select e from %2$sEntity e where e.id = ?1";
+
+					}
+					""".formatted(modulePackage + ".repository", name));
+		}
+		return repositoryPackage;
+	}
+
+	/**
+	 * @return the service interface qualified name
+	 */
+	private String generateService(final String modulePackage,
+								   final String name,
+								   final String repositoryPackage) throws IOException {
+		final var servicePackage = modulePackage + ".service";
+		final var notAnnotated = inject(Violation.SERVICE_NOT_ANNOTATED);
+		final var outsidePackage = notAnnotated == false && inject(Violation.SERVICE_OUTSIDE_PACKAGE);
+		final var badName = notAnnotated == false && inject(Violation.SERVICE_BAD_NAME);
+		final var withoutInterface = notAnnotated == false && inject(Violation.SERVICE_WITHOUT_INTERFACE);
+		final var interfaceBadName = notAnnotated == false
+									 && outsidePackage == false
+									 && withoutInterface == false
+									 && inject(Violation.SERVICE_INTERFACE_BAD_NAME);
+		final var interfaceName = name + (interfaceBadName ? "Operations" : "Service");
+		final var implementationPackage = outsidePackage ? modulePackage + ".business" : servicePackage;
+		final var implementationName = name + (badName ? "ServiceBean" : "ServiceImpl");
+
+		write(servicePackage, interfaceName, """
+				package %1$s;
+
+				public interface %2$s {
+
+					String describe(String id);
+
+				}
+				""".formatted(servicePackage, interfaceName));
+
+		final var bannedImports = new ArrayList<String>();
+		final var bannedStatements = new StringBuilder();
+		for (final var usage : BANNED_USAGES) {
+			if (inject(usage.violation())) {
+				bannedImports.add("import " + usage.importName() + ";\n");
+				bannedStatements.append("\t\t").append(usage.statement()).append("\n");
+			}
+		}
+
+		write(implementationPackage, implementationName, """
+				package %1$s;
+
+				import java.util.Optional;
+
+				%12$simport org.springframework.stereotype.Service;
+
+				import %2$s.%3$sRepository;
+				import %13$s.%14$s;
+
+				%15$spublic class %4$s%16$s {
+
+					private final %3$sRepository repository;
+
+					public %4$s(final %3$sRepository repository) {
+						this.repository = repository;
+					}
+
+				%17$s	public String describe(final String id) {
+						if (id == null) {
+							throw new IllegalArgumentException(%5$s);
+						}
+				%6$s%18$s		return find(id).orElse(repository.getClass().getSimpleName());
+					}
+
+				%7$s	private Optional<String> find(final String id) {
+						if (id.isBlank()) {
+							throw new %8$s("Blank id");
+						}
+						if (id.length() > 64) {
+							throw new %9$s("Too long id");
+						}
+						try {
+							return Optional.ofNullable(Integer.toHexString(Integer.parseInt(id)));
+						} catch (final NumberFormatException e) {
+				%10$s		}
+						return Optional.%11$s(id.strip());
+					}
+
+				}
+				""".formatted(implementationPackage, repositoryPackage, name, implementationName,
+				choose(Violation.ILLEGAL_ARGUMENT_WO_MESSAGE, "\"No id\"", ""),
+				choose(Violation.SYS_OUT, "", "\t\tSystem.out.println(\"describe \" + id);\n"),
+				choose(Violation.SUPPRESS_WARNINGS, "", "\t@SuppressWarnings(\"unused\")\n"),
+				choose(Violation.RUNTIME_EXCEPTION, "IllegalStateException", "RuntimeException"),
+				choose(Violation.NULL_POINTER_EXCEPTION, "IllegalStateException", "NullPointerException"),
+				choose(Violation.PRINT_STACK_TRACE, "", "\t\t\te.printStackTrace();\n"),
+				choose(Violation.OPTIONAL_OF, "ofNullable", "of"),
+				bannedImports.isEmpty() ? "" : String.join("", bannedImports) + "\n",
+				servicePackage, interfaceName,
+				notAnnotated ? "" : "@Service\n",
+				withoutInterface ? "" : " implements " + interfaceName,
+				withoutInterface ? "" : "\t@Override\n",
+				bannedStatements));
+
+		if (inject(Violation.ENUM_IN_SERVICE_PACKAGE)) {
+			write(servicePackage, name + "State", """
+					package %1$s;
+
+					public enum %2$sState {
+						STARTED, STOPPED;
+					}
+					""".formatted(servicePackage, name));
+		}
+		return servicePackage + "." + interfaceName;
+	}
+
+	private void generateComponent(final String modulePackage, final String name) throws IOException {
+		final var outsidePackage = inject(Violation.COMPONENT_OUTSIDE_PACKAGE);
+		final var notAnnotated = outsidePackage == false && inject(Violation.COMPONENT_NOT_ANNOTATED);
+		final var componentPackage = modulePackage + (outsidePackage ? ".support" : ".component");
+
+		write(componentPackage, name + "Formatter", """
+				package %1$s;
+
+				import org.springframework.stereotype.Component;
+
+				%3$spublic class %2$sFormatter {
+
+					public String format(final String value) {
+						return "%2$s:" + value;
+					}
+
+				}
+				""".formatted(componentPackage, name, notAnnotated ? "" : "@Component\n"));
+	}
+
+	private void generateController(final String modulePackage,
+									final String name,
+									final String serviceInterface) throws IOException {
+		final var outsidePackage = inject(Violation.CONTROLLER_OUTSIDE_PACKAGE);
+		final var notAnnotated = outsidePackage == false && inject(Violation.CONTROLLER_NOT_ANNOTATED);
+		final var restController = outsidePackage == false && notAnnotated == false;
+		final var rawController = restController && inject(Violation.CONTROLLER_WITHOUT_RESPONSE_ENTITY);
+		final var unmapped = restController && inject(Violation.CONTROLLER_WITHOUT_MAPPING);
+		final var controllerPackage = modulePackage + (outsidePackage ? ".web" : ".controller");
+		final var serviceName = serviceInterface.substring(serviceInterface.lastIndexOf('.') + 1);
+
+		final String annotation;
+		if (outsidePackage) {
+			annotation = "@Controller\n";
+		} else if (notAnnotated) {
+			annotation = "";
+		} else {
+			annotation = "@RestController\n";
+		}
+
+		write(controllerPackage, name + "Controller", """
+				package %1$s;
+
+				import org.springframework.http.ResponseEntity;
+				import org.springframework.stereotype.Controller;
+				import org.springframework.web.bind.annotation.GetMapping;
+				import org.springframework.web.bind.annotation.PathVariable;
+				import org.springframework.web.bind.annotation.RequestMapping;
+				import org.springframework.web.bind.annotation.RestController;
+
+				import %2$s;
+
+				%3$s@RequestMapping("/%4$s")
+				public class %5$sController {
+
+					private final %6$s service;
+
+					public %5$sController(final %6$s service) {
+						this.service = service;
+					}
+
+					@GetMapping("/{id}")
+					public %7$s get(@PathVariable("id") final String id) {
+						return %8$s;
+					}
+				%9$s
+				}
+				""".formatted(controllerPackage, serviceInterface, annotation, name.toLowerCase(), name, serviceName,
+				rawController ? "String" : "ResponseEntity<String>",
+				rawController ? "service.describe(id)" : "ResponseEntity.ok(service.describe(id))",
+				unmapped ? "\n\tpublic ResponseEntity<String> ping() {\n"
+						   + "\t\treturn ResponseEntity.ok(\"pong\");\n\t}\n" : ""));
+
+		if (inject(Violation.INTERFACE_IN_CONTROLLER_PACKAGE)) {
+			write(modulePackage + ".controller", name + "Api", """
+					package %1$s;
+
+					public interface %2$sApi {
+
+						String PATH = "/%3$s";
+
+					}
+					""".formatted(modulePackage + ".controller", name, name.toLowerCase()));
+		}
+	}
+
+	private void write(final String packageName, final String className, final String content) throws IOException {
+		final var dir = sourceDir.resolve(packageName.replace('.', '/'));
+		Files.createDirectories(dir);
+		Files.writeString(dir.resolve(className + ".java"), content);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.lang.management.MemoryType.HEAP;
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tv.hd3g.commons.codepolicyvalidation.PolicyMetrics.Measure;
+import tv.hd3g.commons.codepolicyvalidation.SpringBootCorpus.Violation;
+
+/**
+ * mvn test -Dtest=SpringBootCorpusBenchmarkTest -Dcodepolicy.benchmark=true [-Dcodepolicy.benchmark.sizes=1000,10000,100000]
+ * Run all the CheckPolicy tests on a generated Spring Boot corpus by size (class count), and write the total time,
+ * the peak heap, and the measures of each phase, rule and test to target/springboot-corpus-benchmark.csv
+ */
+@EnabledIfSystemProperty(named = "codepolicy.benchmark", matches = "true")
+class SpringBootCorpusBenchmarkTest {
+	private static final Logger log = LoggerFactory.getLogger(SpringBootCorpusBenchmarkTest.class);
+
+	static final String SIZES_PROPERTY = "codepolicy.benchmark.sizes";
+	static final double DENSITY = 0.01d;
+	static final Path REPORT = Path.of("target", "springboot-corpus-benchmark.csv");
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void macroBenchmark() throws IOException {
+		final var sizes = Stream.of(System.getProperty(SIZES_PROPERTY, "1000,10000").split(","))
+				.map(String::trim)
+				.map(Integer::valueOf)
+				.toList();
+		final var densities = Stream.of(Violation.values())
+				.collect(Collectors.toUnmodifiableMap(v -> v, v -> DENSITY));
+
+		final var metricsProperty = System.getProperty(PolicyMetrics.METRICS_PROPERTY);
+		System.setProperty(PolicyMetrics.METRICS_PROPERTY, "true");
+		try (var report = Files.newBufferedWriter(REPORT)) {
+			report.write("classes,kind,name,wallMs,cpuMs,allocatedMB,nodes,peakHeapMB\n");
+			for (final int size : sizes) {
+				run(size, densities, report);
+			}
+		} finally {
+			if (metricsProperty == null) {
+				System.clearProperty(PolicyMetrics.METRICS_PROPERTY);
+			} else {
+				System.setProperty(PolicyMetrics.METRICS_PROPERTY, metricsProperty);
+			}
+		}
+		log.info("Corpus benchmark report: {}", REPORT.toAbsolutePath());
+	}
+
+	private void run(final int size, final Map<Violation, Double> densities, final Writer report) throws IOException {
+		final var sourceDir = tempDir.resolve("corpus" + size);
+		final var injected = new SpringBootCorpus(sourceDir, "generated.app", densities, size).generate(size);
+
+		System.gc();// NOSONAR S1215
+		final var heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(pool -> pool.getType() == HEAP)
+				.toList();
+		heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+		final var startTime = System.nanoTime();
+		final var failures = new PolicyRunner(CheckPolicy::new, CheckPolicy.class)
+				.check("corpus" + size, List.of(sourceDir.toString()))
+				.failuresByTest();
+		final var totalNanos = System.nanoTime() - startTime;
+		final var peakHeap = heapPools.stream()
+				.mapToLong(pool -> pool.getPeakUsage().getUsed())
+				.sum();
+
+		assertEquals(injected.entrySet().stream()
+				.filter(entry -> entry.getValue() > 0)
+				.map(entry -> entry.getKey().checkPolicyTest)
+				.collect(toUnmodifiableSet()), failures.keySet());
+
+		final var metrics = Policies.metrics;
+		log.info("Check a corpus of {} classes in {} ms, peak heap {} MB, {} failed tests\n{}",
+				size, totalNanos / 1_000_000, peakHeap / 1_048_576, failures.size(), metrics.getSummary());
+
+		report.write(size + ",TOTAL,all," + totalNanos / 1_000_000 + ",-1,-1," + failures.size() + ","
+					 + peakHeap / 1_048_576 + "\n");
+		for (final Measure measure : metrics.getMeasures()) {
+			report.write(size + "," + measure.kind() + "," + measure.name() + ","
+						 + toMs(measure.wallNanos()) + "," + toMs(measure.cpuNanos()) + ","
+						 + (measure.allocatedBytes() < 0 ? -1 : measure.allocatedBytes() / 1_048_576) + ","
+						 + measure.nodes() + ",\n");
+		}
+		report.flush();
+	}
+
+	private static long toMs(final long nanos) {
+		return nanos < 0 ? -1 : nanos / 1_000_000;
+	}
+
+}
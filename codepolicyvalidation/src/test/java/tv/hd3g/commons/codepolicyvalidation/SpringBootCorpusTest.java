@@ -0,0 +1,103 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tv.hd3g.commons.codepolicyvalidation.SpringBootCorpus.Violation;
+
+class SpringBootCorpusTest {
+
+	@TempDir
+	Path sourceDir;
+
+	@Test
+	void cleanCorpus() throws IOException {
+		final var injected = new SpringBootCorpus(sourceDir, "generated.app", Map.of(), 0).generate(120);
+		assertTrue(injected.values().stream().allMatch(count -> count == 0));
+
+		final var report = new PolicyRunner(CheckPolicy::new, CheckPolicy.class)
+				.check("clean", List.of(sourceDir.toString()));
+		assertEquals(Map.of(), report.failuresByTest());
+	}
+
+	@Test
+	void violationDensity() throws IOException {
+		final var densities = Stream.of(Violation.values())
+				.collect(Collectors.toUnmodifiableMap(v -> v, v -> 0.5d));
+		final var injected = new SpringBootCorpus(sourceDir, "generated.app", densities, 0).generate(180);
+
+		final var failures = new PolicyRunner(CheckPolicy::new, CheckPolicy.class)
+				.check("violations", List.of(sourceDir.toString()))
+				.failuresByTest();
+		final var checkPolicy = new CheckPolicy();
+
+		final var expectedFailedTests = injected.entrySet().stream()
+				.filter(entry -> entry.getValue() > 0)
+				.map(entry -> entry.getKey().checkPolicyTest)
+				.collect(toUnmodifiableSet());
+		assertEquals(expectedFailedTests, failures.keySet());
+
+		checkPolicy.getElementRules().forEach(rule -> {
+			final var violation = Stream.of(Violation.values())
+					.filter(v -> v.checkPolicyTest.equals(rule.getName()))
+					.findFirst()
+					.orElseThrow();
+			/**
+			 * A rule can match more than one node for the same code (like an annotation type), count the lines.
+			 */
+			final var matchedLines = checkPolicy.getMatches(rule).stream()
+					.map(match -> String.valueOf(match.getParent().getPosition()))
+					.distinct()
+					.count();
+			assertEquals(injected.get(violation).longValue(), matchedLines, rule.getName());
+		});
+		final var bannedImportHits = checkPolicy.getBannedImportHits(CheckPolicy.bannedImportMatcher);
+		Stream.of(Violation.values())
+				.filter(violation -> violation.bannedImport != null)
+				.forEach(violation -> assertEquals(injected.get(violation),
+						bannedImportHits.getOrDefault(violation.bannedImport, Collections.emptySortedSet()).size(),
+						violation.name()));
+		assertMessageCount(failures, Violation.CONTROLLER_WITHOUT_RESPONSE_ENTITY, injected,
+				"don't return a ResponseEntity");
+		assertMessageCount(failures, Violation.CONTROLLER_WITHOUT_MAPPING, injected, "is not a @RequestMapping");
+	}
+
+	private static void assertMessageCount(final Map<String, String> failures,
+										   final Violation violation,
+										   final Map<Violation, Integer> injected,
+										   final String messagePart) {
+		if (injected.get(violation) > 0) {
+			final var message = failures.get(violation.checkPolicyTest);
+			assertEquals(injected.get(violation), message.split(messagePart, -1).length - 1, violation.name());
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import spoon.Launcher;
+
+class TypeHierarchyTest {
+
+	@TempDir
+	Path sourceDir;
+
+	TypeHierarchy typeHierarchy;
+
+	private Launcher parse(final String className, final String content) throws IOException {
+		final var file = sourceDir.resolve(className + ".java");
+		Files.writeString(file, content);
+		final var launcher = new Launcher();
+		launcher.addInputResource(file.toString());
+		launcher.buildModel();
+		return launcher;
+	}
+
+	@BeforeEach
+	void init() throws IOException {
+		final var api = parse("Api", """
+				package api;
+				public interface Api extends other.Unknown {
+				}
+				""");
+		final var universe = new TypeUniverse();
+		universe.add("api", TypeUniverse.getSuperTypesByType(api.getModel().getAllTypes()));
+
+		final var launcher = parse("Impl", """
+				package impl;
+				public class Impl extends java.util.ArrayList<String> implements api.Api {
+					public interface Repository extends api.Api {
+					}
+					public static class Sub extends Impl implements Repository {
+					}
+				}
+				""");
+		typeHierarchy = TypeHierarchy.build(List.of(launcher.getFactory().Package().getRootPackage()), universe);
+	}
+
+	@Test
+	void isSubtypeOf() {
+		assertTrue(typeHierarchy.isSubtypeOf("impl.Impl", "api.Api"));
+		assertTrue(typeHierarchy.isSubtypeOf("impl.Impl", "other.Unknown"));
+		assertTrue(typeHierarchy.isSubtypeOf("impl.Impl", "java.util.Collection"));
+		assertTrue(typeHierarchy.isSubtypeOf("impl.Impl$Sub", "java.util.AbstractList"));
+		assertTrue(typeHierarchy.isSubtypeOf("impl.Impl$Repository", "api.Api"));
+		assertFalse(typeHierarchy.isSubtypeOf("impl.Impl", "impl.Impl"));
+		assertFalse(typeHierarchy.isSubtypeOf("impl.Impl", "java.lang.Object"));
+		assertFalse(typeHierarchy.isSubtypeOf("impl.Impl", "impl.Impl$Repository"));
+		assertFalse(typeHierarchy.isSubtypeOf("impl.Impl", "this.is.not.Found"));
+	}
+
+	@Test
+	void getAllSuperTypeNames() {
+		final var superTypes = typeHierarchy.getAllSuperTypeNames("impl.Impl$Sub");
+		assertTrue(superTypes.containsAll(Set.of("impl.Impl", "impl.Impl$Repository", "api.Api",
+				"java.util.ArrayList", "java.util.AbstractList", "java.util.List")));
+		assertFalse(superTypes.contains("java.lang.Object"));
+		assertEquals(Set.of(), typeHierarchy.getAllSuperTypeNames("this.is.not.Found"));
+	}
+
+	@Test
+	void getAllInterfaceNames() {
+		final var interfaces = typeHierarchy.getAllInterfaceNames("impl.Impl");
+		assertTrue(interfaces.containsAll(Set.of("api.Api", "other.Unknown", "java.util.List",
+				"java.util.RandomAccess")));
+		assertFalse(interfaces.contains("java.util.AbstractList"));
+		assertEquals(Set.of("api.Api", "other.Unknown"), typeHierarchy.getAllInterfaceNames("impl.Impl$Repository"));
+	}
+
+	@Test
+	void hasSuperInterfaces() {
+		assertTrue(typeHierarchy.hasSuperInterfaces("impl.Impl"));
+		assertTrue(typeHierarchy.hasSuperInterfaces("java.util.AbstractList"));
+		assertFalse(typeHierarchy.hasSuperInterfaces("other.Unknown"));
+		assertFalse(typeHierarchy.hasSuperInterfaces("java.lang.Object"));
+	}
+
+	@Test
+	void getSubtypeNames() {
+		assertEquals(Set.of("impl.Impl", "impl.Impl$Repository", "impl.Impl$Sub"),
+				typeHierarchy.getSubtypeNames("api.Api"));
+		assertEquals(Set.of("impl.Impl$Sub"), typeHierarchy.getSubtypeNames("impl.Impl$Repository"));
+		assertEquals(Set.of(), typeHierarchy.getSubtypeNames("this.is.not.Found"));
+	}
+
+	@Test
+	void onDemand() {
+		final var size = typeHierarchy.size();
+		assertTrue(typeHierarchy.isSubtypeOf("java.util.LinkedList", "java.util.AbstractList"));
+		assertTrue(typeHierarchy.size() > size);
+	}
+
+}
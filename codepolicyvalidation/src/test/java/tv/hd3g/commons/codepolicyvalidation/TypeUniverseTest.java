@@ -0,0 +1,73 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import spoon.Launcher;
+import tv.hd3g.commons.codepolicyvalidation.TypeUniverse.TypeSummary;
+
+class TypeUniverseTest {
+
+	@TempDir
+	Path sourceDir;
+
+	private Launcher parse(final String className, final String content) throws IOException {
+		final var file = sourceDir.resolve(className + ".java");
+		Files.writeString(file, content);
+		final var launcher = new Launcher();
+		launcher.addInputResource(file.toString());
+		launcher.buildModel();
+		return launcher;
+	}
+
+	@Test
+	void addUnload() throws IOException {
+		final var launcher = parse("Base", """
+				package universe;
+				public abstract class Base extends java.util.AbstractList<String> implements Runnable, Cloneable {
+					public interface Inner extends java.io.Serializable {
+					}
+				}
+				""");
+		final var universe = new TypeUniverse();
+		universe.add("api", TypeUniverse.getSuperTypesByType(launcher.getModel().getAllTypes()));
+
+		assertEquals(Set.of("api"), universe.getModules());
+		assertEquals(2, universe.size());
+		assertEquals(new TypeSummary("api", "java.util.AbstractList",
+				List.of("java.lang.Cloneable", "java.lang.Runnable")), universe.getSummary("universe.Base"));
+		assertEquals(new TypeSummary("api", null, List.of("java.io.Serializable")),
+				universe.getSummary("universe.Base$Inner"));
+
+		universe.unload("api");
+		assertEquals(Set.of(), universe.getModules());
+		assertEquals(0, universe.size());
+		assertNull(universe.getSummary("universe.Base"));
+	}
+
+}
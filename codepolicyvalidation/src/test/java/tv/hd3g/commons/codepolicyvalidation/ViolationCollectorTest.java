@@ -0,0 +1,177 @@
+/*
+ * This file is part of codepolicyvalidation.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * Copyright (C) hdsdi3g for hd3g.tv 2026
+ *
+ */
+package tv.hd3g.commons.codepolicyvalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tv.hd3g.commons.codepolicyvalidation.PolicyRunnerTest.KO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import spoon.reflect.code.CtThrow;
+
+import tv.hd3g.commons.codepolicyvalidation.Violation.Severity;
+
+class ViolationCollectorTest {
+
+	static final ElementRule<CtThrow> sameThrowMessage = new ElementRule<>("sameThrowMessage", CtThrow.class,
+			t -> true, t -> "throw");
+	static final ElementRule<CtThrow> distinctThrowMessage = new ElementRule<>("distinctThrowMessage", CtThrow.class,
+			t -> true, t -> "throw").withDistinctMessages();
+
+	static Policies policies;
+	@TempDir
+	Path tempDir;
+	final AtomicInteger renders = new AtomicInteger();
+	final AtomicInteger fingerprints = new AtomicInteger();
+
+	@BeforeAll
+	static void globalInit() {
+		Policies.globalInit(KO);
+		policies = new Policies();
+	}
+
+	@AfterEach
+	void end() {
+		System.clearProperty(ViolationCollector.MAX_BY_RULE_PROPERTY);
+	}
+
+	private Violation violation(final String ruleId, final int line) {
+		return new Violation(ruleId, Severity.ERROR, "A.java", line, 1, "CtInvocation", () -> {
+			fingerprints.incrementAndGet();
+			return ruleId + ":" + line;
+		}, () -> {
+			renders.incrementAndGet();
+			return ruleId + " on " + line;
+		});
+	}
+
+	@Test
+	void add() {
+		final var collector = new ViolationCollector(2);
+		assertTrue(collector.isEmpty());
+		assertTrue(collector.add(violation("a", 1)));
+		assertTrue(collector.add(violation("a", 2)));
+		assertFalse(collector.add(violation("a", 3)));
+		assertTrue(collector.add(violation("b", 4)));
+
+		assertFalse(collector.isEmpty());
+		assertEquals(List.of("a", "b"), collector.getRuleIds());
+		assertEquals(3, collector.getCount("a"));
+		assertEquals(1, collector.getCount("b"));
+		assertEquals(0, collector.getCount("c"));
+		assertEquals(List.of(1, 2), collector.getViolations("a").stream().map(Violation::line).toList());
+		assertEquals(0, renders.get());
+		assertEquals(0, fingerprints.get());
+
+		assertEquals("a on 1, a on 2, (and 1 more)", collector.toText("a", ", "));
+		assertEquals("b on 4", collector.toText("b", ", "));
+		assertEquals("", collector.toText("c", ", "));
+		assertEquals(3, renders.get());
+	}
+
+	@Test
+	void add_baseline() throws IOException {
+		final var file = tempDir.resolve("baseline.txt");
+		Files.writeString(file, "a:2\n");
+		final var collector = new ViolationCollector(10, Baseline.read(file));
+		assertTrue(collector.add(violation("a", 1)));
+		assertFalse(collector.add(violation("a", 2)));
+		assertEquals(1, collector.getCount("a"));
+		assertEquals(1, collector.getBaselinedCount("a"));
+		assertEquals("a on 1", collector.toText("a", ", "));
+	}
+
+	@Test
+	void invalidMax() {
+		assertThrows(IllegalArgumentException.class, () -> new ViolationCollector(0));
+	}
+
+	@Test
+	void maxByRuleProperty() {
+		assertEquals(Integer.MAX_VALUE, new ViolationCollector().getMaxByRule());
+		System.setProperty(ViolationCollector.MAX_BY_RULE_PROPERTY, "10");
+		assertEquals(10, new ViolationCollector().getMaxByRule());
+		System.setProperty(ViolationCollector.MAX_BY_RULE_PROPERTY, "-1");
+		assertEquals(Integer.MAX_VALUE, new ViolationCollector().getMaxByRule());
+	}
+
+	@Test
+	void collectViolations_elementRule() {
+		final var collector = new ViolationCollector();
+		policies.collectViolations(CheckPolicy.ruleSysOutSysErr, collector);
+
+		final var violations = collector.getViolations("noSysOutSysErr");
+		assertFalse(violations.isEmpty());
+		violations.forEach(violation -> {
+			assertTrue(violation.file().endsWith("BadClass.java"), violation.file());
+			assertTrue(violation.line() > 0);
+			assertTrue(violation.column() > 0);
+			assertEquals("CtInvocation", violation.elementKind());
+			assertTrue(violation.getMessage().endsWith("BadClass.java:" + violation.line()), violation::getMessage);
+		});
+		assertEquals(policies.getMatchMessages(CheckPolicy.ruleSysOutSysErr),
+				violations.stream().map(Violation::getMessage).toList());
+	}
+
+	@Test
+	void collectViolations_distinctMessages() {
+		final var throwCount = policies.getMatches(sameThrowMessage).size();
+		assertTrue(throwCount > 1);
+		assertFalse(sameThrowMessage.isDistinctMessages());
+		assertTrue(distinctThrowMessage.isDistinctMessages());
+		assertEquals(Collections.nCopies(throwCount, "throw"), policies.getMatchMessages(sameThrowMessage));
+		assertEquals(List.of("throw"), policies.getMatchMessages(distinctThrowMessage));
+
+		final var collector = new ViolationCollector();
+		policies.collectViolations(sameThrowMessage, collector);
+		policies.collectViolations(distinctThrowMessage, collector);
+		assertEquals(throwCount, collector.getCount("sameThrowMessage"));
+		assertEquals(1, collector.getCount("distinctThrowMessage"));
+	}
+
+	@Test
+	void collectViolations_bannedImport() {
+		final var collector = new ViolationCollector(1);
+		policies.collectViolations(CheckPolicy.bannedSQLDate, collector);
+		assertEquals(List.of("java.sql.Date"), collector.getRuleIds());
+		assertTrue(collector.getViolations("java.sql.Date").get(0).file().endsWith("BadClass.java"));
+	}
+
+	@Test
+	void checkClassNotPresent_capped() {
+		final var bannedImport = new BannedImport("java.", "java");
+		final var full = assertThrows(BadImportClass.class, () -> policies.checkClassNotPresent(bannedImport));
+		System.setProperty(ViolationCollector.MAX_BY_RULE_PROPERTY, "1");
+		final var capped = assertThrows(BadImportClass.class, () -> policies.checkClassNotPresent(bannedImport));
+		assertTrue(capped.getMessage().length() < full.getMessage().length());
+		assertTrue(capped.getMessage().endsWith(" more)"), capped::getMessage);
+	}
+
+}